@@ -0,0 +1,292 @@
+package sp_logic;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import sp_logic.SudokuSolver.Result;
+
+/**
+ * AsyncSolver solves a sudoku in a background thread so that the user interface stays 
+ * responsive. The progress is published at a limited rate and applied to the visible grid 
+ * when the user interface asks for it. The progress messages and unexpected failures are 
+ * passed to a listener, if one has been set. The background thread is kept until the 
+ * solver is shut down.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class AsyncSolver
+{
+	// ATTRIBUTES	-------------------
+	
+	private SudokuGrid sudoku;
+	private ExecutorService executor;
+	private long publishInterval;
+	private Listener listener;
+	
+	private Future<SudokuGrid> task;
+	private int[][] originalNumbers;
+	private AtomicReference<Progress> latestProgress;
+	
+	
+	// CONSTRUCTOR	-------------------
+	
+	/**
+	 * Creates a new solver
+	 * @param sudoku The visible sudoku that will be solved
+	 * @param publishIntervalMillis How often (in milliseconds) the progress is published at 
+	 * most
+	 */
+	public AsyncSolver(SudokuGrid sudoku, long publishIntervalMillis)
+	{
+		this.sudoku = sudoku;
+		this.publishInterval = publishIntervalMillis * 1000000;
+		this.task = null;
+		this.listener = null;
+		this.originalNumbers = null;
+		this.latestProgress = new AtomicReference<>();
+		
+		this.executor = Executors.newSingleThreadExecutor(new ThreadFactory()
+		{
+			@Override
+			public Thread newThread(Runnable r)
+			{
+				Thread thread = new Thread(r, "Sudoku solver");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+	
+	
+	// ACCESSORS	-------------------
+	
+	/**
+	 * @return Is the solver currently working on the puzzle
+	 */
+	public boolean isRunning()
+	{
+		return this.task != null;
+	}
+	
+	/**
+	 * Changes the listener that is informed about the progress of the solving. The listener 
+	 * is called from the user interface thread while the progress is applied.
+	 * @param listener The listener that is informed (null if no one should be informed)
+	 */
+	public void setListener(Listener listener)
+	{
+		this.listener = listener;
+	}
+	
+	
+	// OTHER METHODS	---------------
+	
+	/**
+	 * Starts solving the sudoku in the background. Should be called from the user interface 
+	 * thread.
+	 * @return Was the solving started. False if the solver was already running or has been 
+	 * shut down.
+	 */
+	public boolean start()
+	{
+		if (isRunning() || this.executor.isShutdown())
+			return false;
+		
+		// The numbers are read here so that the background thread never touches the visible 
+		// grid
+		this.originalNumbers = this.sudoku.getNumbers();
+		this.latestProgress.set(null);
+		this.task = this.executor.submit(new SolveTask(this.originalNumbers, 
+				this.sudoku.getRules()));
+		
+		return true;
+	}
+	
+	/**
+	 * Stops the solving and returns the visible grid to the state it was in when the solving 
+	 * started. Should be called from the user interface thread.
+	 */
+	public void cancel()
+	{
+		if (!isRunning())
+			return;
+		
+		this.task.cancel(true);
+		this.task = null;
+		this.sudoku.copyNumbersFrom(this.originalNumbers);
+	}
+	
+	/**
+	 * Stops the solving and the background thread. The solver can't be started again 
+	 * afterwards. Should be called from the user interface thread once the solver is no 
+	 * longer used.
+	 */
+	public void shutdown()
+	{
+		cancel();
+		this.executor.shutdownNow();
+	}
+	
+	/**
+	 * Applies the latest published progress to the visible grid. When the solving is 
+	 * complete, the answer is copied to the visible grid. Should be called regularly from 
+	 * the user interface thread.
+	 * @throws UnsolvablePuzzleException If the solving finished and the puzzle was found 
+	 * unsolvable. The visible grid is returned to its original state in this case.
+	 * @throws IllegalStateException If the solving failed unexpectedly and there is no 
+	 * listener to inform about it
+	 */
+	public void update() throws UnsolvablePuzzleException
+	{
+		if (!isRunning())
+			return;
+		
+		if (this.task.isDone())
+		{
+			Future<SudokuGrid> finished = this.task;
+			this.task = null;
+			
+			try
+			{
+				this.sudoku.copyNumbersFrom(finished.get());
+				if (this.listener != null)
+					this.listener.onComplete();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			catch (ExecutionException e)
+			{
+				this.sudoku.copyNumbersFrom(this.originalNumbers);
+				
+				if (e.getCause() instanceof UnsolvablePuzzleException)
+				{
+					// The slots are moved from the background grid to the visible one
+					throw ((UnsolvablePuzzleException) e.getCause()).moveTo(this.sudoku);
+				}
+				else if (this.listener != null)
+					this.listener.onError(e.getCause());
+				else
+					throw new IllegalStateException("The background solving failed", 
+							e.getCause());
+			}
+		}
+		else
+		{
+			Progress progress = this.latestProgress.getAndSet(null);
+			if (progress != null)
+			{
+				this.sudoku.copyNumbersFrom(progress.numbers);
+				if (this.listener != null)
+					this.listener.onProgress(progress.operations, progress.message);
+			}
+		}
+	}
+	
+	
+	// SUBCLASSES	-------------------
+	
+	/**
+	 * Listeners are informed about the progress of a background solve
+	 * @author Mikko Hilpinen
+	 * @since 18.10.2026
+	 */
+	public static interface Listener
+	{
+		/**
+		 * This method is called when new progress is shown in the visible grid
+		 * @param operations How many operations the solver had taken
+		 * @param message The message of the latest step
+		 */
+		public void onProgress(int operations, String message);
+		
+		/**
+		 * This method is called when the answer has been copied to the visible grid
+		 */
+		public void onComplete();
+		
+		/**
+		 * This method is called when the solving failed for some other reason than the 
+		 * puzzle being unsolvable. The visible grid has been returned to its original state.
+		 * @param error The error that stopped the solving
+		 */
+		public void onError(Throwable error);
+	}
+	
+	private class SolveTask implements Callable<SudokuGrid>
+	{
+		// ATTRIBUTES	---------------
+		
+		private int[][] numbers;
+		private SudokuRules rules;
+		
+		
+		// CONSTRUCTOR	---------------
+		
+		public SolveTask(int[][] numbers, SudokuRules rules)
+		{
+			this.numbers = numbers;
+			this.rules = rules;
+		}
+		
+		
+		// IMPLEMENTED METHODS	-------
+		
+		@Override
+		public SudokuGrid call() throws UnsolvablePuzzleException
+		{
+			SudokuGrid working = new SudokuGrid(SudokuReader.getBoxSize(this.numbers.length));
+			working.setRules(this.rules);
+			working.loadNumbers(this.numbers);
+			SudokuSolver solver = new SudokuSolver(working, true);
+			
+			long nextPublish = System.nanoTime() + AsyncSolver.this.publishInterval;
+			Result r;
+			do
+			{
+				// The task stops once it is cancelled
+				if (Thread.currentThread().isInterrupted())
+					return null;
+				
+				r = solver.solveStep();
+				
+				long now = System.nanoTime();
+				if (now >= nextPublish)
+				{
+					AsyncSolver.this.latestProgress.set(new Progress( 
+							solver.getCurrentSudoku().getNumbers(), solver.getOperations(), 
+							r.getMessage()));
+					nextPublish = now + AsyncSolver.this.publishInterval;
+				}
+			}
+			while (r.isClear());
+			
+			return working;
+		}
+	}
+	
+	private static class Progress
+	{
+		// ATTRIBUTES	---------------
+		
+		private int[][] numbers;
+		private int operations;
+		private String message;
+		
+		
+		// CONSTRUCTOR	---------------
+		
+		public Progress(int[][] numbers, int operations, String message)
+		{
+			this.numbers = numbers;
+			this.operations = operations;
+			this.message = message;
+		}
+	}
+}
@@ -0,0 +1,212 @@
+package sp_logic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import sp_logic.SudokuRules.Cage;
+import sp_logic.UnsolvablePuzzleException.Reason;
+
+/**
+ * BacktrackingSudokuSolver solves a sudoku with a plain depth first search. The slot with 
+ * the fewest possible numbers is always filled next and the search backs up as soon as a 
+ * slot runs out of numbers. No solving techniques are used, which keeps each step cheap.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class BacktrackingSudokuSolver implements SudokuEngine
+{
+	// ATTRIBUTES	-------------------
+	
+	private static final int INTERRUPT_CHECK_INTERVAL = 1024;
+	
+	private SudokuGrid sudoku;
+	private int operations;
+	private boolean interrupted;
+	
+	private SudokuRules rules;
+	private int size;
+	private int[] numbers; // Slot index -> number (0 if empty)
+	private Cage[][] cagesOfSlots;
+	
+	
+	// CONSTRUCTOR	-------------------
+	
+	/**
+	 * Creates a new solver
+	 * @param sudoku The sudoku that needs solving
+	 */
+	public BacktrackingSudokuSolver(SudokuGrid sudoku)
+	{
+		this.sudoku = sudoku;
+		this.operations = 0;
+	}
+	
+	
+	// IMPLEMENTED METHODS	-----------
+	
+	/**
+	 * @return How many numbers have been tried so far
+	 */
+	@Override
+	public int getOperations()
+	{
+		return this.operations;
+	}
+	
+	@Override
+	public void solve() throws UnsolvablePuzzleException
+	{
+		this.rules = this.sudoku.getRules();
+		this.size = this.sudoku.getSize();
+		this.numbers = new int[this.size * this.size];
+		this.cagesOfSlots = findCagesOfSlots(this.rules);
+		this.interrupted = false;
+		
+		for (int x = 0; x < this.size; x++)
+		{
+			for (int y = 0; y < this.size; y++)
+			{
+				this.numbers[this.rules.getIndex(x, y)] = 
+						this.sudoku.getSlot(x, y).getNumber();
+			}
+		}
+		
+		// The starting numbers must fit the rules as well
+		for (int index = 0; index < this.numbers.length; index++)
+		{
+			if (this.numbers[index] > 0 && (NumberSet.contains(getUsedNumbers(index), 
+					this.numbers[index]) || !fitsCages(index)))
+				throw new UnsolvablePuzzleException(getSlot(index), Reason.INVALID_START, 
+						null, this.numbers[index]);
+		}
+		
+		boolean solved = search();
+		if (this.interrupted)
+			return;
+		if (!solved)
+			throw new UnsolvablePuzzleException(null, Reason.NO_SOLUTION, null, 0);
+		
+		int[][] answer = new int[this.size][this.size];
+		for (int index = 0; index < this.numbers.length; index++)
+		{
+			answer[index % this.size][index / this.size] = this.numbers[index];
+		}
+		this.sudoku.copyNumbersFrom(answer);
+	}
+	
+	
+	// OTHER METHODS	---------------
+	
+	private boolean search()
+	{
+		// Finds the empty slot with the fewest possible numbers
+		int target = -1;
+		int targetNumbers = NumberSet.EMPTY;
+		int all = NumberSet.range(this.size);
+		for (int index = 0; index < this.numbers.length; index++)
+		{
+			if (this.numbers[index] != 0)
+				continue;
+			
+			int possible = all & ~getUsedNumbers(index);
+			if (target < 0 || NumberSet.size(possible) < NumberSet.size(targetNumbers))
+			{
+				target = index;
+				targetNumbers = possible;
+				if (NumberSet.size(possible) <= 1)
+					break;
+			}
+		}
+		
+		// The puzzle is complete once there are no empty slots left
+		if (target < 0)
+			return true;
+		
+		for (int rest = targetNumbers; rest != 0; rest &= rest - 1)
+		{
+			this.operations ++;
+			if (this.operations % INTERRUPT_CHECK_INTERVAL == 0 && 
+					Thread.currentThread().isInterrupted())
+				this.interrupted = true;
+			if (this.interrupted)
+				return false;
+			
+			this.numbers[target] = NumberSet.first(rest);
+			if (fitsCages(target) && search())
+				return true;
+		}
+		
+		this.numbers[target] = 0;
+		return false;
+	}
+	
+	private int getUsedNumbers(int index)
+	{
+		int used = NumberSet.EMPTY;
+		for (int peer : this.rules.getPeers(index))
+		{
+			used |= NumberSet.of(this.numbers[peer]);
+		}
+		
+		return used & ~NumberSet.of(0);
+	}
+	
+	private boolean fitsCages(int index)
+	{
+		// The numbers placed in a cage must be a part of some combination
+		for (Cage cage : this.cagesOfSlots[index])
+		{
+			int placed = NumberSet.EMPTY;
+			for (int slot : cage.getSlots())
+			{
+				if (this.numbers[slot] > 0)
+					placed |= NumberSet.of(this.numbers[slot]);
+			}
+			
+			boolean fits = false;
+			for (int combination : cage.getCombinations())
+			{
+				if ((combination & placed) == placed)
+				{
+					fits = true;
+					break;
+				}
+			}
+			
+			if (!fits)
+				return false;
+		}
+		
+		return true;
+	}
+	
+	private Slot getSlot(int index)
+	{
+		return this.sudoku.getSlot(index % this.size, index / this.size);
+	}
+	
+	private static Cage[][] findCagesOfSlots(SudokuRules rules)
+	{
+		int slots = rules.getSize() * rules.getSize();
+		List<List<Cage>> cages = new ArrayList<>();
+		for (int i = 0; i < slots; i++)
+		{
+			cages.add(new ArrayList<Cage>());
+		}
+		for (Cage cage : rules.getCages())
+		{
+			for (int slot : cage.getSlots())
+			{
+				cages.get(slot).add(cage);
+			}
+		}
+		
+		Cage[][] cagesOfSlots = new Cage[slots][];
+		for (int i = 0; i < slots; i++)
+		{
+			cagesOfSlots[i] = cages.get(i).toArray(new Cage[0]);
+		}
+		
+		return cagesOfSlots;
+	}
+}
@@ -0,0 +1,142 @@
+package sp_logic;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * DeadEndTable remembers the states that a solver has found to have no solution. The 
+ * states are stored as the Zobrist hashes of the grids, so a solver that reaches a state 
+ * it has already searched through can go back right away instead of searching it again. 
+ * The table has a fixed size and a new state replaces the one that was stored in its 
+ * place. A single table may be shared by any number of solvers and threads, also between 
+ * different puzzles.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class DeadEndTable
+{
+	// ATTRIBUTES	---------------------
+	
+	/**
+	 * The number of bits in the capacity of a table unless told otherwise
+	 */
+	public static final int DEFAULT_CAPACITY_BITS = 16;
+	
+	private AtomicLongArray hashes;
+	private int mask;
+	private AtomicLong lookups, hits, additions;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	/**
+	 * Creates a new table with room for 2^16 states
+	 */
+	public DeadEndTable()
+	{
+		this(DEFAULT_CAPACITY_BITS);
+	}
+	
+	/**
+	 * Creates a new table
+	 * @param capacityBits The table has room for 2^capacityBits states [1, 30]
+	 * @throws IllegalArgumentException If the capacity is out of range
+	 */
+	public DeadEndTable(int capacityBits) throws IllegalArgumentException
+	{
+		if (capacityBits < 1 || capacityBits > 30)
+			throw new IllegalArgumentException("Invalid capacity bits " + capacityBits);
+		
+		this.hashes = new AtomicLongArray(1 << capacityBits);
+		this.mask = (1 << capacityBits) - 1;
+		this.lookups = new AtomicLong();
+		this.hits = new AtomicLong();
+		this.additions = new AtomicLong();
+	}
+	
+	
+	// IMPLEMENTED METHODS	-------------
+	
+	@Override
+	public String toString()
+	{
+		return "Dead ends: " + getAdditionCount() + " added, " + getHitCount() + " hits in " + 
+				getLookupCount() + " lookups";
+	}
+	
+	
+	// ACCESSORS	---------------------
+	
+	/**
+	 * @return How many states the table can hold at once
+	 */
+	public int getCapacity()
+	{
+		return this.hashes.length();
+	}
+	
+	/**
+	 * @return How many times a state has been looked up
+	 */
+	public long getLookupCount()
+	{
+		return this.lookups.get();
+	}
+	
+	/**
+	 * @return How many times a looked up state was found to be a dead end
+	 */
+	public long getHitCount()
+	{
+		return this.hits.get();
+	}
+	
+	/**
+	 * @return How many dead ends have been added
+	 */
+	public long getAdditionCount()
+	{
+		return this.additions.get();
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * Checks whether a state is a known dead end
+	 * @param hash The hash of the state
+	 * @return Is the state known to have no solution
+	 */
+	public boolean contains(long hash)
+	{
+		long key = toKey(hash);
+		this.lookups.incrementAndGet();
+		if (this.hashes.get(getIndex(key)) != key)
+			return false;
+		
+		this.hits.incrementAndGet();
+		return true;
+	}
+	
+	/**
+	 * Remembers a state that has no solution
+	 * @param hash The hash of the state
+	 */
+	public void add(long hash)
+	{
+		long key = toKey(hash);
+		this.hashes.set(getIndex(key), key);
+		this.additions.incrementAndGet();
+	}
+	
+	private int getIndex(long key)
+	{
+		return (int) (key ^ (key >>> 32)) & this.mask;
+	}
+	
+	private static long toKey(long hash)
+	{
+		// 0 marks an empty place in the table
+		return hash == 0 ? 1 : hash;
+	}
+}
@@ -0,0 +1,316 @@
+package sp_logic;
+
+import sp_logic.SudokuSolver.Result;
+import sp_logic.SudokuSolver.Technique;
+import sp_logic.UnsolvablePuzzleException.Reason;
+
+/**
+ * DigitChains contains the solving techniques that follow the places of a single number 
+ * through the grid. For each number a graph is made where the slots that can hold the 
+ * number are connected by strong links (conjugate pairs, the only two places of the number 
+ * in a unit) and weak links (slots that see each other). The links are stored as bit sets 
+ * so the graphs can be made again for every step.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+final class DigitChains
+{
+	// ATTRIBUTES	---------------------
+	
+	/**
+	 * The most links an x-chain may have
+	 */
+	static final int MAX_X_CHAIN_LENGTH = 13;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	private DigitChains()
+	{
+		// The interface is static
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * Colors the conjugate pairs of each number with two alternating colors. One color is 
+	 * true and the other false. If two slots of the same color see each other, that color 
+	 * is false. A slot that sees both colors can't hold the number.
+	 * @param sudoku The grid that is being solved
+	 * @return A clear result if a slot was left with a single possible number
+	 * @throws UnsolvablePuzzleException If the colors contradict each other
+	 */
+	static Result colorNext(SudokuGrid sudoku) throws UnsolvablePuzzleException
+	{
+		SudokuRules rules = sudoku.getRules();
+		for (int number = 1; number <= sudoku.getSize(); number++)
+		{
+			Graph graph = new Graph(sudoku, number);
+			long[] uncolored = graph.linked.clone();
+			
+			for (int start = SlotSet.first(uncolored); start >= 0; 
+					start = SlotSet.first(uncolored))
+			{
+				// Colors the slots connected to the start slot, color by color
+				long[][] colors = {SlotSet.create(graph.slotCount), 
+						SlotSet.create(graph.slotCount)};
+				SlotSet.set(colors[0], start);
+				long[] frontier = SlotSet.create(graph.slotCount);
+				SlotSet.set(frontier, start);
+				int color = 0;
+				
+				while (!SlotSet.isEmpty(frontier))
+				{
+					long[] next = SlotSet.create(graph.slotCount);
+					for (int slot = SlotSet.first(frontier); slot >= 0; 
+							slot = SlotSet.next(frontier, slot))
+					{
+						SlotSet.or(next, graph.strong[slot]);
+					}
+					
+					// A slot reached with both colors means that the pairs can't be solved
+					if (SlotSet.intersects(next, colors[color]))
+						throw new UnsolvablePuzzleException(getSlot(sudoku, start), 
+								Reason.NO_PLACE_FOR_NUMBER, null, number);
+					
+					color = 1 - color;
+					SlotSet.andNot(next, colors[color]);
+					SlotSet.or(colors[color], next);
+					frontier = next;
+				}
+				SlotSet.andNot(uncolored, colors[0]);
+				SlotSet.andNot(uncolored, colors[1]);
+				
+				// If a color sees itself, all of its slots are false (color wrap)
+				for (int c = 0; c < 2; c++)
+				{
+					long[] seen = getSeen(rules, colors[c], graph.slotCount);
+					if (SlotSet.intersects(seen, colors[c]))
+					{
+						Result r = eliminate(sudoku, colors[c], number, "Simple coloring", 
+								Technique.SIMPLE_COLORING);
+						if (r.isClear())
+							return r;
+					}
+				}
+				
+				// The slots that see both colors can't have the number (color trap)
+				long[] targets = getSeen(rules, colors[0], graph.slotCount);
+				SlotSet.and(targets, getSeen(rules, colors[1], graph.slotCount));
+				SlotSet.and(targets, graph.candidates);
+				Result r = eliminate(sudoku, targets, number, "Simple coloring", 
+						Technique.SIMPLE_COLORING);
+				if (r.isClear())
+					return r;
+			}
+		}
+		
+		return Result.failure();
+	}
+	
+	/**
+	 * Follows alternating chains of strong and weak links for each number. A chain that 
+	 * starts and ends with a strong link means that one of its ends holds the number, so 
+	 * the slots that see both ends can't hold it.
+	 * @param sudoku The grid that is being solved
+	 * @param maxLength The most links a chain may have
+	 * @return A clear result if a slot was left with a single possible number
+	 * @throws UnsolvablePuzzleException If a slot was left without possible numbers
+	 */
+	static Result xChainNext(SudokuGrid sudoku, int maxLength) throws 
+			UnsolvablePuzzleException
+	{
+		SudokuRules rules = sudoku.getRules();
+		for (int number = 1; number <= sudoku.getSize(); number++)
+		{
+			Graph graph = new Graph(sudoku, number);
+			
+			for (int start = SlotSet.first(graph.linked); start >= 0; 
+					start = SlotSet.next(graph.linked, start))
+			{
+				// If the start doesn't have the number, the slots reached with a strong link 
+				// have it and the slots they see don't
+				long[] off = SlotSet.create(graph.slotCount);
+				long[] on = SlotSet.create(graph.slotCount);
+				long[] frontier = SlotSet.create(graph.slotCount);
+				SlotSet.set(off, start);
+				SlotSet.set(frontier, start);
+				
+				for (int length = 1; length <= maxLength && !SlotSet.isEmpty(frontier); length++)
+				{
+					long[] next = SlotSet.create(graph.slotCount);
+					boolean strongLink = length % 2 == 1;
+					for (int slot = SlotSet.first(frontier); slot >= 0; 
+							slot = SlotSet.next(frontier, slot))
+					{
+						if (strongLink)
+						{
+							if (graph.strong[slot] != null)
+								SlotSet.or(next, graph.strong[slot]);
+						}
+						else
+							SlotSet.or(next, rules.getPeerMask(slot));
+					}
+					SlotSet.and(next, graph.candidates);
+					SlotSet.andNot(next, strongLink ? on : off);
+					SlotSet.or(strongLink ? on : off, next);
+					frontier = next;
+				}
+				
+				// The start or one of the slots that were turned on has the number
+				for (int end = SlotSet.first(on); end >= 0; end = SlotSet.next(on, end))
+				{
+					if (end == start)
+						continue;
+					
+					long[] targets = rules.getPeerMask(start).clone();
+					SlotSet.and(targets, rules.getPeerMask(end));
+					SlotSet.and(targets, graph.candidates);
+					Result r = eliminate(sudoku, targets, number, "X-chain", 
+							Technique.X_CHAIN);
+					if (r.isClear())
+						return r;
+				}
+			}
+		}
+		
+		return Result.failure();
+	}
+	
+	private static Result eliminate(SudokuGrid sudoku, long[] targets, int number, 
+			String message, Technique technique) throws UnsolvablePuzzleException
+	{
+		for (int index = SlotSet.first(targets); index >= 0; 
+				index = SlotSet.next(targets, index))
+		{
+			Slot slot = getSlot(sudoku, index);
+			if (slot.hasNumber() || !slot.isPossible(number))
+				continue;
+			
+			slot.removePossibleNumber(number);
+			if (slot.getPossibleNumberCount() == 0)
+				throw new UnsolvablePuzzleException(slot, Reason.NO_POSSIBLE_NUMBERS, null, 
+						number);
+			else if (slot.getPossibleNumberCount() == 1)
+			{
+				slot.setNumber(NumberSet.first(slot.getPossibleNumbers()));
+				return new Result(true, message, slot, technique);
+			}
+		}
+		
+		return Result.failure();
+	}
+	
+	private static Slot getSlot(SudokuGrid sudoku, int index)
+	{
+		return sudoku.getSlot(index % sudoku.getSize(), index / sudoku.getSize());
+	}
+	
+	private static long[] getSeen(SudokuRules rules, long[] slots, int slotCount)
+	{
+		long[] seen = SlotSet.create(slotCount);
+		for (int slot = SlotSet.first(slots); slot >= 0; slot = SlotSet.next(slots, slot))
+		{
+			SlotSet.or(seen, rules.getPeerMask(slot));
+		}
+		return seen;
+	}
+	
+	
+	// SUBCLASSES	---------------------
+	
+	/**
+	 * A graph of the places of a single number. The graph is made from the current 
+	 * possible numbers of the slots and the place masks of the units.
+	 */
+	static class Graph
+	{
+		// ATTRIBUTES	-----------------
+		
+		private int slotCount;
+		private long[] candidates; // The slots that can hold the number
+		private long[] linked; // The slots that have at least one strong link
+		private long[][] strong; // Slot index -> the slots it is strongly linked to
+		
+		
+		// CONSTRUCTOR	-----------------
+		
+		/**
+		 * Makes the graph of a number
+		 * @param sudoku The grid whose slots are linked
+		 * @param number The number whose places are linked
+		 */
+		Graph(SudokuGrid sudoku, int number)
+		{
+			SudokuRules rules = sudoku.getRules();
+			UnitPositions positions = sudoku.getUnitPositions();
+			this.slotCount = sudoku.getSize() * sudoku.getSize();
+			this.candidates = SlotSet.create(this.slotCount);
+			this.linked = SlotSet.create(this.slotCount);
+			this.strong = new long[this.slotCount][];
+			
+			for (Slot slot : sudoku.getSlots())
+			{
+				if (!slot.hasNumber() && slot.isPossible(number))
+					SlotSet.set(this.candidates, slot.getIndex());
+			}
+			
+			// A unit with only two places for the number forms a conjugate pair
+			for (int unit = 0; unit < rules.getUnitCount(); unit++)
+			{
+				int places = positions.getPlaces(unit, number);
+				if (Integer.bitCount(places) != 2 || positions.isPlaced(unit, number))
+					continue;
+				
+				int[] slots = rules.getUnit(unit);
+				int a = slots[Integer.numberOfTrailingZeros(places)];
+				int b = slots[31 - Integer.numberOfLeadingZeros(places)];
+				link(a, b);
+				link(b, a);
+			}
+		}
+		
+		
+		// ACCESSORS	-----------------
+		
+		/**
+		 * @return The slots that can hold the number as a slot set
+		 */
+		long[] getCandidates()
+		{
+			return this.candidates;
+		}
+		
+		/**
+		 * @return The slots that have at least one strong link as a slot set
+		 */
+		long[] getLinked()
+		{
+			return this.linked;
+		}
+		
+		/**
+		 * @param slot The index of a slot
+		 * @return The slots the slot is strongly linked to as a slot set. Null if the slot 
+		 * doesn't have strong links.
+		 */
+		long[] getStrongLinks(int slot)
+		{
+			return this.strong[slot];
+		}
+		
+		
+		// OTHER METHODS	-------------
+		
+		private void link(int from, int to)
+		{
+			if (this.strong[from] == null)
+			{
+				this.strong[from] = SlotSet.create(this.slotCount);
+				SlotSet.set(this.linked, from);
+			}
+			SlotSet.set(this.strong[from], to);
+		}
+	}
+}
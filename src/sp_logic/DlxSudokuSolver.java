@@ -0,0 +1,267 @@
+package sp_logic;
+
+import sp_logic.UnsolvablePuzzleException.Reason;
+
+/**
+ * DlxSudokuSolver solves a sudoku as an exact cover problem with dancing links (Knuth's 
+ * algorithm X). Each placement of a number covers its slot and the number in the row, 
+ * column and region (and the diagonals if they are used). Cages are not exact covers, so 
+ * sudokus with cages can't be solved with this engine.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class DlxSudokuSolver implements SudokuEngine
+{
+	// ATTRIBUTES	-------------------
+	
+	private static final int INTERRUPT_CHECK_INTERVAL = 1024;
+	
+	private SudokuGrid sudoku;
+	private int operations;
+	private boolean interrupted;
+	
+	// The links of each node. Nodes 1 ... columns are the column headers and 0 is the root.
+	private int[] left, right, up, down, column, placement;
+	private int[] columnSizes;
+	private int nodes;
+	private int[] chosen; // Depth -> the node chosen at that depth
+	
+	
+	// CONSTRUCTOR	-------------------
+	
+	/**
+	 * Creates a new solver
+	 * @param sudoku The sudoku that needs solving
+	 */
+	public DlxSudokuSolver(SudokuGrid sudoku)
+	{
+		this.sudoku = sudoku;
+		this.operations = 0;
+	}
+	
+	
+	// IMPLEMENTED METHODS	-----------
+	
+	/**
+	 * @return How many placements have been tried so far
+	 */
+	@Override
+	public int getOperations()
+	{
+		return this.operations;
+	}
+	
+	/**
+	 * @throws IllegalStateException If the sudoku has cages
+	 */
+	@Override
+	public void solve() throws UnsolvablePuzzleException, IllegalStateException
+	{
+		SudokuRules rules = this.sudoku.getRules();
+		if (!supports(rules))
+			throw new IllegalStateException("Cages can't be solved as exact covers");
+		
+		int size = this.sudoku.getSize();
+		build(rules);
+		this.interrupted = false;
+		
+		boolean solved = search(0);
+		if (this.interrupted)
+			return;
+		if (!solved)
+			throw new UnsolvablePuzzleException(null, Reason.NO_SOLUTION, null, 0);
+		
+		int[][] answer = new int[size][size];
+		for (int depth = 0; depth < size * size; depth++)
+		{
+			int row = this.placement[this.chosen[depth]];
+			int slot = row / size;
+			answer[slot % size][slot / size] = row % size + 1;
+		}
+		this.sudoku.copyNumbersFrom(answer);
+	}
+	
+	
+	// OTHER METHODS	---------------
+	
+	/**
+	 * @param rules The rules of a sudoku
+	 * @return Can a sudoku with the given rules be solved with this engine
+	 */
+	public static boolean supports(SudokuRules rules)
+	{
+		return rules.getCages().isEmpty();
+	}
+	
+	private void build(SudokuRules rules)
+	{
+		int size = rules.getSize();
+		int slots = size * size;
+		
+		// Columns: slot filled, number in row, number in column, number in region and 
+		// number on the diagonals
+		int columns = slots * 4 + (rules.hasDiagonals() ? size * 2 : 0);
+		int constraintsPerPlacement = rules.hasDiagonals() ? 6 : 4;
+		int maxNodes = 1 + columns + slots * size * constraintsPerPlacement;
+		
+		this.left = new int[maxNodes];
+		this.right = new int[maxNodes];
+		this.up = new int[maxNodes];
+		this.down = new int[maxNodes];
+		this.column = new int[maxNodes];
+		this.placement = new int[maxNodes];
+		this.columnSizes = new int[columns + 1];
+		this.chosen = new int[slots];
+		
+		for (int i = 0; i <= columns; i++)
+		{
+			this.left[i] = i == 0 ? columns : i - 1;
+			this.right[i] = i == columns ? 0 : i + 1;
+			this.up[i] = i;
+			this.down[i] = i;
+			this.column[i] = i;
+		}
+		this.nodes = columns + 1;
+		
+		int[] regionOfSlot = new int[slots];
+		for (int region = 0; region < rules.getRegionCount(); region++)
+		{
+			for (int slot : rules.getRegion(region))
+			{
+				regionOfSlot[slot] = region;
+			}
+		}
+		
+		int[] constraints = new int[constraintsPerPlacement];
+		for (int slot = 0; slot < slots; slot++)
+		{
+			int x = slot % size;
+			int y = slot / size;
+			int given = this.sudoku.getSlot(x, y).getNumber();
+			
+			for (int number = 1; number <= size; number++)
+			{
+				// A slot with a number only has the placement of that number
+				if (given > 0 && given != number)
+					continue;
+				
+				int n = number - 1;
+				int count = 0;
+				constraints[count++] = 1 + slot;
+				constraints[count++] = 1 + slots + y * size + n;
+				constraints[count++] = 1 + slots * 2 + x * size + n;
+				constraints[count++] = 1 + slots * 3 + regionOfSlot[slot] * size + n;
+				if (rules.hasDiagonals())
+				{
+					if (x == y)
+						constraints[count++] = 1 + slots * 4 + n;
+					if (x == size - 1 - y)
+						constraints[count++] = 1 + slots * 4 + size + n;
+				}
+				
+				addRow(slot * size + n, constraints, count);
+			}
+		}
+	}
+	
+	private void addRow(int row, int[] columns, int count)
+	{
+		int first = this.nodes;
+		for (int i = 0; i < count; i++)
+		{
+			int node = this.nodes;
+			this.nodes ++;
+			
+			int header = columns[i];
+			this.column[node] = header;
+			this.placement[node] = row;
+			this.up[node] = this.up[header];
+			this.down[node] = header;
+			this.down[this.up[header]] = node;
+			this.up[header] = node;
+			this.columnSizes[header] ++;
+			
+			this.left[node] = i == 0 ? node : node - 1;
+			this.right[node] = first;
+			this.right[this.left[node]] = node;
+			this.left[first] = node;
+		}
+	}
+	
+	private boolean search(int depth)
+	{
+		// Every column is covered once the root is alone
+		if (this.right[0] == 0)
+			return true;
+		
+		// Picks the column with the fewest rows
+		int target = this.right[0];
+		for (int c = this.right[target]; c != 0; c = this.right[c])
+		{
+			if (this.columnSizes[c] < this.columnSizes[target])
+				target = c;
+		}
+		if (this.columnSizes[target] == 0)
+			return false;
+		
+		cover(target);
+		for (int row = this.down[target]; row != target; row = this.down[row])
+		{
+			this.operations ++;
+			if (this.operations % INTERRUPT_CHECK_INTERVAL == 0 && 
+					Thread.currentThread().isInterrupted())
+				this.interrupted = true;
+			if (this.interrupted)
+				break;
+			
+			this.chosen[depth] = row;
+			for (int node = this.right[row]; node != row; node = this.right[node])
+			{
+				cover(this.column[node]);
+			}
+			
+			if (search(depth + 1))
+				return true;
+			
+			for (int node = this.left[row]; node != row; node = this.left[node])
+			{
+				uncover(this.column[node]);
+			}
+		}
+		uncover(target);
+		
+		return false;
+	}
+	
+	private void cover(int header)
+	{
+		this.right[this.left[header]] = this.right[header];
+		this.left[this.right[header]] = this.left[header];
+		
+		for (int row = this.down[header]; row != header; row = this.down[row])
+		{
+			for (int node = this.right[row]; node != row; node = this.right[node])
+			{
+				this.down[this.up[node]] = this.down[node];
+				this.up[this.down[node]] = this.up[node];
+				this.columnSizes[this.column[node]] --;
+			}
+		}
+	}
+	
+	private void uncover(int header)
+	{
+		for (int row = this.up[header]; row != header; row = this.up[row])
+		{
+			for (int node = this.left[row]; node != row; node = this.left[node])
+			{
+				this.columnSizes[this.column[node]] ++;
+				this.down[this.up[node]] = node;
+				this.up[this.down[node]] = node;
+			}
+		}
+		
+		this.right[this.left[header]] = header;
+		this.left[this.right[header]] = header;
+	}
+}
@@ -0,0 +1,270 @@
+package sp_logic;
+
+import sp_logic.DigitChains.Graph;
+import sp_logic.SudokuSolver.Result;
+import sp_logic.SudokuSolver.Technique;
+import sp_logic.UnsolvablePuzzleException.Reason;
+
+/**
+ * InferenceChains follows alternating inference chains through the possible numbers of 
+ * a grid. A chain alternates between strong links (one of two possibilities must be true) 
+ * and weak links (two possibilities can't both be true). The strong links are the 
+ * conjugate pairs of each number and the slots with only two possible numbers. If a chain 
+ * that starts with a possibility being false leads to a contradiction, the possibility is 
+ * true (forcing chain). Otherwise one of the ends of each chain is true and the 
+ * possibilities that can't be true together with either end are removed.<br> 
+ * The link tables of each number are kept between the steps and only made again for the 
+ * numbers whose places have changed.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+final class InferenceChains
+{
+	// ATTRIBUTES	---------------------
+	
+	/**
+	 * The most links a chain may have unless told otherwise
+	 */
+	static final int DEFAULT_MAX_LENGTH = 12;
+	
+	private UnitPositions source; // The places the link tables were made from
+	private int[] versions; // Number -> the version of the places the graph was made from
+	private Graph[] graphs; // Number -> the links of the number
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	/**
+	 * Creates a new chain finder. The link tables are made once the chains are first 
+	 * followed.
+	 */
+	InferenceChains()
+	{
+		this.source = null;
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * Follows the chains that start from each possibility until a chain solves a slot or 
+	 * removes possible numbers
+	 * @param sudoku The grid that is being solved
+	 * @param maxLength The most links a chain may have
+	 * @return A clear result if possible numbers were removed. The target slot has a number 
+	 * if the chain solved it.
+	 * @throws UnsolvablePuzzleException If a slot was left without possible numbers
+	 */
+	Result solveNext(SudokuGrid sudoku, int maxLength) throws UnsolvablePuzzleException
+	{
+		updateLinks(sudoku);
+		
+		int size = sudoku.getSize();
+		for (int number = 1; number <= size; number++)
+		{
+			long[] candidates = this.graphs[number].getCandidates();
+			for (int start = SlotSet.first(candidates); start >= 0; 
+					start = SlotSet.next(candidates, start))
+			{
+				// A chain has to begin with a strong link
+				if (this.graphs[number].getStrongLinks(start) == null && 
+						getSlot(sudoku, start).getPossibleNumberCount() != 2)
+					continue;
+				
+				Result r = follow(sudoku, start, number, maxLength);
+				if (r.isClear())
+					return r;
+			}
+		}
+		
+		return Result.failure();
+	}
+	
+	private void updateLinks(SudokuGrid sudoku)
+	{
+		UnitPositions positions = sudoku.getUnitPositions();
+		int size = sudoku.getSize();
+		
+		// The graphs are only made again for the numbers whose places have changed
+		if (positions != this.source || this.graphs.length != size + 1)
+		{
+			this.source = positions;
+			this.versions = new int[size + 1];
+			this.graphs = new Graph[size + 1];
+		}
+		for (int number = 1; number <= size; number++)
+		{
+			if (this.graphs[number] == null || 
+					this.versions[number] != positions.getVersion(number))
+			{
+				this.graphs[number] = new Graph(sudoku, number);
+				this.versions[number] = positions.getVersion(number);
+			}
+		}
+	}
+	
+	private Result follow(SudokuGrid sudoku, int start, int startNumber, int maxLength) throws 
+			UnsolvablePuzzleException
+	{
+		SudokuRules rules = sudoku.getRules();
+		int size = sudoku.getSize();
+		int slotCount = size * size;
+		
+		// Assumes that the start doesn't have the number. The possibilities reached with a 
+		// strong link are then true (on) and the ones reached with a weak link false (off).
+		long[][] on = createSets(size, slotCount);
+		long[][] off = createSets(size, slotCount);
+		long[][] frontier = createSets(size, slotCount);
+		SlotSet.set(off[startNumber], start);
+		SlotSet.set(frontier[startNumber], start);
+		
+		for (int length = 1; length <= maxLength; length++)
+		{
+			boolean strongLink = length % 2 == 1;
+			long[][] next = createSets(size, slotCount);
+			boolean reachedAny = false;
+			
+			for (int number = 1; number <= size; number++)
+			{
+				for (int index = SlotSet.first(frontier[number]); index >= 0; 
+						index = SlotSet.next(frontier[number], index))
+				{
+					int others = getSlot(sudoku, index).getPossibleNumbers() & 
+							~NumberSet.of(number);
+					if (strongLink)
+					{
+						long[] links = this.graphs[number].getStrongLinks(index);
+						if (links != null)
+							SlotSet.or(next[number], links);
+						if (NumberSet.size(others) == 1)
+							SlotSet.set(next[NumberSet.first(others)], index);
+					}
+					else
+					{
+						SlotSet.or(next[number], rules.getPeerMask(index));
+						for (int rest = others; rest != 0; rest &= rest - 1)
+						{
+							SlotSet.set(next[NumberSet.first(rest)], index);
+						}
+					}
+				}
+			}
+			
+			long[][] reached = strongLink ? on : off;
+			long[][] opposite = strongLink ? off : on;
+			for (int number = 1; number <= size; number++)
+			{
+				SlotSet.and(next[number], this.graphs[number].getCandidates());
+				
+				// If a possibility would be both true and false, the start must be true
+				if (SlotSet.intersects(next[number], opposite[number]))
+				{
+					Slot slot = getSlot(sudoku, start);
+					slot.setNumber(startNumber);
+					return new Result(true, "Forcing chain (solve)", slot, Technique.CHAIN);
+				}
+				
+				SlotSet.andNot(next[number], reached[number]);
+				SlotSet.or(reached[number], next[number]);
+				if (!SlotSet.isEmpty(next[number]))
+					reachedAny = true;
+			}
+			
+			if (!reachedAny)
+				break;
+			frontier = next;
+		}
+		
+		// Either the start or the end is true, so the possibilities that see both are false
+		long[][] seesStart = createSets(size, slotCount);
+		for (int number = 1; number <= size; number++)
+		{
+			if (number == startNumber)
+				SlotSet.or(seesStart[number], rules.getPeerMask(start));
+			else
+				SlotSet.set(seesStart[number], start);
+			SlotSet.and(seesStart[number], this.graphs[number].getCandidates());
+		}
+		
+		long[][] targets = createSets(size, slotCount);
+		boolean found = false;
+		for (int number = 1; number <= size; number++)
+		{
+			for (int end = SlotSet.first(on[number]); end >= 0; 
+					end = SlotSet.next(on[number], end))
+			{
+				// The same number in the slots that see the end
+				long[] seen = rules.getPeerMask(end).clone();
+				SlotSet.and(seen, seesStart[number]);
+				if (!SlotSet.isEmpty(seen))
+				{
+					SlotSet.or(targets[number], seen);
+					found = true;
+				}
+				
+				// The other numbers of the end slot
+				int others = getSlot(sudoku, end).getPossibleNumbers() & ~NumberSet.of(number);
+				for (int rest = others; rest != 0; rest &= rest - 1)
+				{
+					int other = NumberSet.first(rest);
+					if (SlotSet.contains(seesStart[other], end))
+					{
+						SlotSet.set(targets[other], end);
+						found = true;
+					}
+				}
+			}
+		}
+		
+		if (!found)
+			return Result.failure();
+		return eliminate(sudoku, targets);
+	}
+	
+	private static Result eliminate(SudokuGrid sudoku, long[][] targets) throws 
+			UnsolvablePuzzleException
+	{
+		Slot first = null;
+		Slot solved = null;
+		for (int number = 1; number < targets.length; number++)
+		{
+			for (int index = SlotSet.first(targets[number]); index >= 0; 
+					index = SlotSet.next(targets[number], index))
+			{
+				Slot slot = getSlot(sudoku, index);
+				slot.removePossibleNumber(number);
+				
+				if (slot.getPossibleNumberCount() == 0)
+					throw new UnsolvablePuzzleException(slot, Reason.NO_POSSIBLE_NUMBERS, 
+							null, number);
+				if (first == null)
+					first = slot;
+				if (solved == null && slot.getPossibleNumberCount() == 1)
+					solved = slot;
+			}
+		}
+		
+		// The slots with a single number left are solved by the next steps, except for one
+		if (solved != null)
+		{
+			solved.setNumber(NumberSet.first(solved.getPossibleNumbers()));
+			return new Result(true, "Inference chain (solve)", solved, Technique.CHAIN);
+		}
+		return new Result(true, "Inference chain", first, Technique.CHAIN);
+	}
+	
+	private static long[][] createSets(int size, int slotCount)
+	{
+		long[][] sets = new long[size + 1][];
+		for (int number = 1; number <= size; number++)
+		{
+			sets[number] = SlotSet.create(slotCount);
+		}
+		return sets;
+	}
+	
+	private static Slot getSlot(SudokuGrid sudoku, int index)
+	{
+		return sudoku.getSlot(index % sudoku.getSize(), index / sudoku.getSize());
+	}
+}
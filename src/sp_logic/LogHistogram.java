@@ -0,0 +1,198 @@
+package sp_logic;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LogHistogram counts non-negative values into logarithmic buckets. Each power of two is 
+ * split into 16 buckets, so the values are stored with a precision of about 6 percent 
+ * while the memory used stays the same no matter how many values are recorded. Small 
+ * values (below 16) are stored exactly.<br> 
+ * Only a single thread may record values into a histogram, but any thread may read it or 
+ * merge it into another histogram at the same time.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class LogHistogram
+{
+	// ATTRIBUTES	---------------------
+	
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_EXPONENT = 40;
+	
+	/**
+	 * The largest value that can be recorded. Larger values are counted as this.
+	 */
+	public static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+	
+	private AtomicLongArray counts;
+	private AtomicLong count, sum, max;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	/**
+	 * Creates a new empty histogram
+	 */
+	public LogHistogram()
+	{
+		this.counts = new AtomicLongArray(getIndex(MAX_VALUE) + 1);
+		this.count = new AtomicLong();
+		this.sum = new AtomicLong();
+		this.max = new AtomicLong();
+	}
+	
+	
+	// IMPLEMENTED METHODS	-------------
+	
+	@Override
+	public String toString()
+	{
+		return "n=" + getCount() + " p50=" + getValueAtPercentile(50) + " p99=" + 
+				getValueAtPercentile(99) + " p99.9=" + getValueAtPercentile(99.9) + " max=" + 
+				getMax();
+	}
+	
+	
+	// ACCESSORS	---------------------
+	
+	/**
+	 * @return How many values have been recorded
+	 */
+	public long getCount()
+	{
+		return this.count.get();
+	}
+	
+	/**
+	 * @return The sum of the recorded values
+	 */
+	public long getSum()
+	{
+		return this.sum.get();
+	}
+	
+	/**
+	 * @return The largest recorded value (0 if no values have been recorded)
+	 */
+	public long getMax()
+	{
+		return this.max.get();
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * Records a value. Only the thread that owns this histogram may call this method.
+	 * @param value The value that is recorded. Negative values are recorded as 0.
+	 */
+	public void record(long value)
+	{
+		long v = Math.min(Math.max(value, 0), MAX_VALUE);
+		int index = getIndex(v);
+		
+		// There's only one writer so the values don't need to be compared and swapped
+		this.counts.lazySet(index, this.counts.get(index) + 1);
+		this.sum.lazySet(this.sum.get() + v);
+		if (v > this.max.get())
+			this.max.lazySet(v);
+		this.count.lazySet(this.count.get() + 1);
+	}
+	
+	/**
+	 * Adds the values of another histogram to this one. Only the thread that owns this 
+	 * histogram may call this method.
+	 * @param other The histogram whose values are added
+	 */
+	public void add(LogHistogram other)
+	{
+		long added = 0;
+		for (int i = 0; i < this.counts.length(); i++)
+		{
+			long c = other.counts.get(i);
+			if (c != 0)
+			{
+				this.counts.lazySet(i, this.counts.get(i) + c);
+				added += c;
+			}
+		}
+		
+		// The total is counted from the buckets so that it matches them
+		this.count.lazySet(this.count.get() + added);
+		this.sum.lazySet(this.sum.get() + other.getSum());
+		if (other.getMax() > this.max.get())
+			this.max.lazySet(other.getMax());
+	}
+	
+	/**
+	 * Finds the value below which the given percentage of the recorded values fall
+	 * @param percentile The percentage [0, 100]
+	 * @return The highest value of the bucket the percentile falls into, but no more than 
+	 * the largest recorded value (0 if no values have been recorded)
+	 */
+	public long getValueAtPercentile(double percentile)
+	{
+		long total = 0;
+		for (int i = 0; i < this.counts.length(); i++)
+		{
+			total += this.counts.get(i);
+		}
+		if (total == 0)
+			return 0;
+		
+		long target = Math.max(1, (long) Math.ceil(total * Math.min(percentile, 100) / 100));
+		long seen = 0;
+		for (int i = 0; i < this.counts.length(); i++)
+		{
+			seen += this.counts.get(i);
+			if (seen >= target)
+				return Math.min(getHighestValue(i), getMax());
+		}
+		
+		return getMax();
+	}
+	
+	/**
+	 * Counts the recorded values that are at most the given value. Since the values are 
+	 * bucketed, values up to about 6 percent larger may be counted as well.
+	 * @param value The largest value that is counted
+	 * @return How many recorded values are at most the given value
+	 */
+	public long getCountAtMost(long value)
+	{
+		if (value < 0)
+			return 0;
+		
+		int last = getIndex(Math.min(value, MAX_VALUE));
+		long count = 0;
+		for (int i = 0; i <= last; i++)
+		{
+			count += this.counts.get(i);
+		}
+		
+		return count;
+	}
+	
+	private static int getIndex(long value)
+	{
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+	
+	private static long getHighestValue(int index)
+	{
+		if (index < SUB_BUCKETS)
+			return index;
+		
+		int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << 
+				(exponent - SUB_BUCKET_BITS);
+		return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+}
@@ -1,13 +1,17 @@
 package sp_logic;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+
 import genesis_event.HandlerRelay;
 import genesis_util.Vector3D;
 
 /**
- * This grid holds nine slots in it
+ * This grid holds the slots of a single box. In a regular sudoku there are nine slots in a 
+ * box but larger sudokus have boxes of 16 or 25 slots.
  * @author Mikko Hilpinen
  * @since 8.8.2015
  */
@@ -17,6 +21,11 @@ public class NineSlotGrid
 	
 	private Slot[][] slots; // First x, then y
 	private SudokuGrid grid;
+	private int gridX, gridY;
+	
+	// The views are created when they're first needed and reused after that
+	private List<Slot> slotView;
+	private List<List<Slot>> rowViews, columnViews;
 	
 	
 	// CONSTRUCTOR	-----------------------
@@ -27,14 +36,19 @@ public class NineSlotGrid
 	 * @param position The position of the grid
 	 * @param dimensions The dimensions of the grid
 	 * @param grid The grid that holds this grid
+	 * @param gridX The x index of this grid in the sudoku [0, box size - 1]
+	 * @param gridY The y index of this grid in the sudoku [0, box size - 1]
 	 */
 	public NineSlotGrid(HandlerRelay handlers, Vector3D position, Vector3D dimensions, 
-			SudokuGrid grid)
+			SudokuGrid grid, int gridX, int gridY)
 	{
-		this.slots = new Slot[3][3];
+		int boxSize = grid.getBoxSize();
+		this.slots = new Slot[boxSize][boxSize];
 		this.grid = grid;
+		this.gridX = gridX;
+		this.gridY = gridY;
 		Vector3D margins = dimensions.dividedBy(20);
-		Vector3D slotDimensions = dimensions.minus(margins.times(3)).dividedBy(3);
+		Vector3D slotDimensions = dimensions.minus(margins.times(boxSize)).dividedBy(boxSize);
 		
 		for (int x = 0; x < this.slots.length; x++)
 		{
@@ -42,7 +56,8 @@ public class NineSlotGrid
 			{
 				Vector3D slotPosition = position.plus(slotDimensions.plus(margins).times(
 						new Vector3D(x, y)));
-				this.slots[x][y] = new Slot(handlers, slotPosition, slotDimensions, this);
+				this.slots[x][y] = new Slot(handlers, slotPosition, slotDimensions, this, 
+						gridX * boxSize + x, gridY * boxSize + y);
 			}
 		}
 	}
@@ -54,14 +69,27 @@ public class NineSlotGrid
 	 */
 	public NineSlotGrid(NineSlotGrid other, SudokuGrid grid)
 	{
-		this.slots = new Slot[3][3];
+		this(other, grid, false);
+	}
+	
+	/**
+	 * Creates a grid that is an exact copy of another grid
+	 * @param other The grid this one is copied from
+	 * @param grid The grid that holds the copied grid
+	 * @param detached Should the copied slots be left out of the handlers
+	 */
+	public NineSlotGrid(NineSlotGrid other, SudokuGrid grid, boolean detached)
+	{
+		this.slots = new Slot[other.slots.length][other.slots.length];
 		this.grid = grid;
+		this.gridX = other.gridX;
+		this.gridY = other.gridY;
 		
 		for (int x = 0; x < this.slots.length; x++)
 		{
 			for (int y = 0; y < this.slots[x].length; y++)
 			{
-				this.slots[x][y] = new Slot(other.getSlot(x, y), this);
+				this.slots[x][y] = new Slot(other.getSlot(x, y), this, detached);
 			}
 		}
 	}
@@ -76,14 +104,39 @@ public class NineSlotGrid
 	{
 		return this.grid;
 	}
+	
+	/**
+	 * @return The x index of this grid in the sudoku [0, box size - 1]
+	 */
+	public int getGridX()
+	{
+		return this.gridX;
+	}
+	
+	/**
+	 * @return The y index of this grid in the sudoku [0, box size - 1]
+	 */
+	public int getGridY()
+	{
+		return this.gridY;
+	}
+	
+	/**
+	 * @return The index of this grid among the boxes of the sudoku. This is the same as the 
+	 * index of the region in a regular sudoku.
+	 */
+	public int getIndex()
+	{
+		return this.gridX * this.slots.length + this.gridY;
+	}
 
 	
 	// OTHER METHODS	-----------------
 	
 	/**
 	 * Provides access to a certain slot
-	 * @param x The slot's x index [0, 3]
-	 * @param y The slot's y index [0, 3]
+	 * @param x The slot's x index [0, box size - 1]
+	 * @param y The slot's y index [0, box size - 1]
 	 * @return The slot at the given index
 	 */
 	public Slot getSlot(int x, int y)
@@ -98,81 +151,93 @@ public class NineSlotGrid
 	 */
 	public Vector3D getSlotPosition(Slot slot)
 	{
-		for (int x = 0; x < this.slots.length; x++)
-		{
-			for (int y = 0; y < this.slots[x].length; y++)
-			{
-				Slot target = getSlot(x, y);
-				if (slot.equals(target))
-					return new Vector3D(x, y);
-			}
-		}
+		if (!equals(slot.getGrid()))
+			return null;
 		
-		return null;
+		return new Vector3D(slot.getColumn() % this.slots.length, 
+				slot.getRow() % this.slots.length);
 	}
 	
 	/**
-	 * @return A list of numbers already in this grid
+	 * @return The numbers already in this grid as a {@link NumberSet}
 	 */
-	public List<Integer> getUsedNumbers()
+	public int getUsedNumbers()
 	{
 		return getSlotNumbers(getSlots());
 	}
 	
 	/**
-	 * @return All the slots in the grid
+	 * @return All the slots in the grid. The returned list can't be modified.
 	 */
 	public List<Slot> getSlots()
 	{
-		List<Slot> slots = new ArrayList<>();
-		for (int x = 0; x < this.slots.length; x++)
+		if (this.slotView == null)
 		{
-			for (int y = 0; y < this.slots[x].length; y++)
+			Slot[] slots = new Slot[this.slots.length * this.slots.length];
+			for (int x = 0; x < this.slots.length; x++)
 			{
-				slots.add(getSlot(x, y));
+				for (int y = 0; y < this.slots[x].length; y++)
+				{
+					slots[x * this.slots.length + y] = getSlot(x, y);
+				}
 			}
+			this.slotView = Collections.unmodifiableList(Arrays.asList(slots));
 		}
-		return slots;
+		
+		return this.slotView;
 	}
 	
 	/**
 	 * Collects all the slots on the given row
 	 * @param row The row the slots are on
-	 * @return The slots in the given row
+	 * @return The slots in the given row. The returned list can't be modified.
 	 */
 	public List<Slot> getRowSlots(int row)
 	{
-		List<Slot> slots = new ArrayList<>();
-		for (int x = 0; x < this.slots.length; x++)
+		if (this.rowViews == null)
 		{
-			slots.add(getSlot(x, row));
+			List<List<Slot>> views = new ArrayList<>(this.slots.length);
+			for (int y = 0; y < this.slots.length; y++)
+			{
+				Slot[] slots = new Slot[this.slots.length];
+				for (int x = 0; x < this.slots.length; x++)
+				{
+					slots[x] = getSlot(x, y);
+				}
+				views.add(Collections.unmodifiableList(Arrays.asList(slots)));
+			}
+			this.rowViews = views;
 		}
 		
-		return slots;
+		return this.rowViews.get(row);
 	}
 	
 	/**
 	 * Collects all the slots on the given column
 	 * @param column The column the slots are on
-	 * @return The slots in the given column
+	 * @return The slots in the given column. The returned list can't be modified.
 	 */
 	public List<Slot> getColumnSlots(int column)
 	{
-		List<Slot> slots = new ArrayList<>();
-		for (int y = 0; y < this.slots[column].length; y++)
+		if (this.columnViews == null)
 		{
-			slots.add(getSlot(column, y));
+			List<List<Slot>> views = new ArrayList<>(this.slots.length);
+			for (int x = 0; x < this.slots.length; x++)
+			{
+				views.add(Collections.unmodifiableList(Arrays.asList(this.slots[x])));
+			}
+			this.columnViews = views;
 		}
 		
-		return slots;
+		return this.columnViews.get(column);
 	}
 	
 	/**
 	 * Gets all the numbers from the given row
 	 * @param row The row the numbers are collected from
-	 * @return The numbers stored on the row
+	 * @return The numbers stored on the row as a {@link NumberSet}
 	 */
-	public List<Integer> getRowNumbers(int row)
+	public int getRowNumbers(int row)
 	{
 		return getSlotNumbers(getRowSlots(row));
 	}
@@ -180,53 +245,36 @@ public class NineSlotGrid
 	/**
 	 * Gets all the numbers from the given column
 	 * @param column The column the numbers are collected from
-	 * @return The numbers stored on the column
+	 * @return The numbers stored on the column as a {@link NumberSet}
 	 */
-	public List<Integer> getColumnNumbers(int column)
+	public int getColumnNumbers(int column)
 	{
 		return getSlotNumbers(getColumnSlots(column));
 	}
 	
 	/**
 	 * Collects all the numbers that are missing from the given set of numbers
-	 * @param numbers A set of numbers
-	 * @return The numbers that are missing from the set
-	 */
-	public static List<Integer> getRemainingNumbers(Collection<Integer> numbers)
-	{
-		List<Integer> remaining = new ArrayList<>();
-		for (int i = 1; i <= 9; i++)
-		{
-			if (!hasNumber(numbers, i))
-				remaining.add(i);
-		}
-		
-		return remaining;
-	}
-	
-	/**
-	 * Checks if the given set of numbers contains the given number
-	 * @param numbers A set of numbers
-	 * @param number The number the set could contain
-	 * @return Does the set contain the given number
+	 * @param numbers A {@link NumberSet}
+	 * @param maxNumber The largest number in the sudoku
+	 * @return The numbers that are missing from the set as a {@link NumberSet}
 	 */
-	public static boolean hasNumber(Collection<Integer> numbers, int number)
+	public static int getRemainingNumbers(int numbers, int maxNumber)
 	{
-		return numbers.contains(number);
+		return NumberSet.range(maxNumber) & ~numbers;
 	}
 	
 	/**
 	 * Finds all the numbers stored in the given set of slots
 	 * @param slots A set of slots
-	 * @return The numbers stored in the slots
+	 * @return The numbers stored in the slots as a {@link NumberSet}
 	 */
-	public static List<Integer> getSlotNumbers(Collection<Slot> slots)
+	public static int getSlotNumbers(Collection<Slot> slots)
 	{
-		List<Integer> numbers = new ArrayList<>();
+		int numbers = NumberSet.EMPTY;
 		for (Slot slot : slots)
 		{
-			if (slot.hasNumber() && !numbers.contains(slot.getNumber()))
-				numbers.add(slot.getNumber());
+			if (slot.hasNumber())
+				numbers |= NumberSet.of(slot.getNumber());
 		}
 		
 		return numbers;
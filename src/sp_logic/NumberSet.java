@@ -0,0 +1,97 @@
+package sp_logic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * NumberSet handles sets of sudoku numbers that are stored as bits of a single integer. 
+ * Number n is in the set when bit n is set, so a set can hold all the numbers of a 25 x 25 
+ * sudoku. The sets can be iterated with 
+ * <code>for (int rest = set; rest != 0; rest &= rest - 1)</code> where 
+ * {@link #first(int)} of the rest is the current number.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class NumberSet
+{
+	// ATTRIBUTES	---------------------
+	
+	/**
+	 * A set that doesn't contain any numbers
+	 */
+	public static final int EMPTY = 0;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	private NumberSet()
+	{
+		// The interface is static
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * @param number A number
+	 * @return A set that contains only the given number
+	 */
+	public static int of(int number)
+	{
+		return 1 << number;
+	}
+	
+	/**
+	 * @param maxNumber The largest number in a sudoku
+	 * @return A set that contains all the numbers from 1 to the given number
+	 */
+	public static int range(int maxNumber)
+	{
+		return ((1 << (maxNumber + 1)) - 1) & ~1;
+	}
+	
+	/**
+	 * @param set A set of numbers
+	 * @param number A number
+	 * @return Does the set contain the given number
+	 */
+	public static boolean contains(int set, int number)
+	{
+		return (set & (1 << number)) != 0;
+	}
+	
+	/**
+	 * @param set A set of numbers
+	 * @return How many numbers there are in the set
+	 */
+	public static int size(int set)
+	{
+		return Integer.bitCount(set);
+	}
+	
+	/**
+	 * @param set A set of numbers
+	 * @return The smallest number in the set (-1 if the set is empty)
+	 */
+	public static int first(int set)
+	{
+		if (set == EMPTY)
+			return -1;
+		return Integer.numberOfTrailingZeros(set);
+	}
+	
+	/**
+	 * @param set A set of numbers
+	 * @return The numbers in the set in ascending order
+	 */
+	public static List<Integer> toList(int set)
+	{
+		List<Integer> numbers = new ArrayList<>(size(set));
+		for (int rest = set; rest != 0; rest &= rest - 1)
+		{
+			numbers.add(first(rest));
+		}
+		
+		return numbers;
+	}
+}
@@ -0,0 +1,380 @@
+package sp_logic;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PortfolioSolver runs multiple engines on the same puzzle at the same time. The first 
+ * engine to find the answer (or to prove that there is none) wins and the others are 
+ * cancelled. The wins of all the portfolios are added up so that the engines can be 
+ * compared.<br> 
+ * By default the engines run on a pool that is shared by all the portfolios. Each race gets 
+ * a thread for each of its engines so that the engines really run at the same time. The 
+ * number of races that may run at once is limited to the number of processors instead, so 
+ * that concurrent races queue up rather than adding threads without limit.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class PortfolioSolver implements SudokuEngine
+{
+	// ATTRIBUTES	-------------------
+	
+	private static final Semaphore sharedRaceSlots = new Semaphore(
+			Math.max(1, Runtime.getRuntime().availableProcessors()), true);
+	private static final Map<Engine, Integer> wins = new EnumMap<>(Engine.class);
+	private static ExecutorService sharedExecutor = null;
+	
+	private ExecutorService executor;
+	private Semaphore raceSlots;
+	private SudokuGrid sudoku;
+	private List<Engine> engines;
+	private Engine winner;
+	private int operations;
+	private List<Throwable> failures;
+	
+	
+	// CONSTRUCTOR	-------------------
+	
+	/**
+	 * Creates a new solver that races all the engines that support the sudoku's rules
+	 * @param sudoku The sudoku that needs solving
+	 */
+	public PortfolioSolver(SudokuGrid sudoku)
+	{
+		this(sudoku, Engine.values());
+	}
+	
+	/**
+	 * Creates a new solver
+	 * @param sudoku The sudoku that needs solving
+	 * @param engines The engines that are raced. Engines that don't support the sudoku's 
+	 * rules are left out.
+	 */
+	public PortfolioSolver(SudokuGrid sudoku, Engine... engines)
+	{
+		this(sudoku, null, engines);
+	}
+	
+	/**
+	 * Creates a new solver
+	 * @param sudoku The sudoku that needs solving
+	 * @param executor The executor the engines are run on (null if the shared pool should 
+	 * be used). The executor should be able to run all the engines of a race at the same 
+	 * time.
+	 * @param engines The engines that are raced. Engines that don't support the sudoku's 
+	 * rules are left out.
+	 */
+	public PortfolioSolver(SudokuGrid sudoku, ExecutorService executor, Engine... engines)
+	{
+		this.executor = executor == null ? getSharedExecutor() : executor;
+		this.raceSlots = executor == null ? sharedRaceSlots : null;
+		this.sudoku = sudoku;
+		this.engines = new ArrayList<>();
+		this.winner = null;
+		this.operations = 0;
+		this.failures = new ArrayList<>();
+		
+		for (Engine engine : engines)
+		{
+			if (engine.supports(sudoku.getRules()))
+				this.engines.add(engine);
+		}
+	}
+	
+	
+	// IMPLEMENTED METHODS	-----------
+	
+	/**
+	 * @return How many operations the winning engine took
+	 */
+	@Override
+	public int getOperations()
+	{
+		return this.operations;
+	}
+	
+	@Override
+	public void solve() throws UnsolvablePuzzleException
+	{
+		if (this.engines.isEmpty())
+			throw new IllegalStateException("None of the engines supports the sudoku");
+		
+		// The race waits until it may run with all its engines
+		if (this.raceSlots != null)
+		{
+			try
+			{
+				this.raceSlots.acquire();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+		
+		try
+		{
+			race();
+		}
+		finally
+		{
+			if (this.raceSlots != null)
+				this.raceSlots.release();
+		}
+	}
+	
+	
+	// ACCESSORS	-------------------
+	
+	/**
+	 * @return The engine that solved the puzzle the last time (null if the puzzle hasn't 
+	 * been solved)
+	 */
+	public Engine getWinner()
+	{
+		return this.winner;
+	}
+	
+	/**
+	 * @return The errors thrown by the engines that failed during the last solve. An engine 
+	 * that fails is left out of the race.
+	 */
+	public List<Throwable> getFailures()
+	{
+		return new ArrayList<>(this.failures);
+	}
+	
+	/**
+	 * @param engine An engine
+	 * @return How many races the engine has won in all the portfolios
+	 */
+	public static int getWins(Engine engine)
+	{
+		synchronized (wins)
+		{
+			Integer count = wins.get(engine);
+			if (count == null)
+				return 0;
+			return count;
+		}
+	}
+	
+	
+	// OTHER METHODS	---------------
+	
+	private void race() throws UnsolvablePuzzleException
+	{
+		// Each engine works on a copy of its own
+		int[][] numbers = this.sudoku.getNumbers();
+		CompletionService<Race> races = new ExecutorCompletionService<>(this.executor);
+		List<Future<Race>> tasks = new ArrayList<>();
+		this.failures.clear();
+		for (Engine engine : this.engines)
+		{
+			tasks.add(races.submit(new Race(engine, numbers, this.sudoku.getRules())));
+		}
+		
+		try
+		{
+			for (int i = 0; i < tasks.size(); i++)
+			{
+				Race race;
+				try
+				{
+					race = races.take().get();
+				}
+				catch (ExecutionException e)
+				{
+					// An unsolvable puzzle is an answer as well
+					if (e.getCause() instanceof UnsolvablePuzzleException)
+					{
+						throw ((UnsolvablePuzzleException) e.getCause()).moveTo(this.sudoku);
+					}
+					// Engines that fail are left out of the race
+					this.failures.add(e.getCause());
+					continue;
+				}
+				
+				// A cancelled engine doesn't produce an answer
+				if (race.answer == null)
+					continue;
+				
+				this.winner = race.engine;
+				this.operations = race.operations;
+				recordWin(race.engine);
+				this.sudoku.copyNumbersFrom(race.answer);
+				return;
+			}
+			
+			IllegalStateException failure = new IllegalStateException(
+					"None of the engines could solve the sudoku");
+			for (Throwable cause : this.failures)
+			{
+				failure.addSuppressed(cause);
+			}
+			throw failure;
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		finally
+		{
+			for (Future<Race> task : tasks)
+			{
+				task.cancel(true);
+			}
+		}
+	}
+	
+	private static void recordWin(Engine engine)
+	{
+		synchronized (wins)
+		{
+			wins.put(engine, getWins(engine) + 1);
+		}
+	}
+	
+	private static synchronized ExecutorService getSharedExecutor()
+	{
+		// The threads are shared between the portfolios and die when they are not needed. 
+		// The race slots limit how many threads are in use at once.
+		if (sharedExecutor == null)
+		{
+			sharedExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, 
+					TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory()
+			{
+				@Override
+				public Thread newThread(Runnable r)
+				{
+					Thread thread = new Thread(r, "Portfolio engine");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		
+		return sharedExecutor;
+	}
+	
+	
+	// SUBCLASSES	-------------------
+	
+	/**
+	 * These are the engines a portfolio can race
+	 * @author Mikko Hilpinen
+	 * @since 18.10.2026
+	 */
+	public static enum Engine
+	{
+		/**
+		 * The solving techniques of {@link SudokuSolver} with guesses when they run out
+		 */
+		CASCADE,
+		/**
+		 * Plain depth first search with {@link BacktrackingSudokuSolver}
+		 */
+		BACKTRACKING,
+		/**
+		 * Exact cover search with {@link DlxSudokuSolver}. Doesn't support cages.
+		 */
+		DLX,
+		/**
+		 * Clause learning search with {@link SatSudokuSolver}
+		 */
+		SAT;
+		
+		
+		// OTHER METHODS	---------
+		
+		/**
+		 * @param rules The rules of a sudoku
+		 * @return Can the engine solve sudokus with the given rules
+		 */
+		public boolean supports(SudokuRules rules)
+		{
+			if (this == DLX)
+				return DlxSudokuSolver.supports(rules);
+			return true;
+		}
+		
+		/**
+		 * Creates a new instance of this engine
+		 * @param sudoku The sudoku the engine will solve
+		 * @return An engine that solves the sudoku
+		 */
+		public SudokuEngine create(SudokuGrid sudoku)
+		{
+			switch (this)
+			{
+				case CASCADE: return new SudokuSolver(sudoku, true);
+				case BACKTRACKING: return new BacktrackingSudokuSolver(sudoku);
+				case DLX: return new DlxSudokuSolver(sudoku);
+				default: return new SatSudokuSolver(sudoku);
+			}
+		}
+	}
+	
+	private static class Race implements Callable<Race>
+	{
+		// ATTRIBUTES	---------------
+		
+		private Engine engine;
+		private int[][] numbers;
+		private SudokuRules rules;
+		
+		private int[][] answer;
+		private int operations;
+		
+		
+		// CONSTRUCTOR	---------------
+		
+		public Race(Engine engine, int[][] numbers, SudokuRules rules)
+		{
+			this.engine = engine;
+			this.numbers = numbers;
+			this.rules = rules;
+			this.answer = null;
+			this.operations = 0;
+		}
+		
+		
+		// IMPLEMENTED METHODS	-------
+		
+		@Override
+		public Race call() throws UnsolvablePuzzleException
+		{
+			SudokuGrid working = new SudokuGrid(this.rules.getBoxSize());
+			working.setRules(this.rules);
+			working.loadNumbers(this.numbers);
+			
+			// The cancelled engines never ran out of a budget, so the races aren't recorded 
+			// as solves
+			SudokuEngine solver = this.engine.create(working);
+			if (solver instanceof SudokuSolver)
+				((SudokuSolver) solver).setStats(null);
+			solver.solve();
+			this.operations = solver.getOperations();
+			
+			// The engine stops early once it is cancelled
+			if (!Thread.currentThread().isInterrupted())
+				this.answer = working.getNumbers();
+			
+			return this;
+		}
+	}
+}
@@ -0,0 +1,526 @@
+package sp_logic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SatSolver is a small conflict driven clause learning (CDCL) solver for boolean 
+ * satisfiability problems in conjunctive normal form. Each clause is watched by two of its 
+ * literals, conflicts are analysed into learned clauses (first unique implication point) 
+ * and the search restarts at Luby intervals. The variables are numbered from 1 and a 
+ * negative literal means the negation of the variable, like in the DIMACS format.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class SatSolver
+{
+	// ATTRIBUTES	---------------------
+	
+	private static final int UNDEFINED = -1;
+	private static final int RESTART_BASE = 100;
+	private static final double ACTIVITY_DECAY = 0.95;
+	
+	private int variables;
+	private List<int[]> clauses; // Internal literals, the first two are watched
+	private IntList[] watches; // Literal -> clauses watching it
+	
+	private int[] values; // Variable -> 0, 1 or undefined
+	private int[] levels;
+	private int[] reasons; // Variable -> the clause that implied it (undefined if decided)
+	private boolean[] phases; // The last value of each variable
+	private double[] activities;
+	private double activityIncrement;
+	
+	private int[] trail;
+	private int trailSize, propagated;
+	private IntList levelStarts;
+	
+	private boolean unsatisfiable;
+	private int conflicts, decisions;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	/**
+	 * Creates a new solver
+	 * @param variables The number of variables in the problem
+	 */
+	public SatSolver(int variables)
+	{
+		this.variables = variables;
+		this.clauses = new ArrayList<>();
+		this.watches = new IntList[variables * 2];
+		for (int i = 0; i < this.watches.length; i++)
+		{
+			this.watches[i] = new IntList();
+		}
+		
+		this.values = new int[variables];
+		this.levels = new int[variables];
+		this.reasons = new int[variables];
+		this.phases = new boolean[variables];
+		this.activities = new double[variables];
+		this.activityIncrement = 1;
+		for (int i = 0; i < variables; i++)
+		{
+			this.values[i] = UNDEFINED;
+			this.reasons[i] = UNDEFINED;
+		}
+		
+		this.trail = new int[variables];
+		this.trailSize = 0;
+		this.propagated = 0;
+		this.levelStarts = new IntList();
+		
+		this.unsatisfiable = false;
+		this.conflicts = 0;
+		this.decisions = 0;
+	}
+	
+	
+	// ACCESSORS	---------------------
+	
+	/**
+	 * @return How many conflicts the search has run into
+	 */
+	public int getConflicts()
+	{
+		return this.conflicts;
+	}
+	
+	/**
+	 * @return How many decisions the search has made
+	 */
+	public int getDecisions()
+	{
+		return this.decisions;
+	}
+	
+	/**
+	 * @param variable A variable (starting from 1)
+	 * @return The value of the variable in the found solution
+	 */
+	public boolean getValue(int variable)
+	{
+		return this.values[variable - 1] == 1;
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * Adds a new clause to the problem. Should be called before the problem is solved.
+	 * @param literals The literals of the clause. At least one of them must be true.
+	 */
+	public void addClause(int... literals)
+	{
+		if (this.unsatisfiable)
+			return;
+		
+		// Duplicate literals and literals that are already false are dropped
+		IntList clause = new IntList();
+		for (int literal : literals)
+		{
+			int internal = toInternal(literal);
+			int value = getLiteralValue(internal);
+			if (value == 1 || clause.contains(internal ^ 1))
+				return;
+			if (value == UNDEFINED && !clause.contains(internal))
+				clause.add(internal);
+		}
+		
+		if (clause.size() == 0)
+			this.unsatisfiable = true;
+		else if (clause.size() == 1)
+		{
+			assign(clause.get(0), UNDEFINED);
+			if (propagate() != UNDEFINED)
+				this.unsatisfiable = true;
+		}
+		else
+			addWatchedClause(clause.toArray());
+	}
+	
+	/**
+	 * Searches for a solution
+	 * @return Was a solution found. False if the problem is unsatisfiable.
+	 * @throws InterruptedException If the thread was interrupted during the search
+	 */
+	public boolean solve() throws InterruptedException
+	{
+		if (this.unsatisfiable)
+			return false;
+		
+		int restarts = 0;
+		int conflictsUntilRestart = RESTART_BASE * luby(restarts);
+		
+		while (true)
+		{
+			int conflict = propagate();
+			if (conflict != UNDEFINED)
+			{
+				this.conflicts ++;
+				if (getDecisionLevel() == 0)
+				{
+					this.unsatisfiable = true;
+					return false;
+				}
+				
+				if (Thread.interrupted())
+					throw new InterruptedException();
+				
+				IntList learned = new IntList();
+				int backtrackLevel = analyze(conflict, learned);
+				backtrack(backtrackLevel);
+				
+				if (learned.size() == 1)
+					assign(learned.get(0), UNDEFINED);
+				else
+				{
+					int index = addWatchedClause(learned.toArray());
+					assign(learned.get(0), index);
+				}
+				
+				decayActivities();
+				conflictsUntilRestart --;
+			}
+			else
+			{
+				if (conflictsUntilRestart <= 0)
+				{
+					restarts ++;
+					conflictsUntilRestart = RESTART_BASE * luby(restarts);
+					backtrack(0);
+				}
+				
+				int variable = pickBranchVariable();
+				// All variables have a value, so the problem is solved
+				if (variable == UNDEFINED)
+					return true;
+				
+				this.decisions ++;
+				this.levelStarts.add(this.trailSize);
+				assign(variable * 2 + (this.phases[variable] ? 0 : 1), UNDEFINED);
+			}
+		}
+	}
+	
+	private int addWatchedClause(int[] clause)
+	{
+		int index = this.clauses.size();
+		this.clauses.add(clause);
+		this.watches[clause[0]].add(index);
+		this.watches[clause[1]].add(index);
+		
+		return index;
+	}
+	
+	private int propagate()
+	{
+		while (this.propagated < this.trailSize)
+		{
+			// The clauses watching the literal that just became false are visited
+			int falseLiteral = this.trail[this.propagated] ^ 1;
+			this.propagated ++;
+			
+			IntList watching = this.watches[falseLiteral];
+			int kept = 0;
+			for (int i = 0; i < watching.size(); i++)
+			{
+				int index = watching.get(i);
+				int[] clause = this.clauses.get(index);
+				
+				// The false literal is kept at the second place
+				if (clause[0] == falseLiteral)
+				{
+					clause[0] = clause[1];
+					clause[1] = falseLiteral;
+				}
+				
+				// If the other watched literal is true, the clause is satisfied
+				if (getLiteralValue(clause[0]) == 1)
+				{
+					watching.set(kept, index);
+					kept ++;
+					continue;
+				}
+				
+				// Otherwise looks for a new literal to watch
+				boolean moved = false;
+				for (int k = 2; k < clause.length; k++)
+				{
+					if (getLiteralValue(clause[k]) != 0)
+					{
+						clause[1] = clause[k];
+						clause[k] = falseLiteral;
+						this.watches[clause[1]].add(index);
+						moved = true;
+						break;
+					}
+				}
+				if (moved)
+					continue;
+				
+				watching.set(kept, index);
+				kept ++;
+				
+				// The clause is either unit or in conflict
+				if (getLiteralValue(clause[0]) == 0)
+				{
+					for (int j = i + 1; j < watching.size(); j++)
+					{
+						watching.set(kept, watching.get(j));
+						kept ++;
+					}
+					watching.truncate(kept);
+					this.propagated = this.trailSize;
+					return index;
+				}
+				else
+					assign(clause[0], index);
+			}
+			watching.truncate(kept);
+		}
+		
+		return UNDEFINED;
+	}
+	
+	private int analyze(int conflict, IntList learned)
+	{
+		// Resolves the conflict back to the first unique implication point of the current 
+		// level. The first literal of the learned clause will be asserted after the 
+		// backtrack.
+		boolean[] seen = new boolean[this.variables];
+		learned.add(UNDEFINED);
+		int pathCount = 0;
+		int literal = UNDEFINED;
+		int index = this.trailSize - 1;
+		int[] clause = this.clauses.get(conflict);
+		
+		do
+		{
+			for (int i = (literal == UNDEFINED ? 0 : 1); i < clause.length; i++)
+			{
+				int variable = clause[i] >> 1;
+				if (!seen[variable] && this.levels[variable] > 0)
+				{
+					seen[variable] = true;
+					bumpActivity(variable);
+					if (this.levels[variable] >= getDecisionLevel())
+						pathCount ++;
+					else
+						learned.add(clause[i]);
+				}
+			}
+			
+			while (!seen[this.trail[index] >> 1])
+			{
+				index --;
+			}
+			literal = this.trail[index];
+			index --;
+			seen[literal >> 1] = false;
+			pathCount --;
+			
+			if (pathCount > 0)
+				clause = this.clauses.get(this.reasons[literal >> 1]);
+		}
+		while (pathCount > 0);
+		
+		learned.set(0, literal ^ 1);
+		
+		// The literal with the highest level is watched next to the asserting one
+		int backtrackLevel = 0;
+		for (int i = 1; i < learned.size(); i++)
+		{
+			int level = this.levels[learned.get(i) >> 1];
+			if (level > backtrackLevel)
+			{
+				backtrackLevel = level;
+				int swapped = learned.get(1);
+				learned.set(1, learned.get(i));
+				learned.set(i, swapped);
+			}
+		}
+		
+		return backtrackLevel;
+	}
+	
+	private void backtrack(int level)
+	{
+		if (getDecisionLevel() <= level)
+			return;
+		
+		int start = this.levelStarts.get(level);
+		for (int i = this.trailSize - 1; i >= start; i--)
+		{
+			int variable = this.trail[i] >> 1;
+			this.phases[variable] = this.values[variable] == 1;
+			this.values[variable] = UNDEFINED;
+			this.reasons[variable] = UNDEFINED;
+		}
+		
+		this.trailSize = start;
+		this.propagated = start;
+		this.levelStarts.truncate(level);
+	}
+	
+	private void assign(int literal, int reason)
+	{
+		int variable = literal >> 1;
+		this.values[variable] = (literal & 1) == 0 ? 1 : 0;
+		this.levels[variable] = getDecisionLevel();
+		this.reasons[variable] = reason;
+		this.trail[this.trailSize] = literal;
+		this.trailSize ++;
+	}
+	
+	private int pickBranchVariable()
+	{
+		int best = UNDEFINED;
+		for (int variable = 0; variable < this.variables; variable++)
+		{
+			if (this.values[variable] == UNDEFINED && (best == UNDEFINED || 
+					this.activities[variable] > this.activities[best]))
+				best = variable;
+		}
+		
+		return best;
+	}
+	
+	private void bumpActivity(int variable)
+	{
+		this.activities[variable] += this.activityIncrement;
+		
+		// Scales the activities down before they overflow
+		if (this.activities[variable] > 1e100)
+		{
+			for (int i = 0; i < this.variables; i++)
+			{
+				this.activities[i] *= 1e-100;
+			}
+			this.activityIncrement *= 1e-100;
+		}
+	}
+	
+	private void decayActivities()
+	{
+		this.activityIncrement /= ACTIVITY_DECAY;
+	}
+	
+	private int getDecisionLevel()
+	{
+		return this.levelStarts.size();
+	}
+	
+	private int getLiteralValue(int literal)
+	{
+		int value = this.values[literal >> 1];
+		if (value == UNDEFINED)
+			return UNDEFINED;
+		return value ^ (literal & 1);
+	}
+	
+	private static int toInternal(int literal)
+	{
+		if (literal > 0)
+			return (literal - 1) * 2;
+		else
+			return (-literal - 1) * 2 + 1;
+	}
+	
+	private static int luby(int index)
+	{
+		// 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, ...
+		int size = 1;
+		int sequence = 0;
+		while (size < index + 1)
+		{
+			sequence ++;
+			size = size * 2 + 1;
+		}
+		
+		int x = index;
+		while (size - 1 != x)
+		{
+			size = (size - 1) / 2;
+			sequence --;
+			x %= size;
+		}
+		
+		return 1 << sequence;
+	}
+	
+	
+	// SUBCLASSES	---------------------
+	
+	private static class IntList
+	{
+		// ATTRIBUTES	-----------------
+		
+		private int[] values;
+		private int size;
+		
+		
+		// CONSTRUCTOR	-----------------
+		
+		public IntList()
+		{
+			this.values = new int[4];
+			this.size = 0;
+		}
+		
+		
+		// OTHER METHODS	-------------
+		
+		public int size()
+		{
+			return this.size;
+		}
+		
+		public int get(int index)
+		{
+			return this.values[index];
+		}
+		
+		public void set(int index, int value)
+		{
+			this.values[index] = value;
+		}
+		
+		public void add(int value)
+		{
+			if (this.size == this.values.length)
+			{
+				int[] grown = new int[this.size * 2];
+				System.arraycopy(this.values, 0, grown, 0, this.size);
+				this.values = grown;
+			}
+			this.values[this.size] = value;
+			this.size ++;
+		}
+		
+		public boolean contains(int value)
+		{
+			for (int i = 0; i < this.size; i++)
+			{
+				if (this.values[i] == value)
+					return true;
+			}
+			
+			return false;
+		}
+		
+		public void truncate(int size)
+		{
+			this.size = size;
+		}
+		
+		public int[] toArray()
+		{
+			int[] array = new int[this.size];
+			System.arraycopy(this.values, 0, array, 0, this.size);
+			return array;
+		}
+	}
+}
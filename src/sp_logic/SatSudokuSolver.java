@@ -0,0 +1,217 @@
+package sp_logic;
+
+import sp_logic.SudokuRules.Cage;
+import sp_logic.UnsolvablePuzzleException.Reason;
+
+/**
+ * SatSudokuSolver encodes a sudoku into boolean clauses and solves them with a 
+ * {@link SatSolver}. Each pair of a slot and a number is a variable that tells whether the 
+ * slot holds the number. The solver learns from its dead ends, which makes it a good choice 
+ * for the hardest puzzles and the variants. The whole solving happens in-process.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class SatSudokuSolver implements SudokuEngine
+{
+	// ATTRIBUTES	-------------------
+	
+	private SudokuGrid sudoku;
+	private int operations;
+	
+	
+	// CONSTRUCTOR	-------------------
+	
+	/**
+	 * Creates a new solver
+	 * @param sudoku The sudoku that needs solving
+	 */
+	public SatSudokuSolver(SudokuGrid sudoku)
+	{
+		this.sudoku = sudoku;
+		this.operations = 0;
+	}
+	
+	
+	// IMPLEMENTED METHODS	-----------
+	
+	/**
+	 * @return How many decisions and conflicts the last solving required
+	 */
+	@Override
+	public int getOperations()
+	{
+		return this.operations;
+	}
+	
+	@Override
+	public void solve() throws UnsolvablePuzzleException
+	{
+		int size = this.sudoku.getSize();
+		SatSolver solver = encode(this.sudoku);
+		
+		boolean solved;
+		try
+		{
+			solved = solver.solve();
+		}
+		catch (InterruptedException e)
+		{
+			// The interruption is passed on to whoever started the solving
+			Thread.currentThread().interrupt();
+			return;
+		}
+		finally
+		{
+			this.operations = solver.getDecisions() + solver.getConflicts();
+		}
+		
+		if (!solved)
+			throw new UnsolvablePuzzleException(null, Reason.NO_SOLUTION, null, 0);
+		
+		// Decodes the answer
+		int[][] numbers = new int[size][size];
+		for (int x = 0; x < size; x++)
+		{
+			for (int y = 0; y < size; y++)
+			{
+				for (int number = 1; number <= size; number++)
+				{
+					if (solver.getValue(getVariable(x, y, number, size)))
+					{
+						numbers[x][y] = number;
+						break;
+					}
+				}
+			}
+		}
+		
+		this.sudoku.copyNumbersFrom(numbers);
+	}
+	
+	
+	// OTHER METHODS	---------------
+	
+	private static SatSolver encode(SudokuGrid sudoku)
+	{
+		SudokuRules rules = sudoku.getRules();
+		int size = sudoku.getSize();
+		int slots = size * size;
+		
+		// Each cage combination has a variable of its own after the slot variables
+		int variables = slots * size;
+		for (Cage cage : rules.getCages())
+		{
+			variables += cage.getCombinations().length;
+		}
+		SatSolver solver = new SatSolver(variables);
+		
+		for (int x = 0; x < size; x++)
+		{
+			for (int y = 0; y < size; y++)
+			{
+				int number = sudoku.getSlot(x, y).getNumber();
+				if (number > 0)
+					solver.addClause(getVariable(x, y, number, size));
+				
+				// Each slot has at least one number and no two numbers
+				int[] someNumber = new int[size];
+				for (int first = 1; first <= size; first++)
+				{
+					someNumber[first - 1] = getVariable(x, y, first, size);
+					for (int second = first + 1; second <= size; second++)
+					{
+						solver.addClause(-getVariable(x, y, first, size), 
+								-getVariable(x, y, second, size));
+					}
+				}
+				solver.addClause(someNumber);
+				
+				// Connected slots can't share a number
+				int index = rules.getIndex(x, y);
+				for (int peer : rules.getPeers(index))
+				{
+					if (peer < index)
+						continue;
+					
+					for (int n = 1; n <= size; n++)
+					{
+						solver.addClause(-getVariable(x, y, n, size), 
+								-getVariable(peer % size, peer / size, n, size));
+					}
+				}
+			}
+		}
+		
+		// Each number appears in each row, column and region. These are implied by the 
+		// previous clauses but help the search.
+		for (int i = 0; i < size; i++)
+		{
+			for (int number = 1; number <= size; number++)
+			{
+				int[] inRow = new int[size];
+				int[] inColumn = new int[size];
+				int[] inRegion = new int[size];
+				int[] region = rules.getRegion(i);
+				for (int j = 0; j < size; j++)
+				{
+					inRow[j] = getVariable(j, i, number, size);
+					inColumn[j] = getVariable(i, j, number, size);
+					inRegion[j] = getVariable(region[j] % size, region[j] / size, number, 
+							size);
+				}
+				solver.addClause(inRow);
+				solver.addClause(inColumn);
+				solver.addClause(inRegion);
+			}
+		}
+		
+		// A cage holds exactly the numbers of one of its combinations
+		int nextVariable = slots * size + 1;
+		for (Cage cage : rules.getCages())
+		{
+			int[] cageSlots = cage.getSlots();
+			int[] combinations = cage.getCombinations();
+			int[] someCombination = new int[combinations.length];
+			
+			for (int c = 0; c < combinations.length; c++)
+			{
+				int selected = nextVariable;
+				nextVariable ++;
+				someCombination[c] = selected;
+				
+				for (int number = 1; number <= size; number++)
+				{
+					if (NumberSet.contains(combinations[c], number))
+					{
+						// The number is somewhere in the cage
+						int[] somewhere = new int[cageSlots.length + 1];
+						somewhere[0] = -selected;
+						for (int i = 0; i < cageSlots.length; i++)
+						{
+							somewhere[i + 1] = getVariable(cageSlots[i] % size, 
+									cageSlots[i] / size, number, size);
+						}
+						solver.addClause(somewhere);
+					}
+					else
+					{
+						// The number is nowhere in the cage
+						for (int slot : cageSlots)
+						{
+							solver.addClause(-selected, -getVariable(slot % size, 
+									slot / size, number, size));
+						}
+					}
+				}
+			}
+			solver.addClause(someCombination);
+		}
+		
+		return solver;
+	}
+	
+	private static int getVariable(int x, int y, int number, int size)
+	{
+		return (y * size + x) * size + number;
+	}
+}
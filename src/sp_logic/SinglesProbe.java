@@ -0,0 +1,178 @@
+package sp_logic;
+
+/**
+ * SinglesProbe tries numbers out on a scratch copy of a grid. The copy only holds the 
+ * numbers and the possible numbers of the slots, so trying out a number costs much less 
+ * than copying the whole grid for a guess. After a number is placed, the copy is filled 
+ * with naked and hidden singles until it is stuck or runs into a contradiction.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+final class SinglesProbe
+{
+	// ATTRIBUTES	---------------------
+	
+	private SudokuRules rules;
+	private int size;
+	private int[] numbers, possible; // The state of the grid the probes start from
+	private int[] probeNumbers, probePossible; // The state of the current probe
+	private int[] queue; // The slots that were left with a single possible number
+	private int queued;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	/**
+	 * Copies the state of a grid so that numbers can be tried out on it
+	 * @param sudoku The grid that is copied
+	 */
+	SinglesProbe(SudokuGrid sudoku)
+	{
+		this.rules = sudoku.getRules();
+		this.size = sudoku.getSize();
+		
+		int slotCount = this.size * this.size;
+		this.numbers = new int[slotCount];
+		this.possible = new int[slotCount];
+		this.queue = new int[slotCount];
+		
+		for (Slot slot : sudoku.getSlots())
+		{
+			if (slot.hasNumber())
+				this.numbers[slot.getIndex()] = slot.getNumber();
+			else
+				this.possible[slot.getIndex()] = slot.getPossibleNumbers();
+		}
+		
+		// The possible numbers may not be up to date with the latest numbers
+		for (int i = 0; i < slotCount; i++)
+		{
+			if (this.numbers[i] > 0)
+			{
+				for (int peer : this.rules.getPeers(i))
+				{
+					this.possible[peer] &= ~NumberSet.of(this.numbers[i]);
+				}
+			}
+		}
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * Places a number on the scratch copy and fills in the singles that follow
+	 * @param index The index of the slot the number is placed to
+	 * @param number The number that is tried out
+	 * @return Did the number lead to a contradiction. If so, the slot can't have the number.
+	 */
+	boolean fails(int index, int number)
+	{
+		this.probeNumbers = this.numbers.clone();
+		this.probePossible = this.possible.clone();
+		this.queued = 0;
+		
+		if (!place(index, number))
+			return true;
+		
+		boolean changed = true;
+		while (changed)
+		{
+			// Naked singles are placed first since they are the cheapest to find
+			while (this.queued > 0)
+			{
+				this.queued --;
+				int slot = this.queue[this.queued];
+				if (this.probeNumbers[slot] == 0 && 
+						!place(slot, NumberSet.first(this.probePossible[slot])))
+					return true;
+			}
+			
+			changed = false;
+			for (int unit = 0; unit < this.rules.getUnitCount(); unit++)
+			{
+				int result = placeHiddenSingles(this.rules.getUnit(unit));
+				if (result < 0)
+					return true;
+				if (result > 0)
+					changed = true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private boolean place(int index, int number)
+	{
+		if (!NumberSet.contains(this.probePossible[index], number))
+			return false;
+		
+		this.probeNumbers[index] = number;
+		this.probePossible[index] = NumberSet.EMPTY;
+		
+		int bit = NumberSet.of(number);
+		for (int peer : this.rules.getPeers(index))
+		{
+			if (this.probeNumbers[peer] == number)
+				return false;
+			if ((this.probePossible[peer] & bit) == 0)
+				continue;
+			
+			this.probePossible[peer] &= ~bit;
+			if (this.probeNumbers[peer] == 0)
+			{
+				int left = NumberSet.size(this.probePossible[peer]);
+				if (left == 0)
+					return false;
+				if (left == 1)
+				{
+					this.queue[this.queued] = peer;
+					this.queued ++;
+				}
+			}
+		}
+		
+		return true;
+	}
+	
+	private int placeHiddenSingles(int[] unit)
+	{
+		// Returns -1 on a contradiction, otherwise the number of placed singles
+		int placedNumbers = NumberSet.EMPTY;
+		int once = NumberSet.EMPTY;
+		int many = NumberSet.EMPTY;
+		for (int slot : unit)
+		{
+			if (this.probeNumbers[slot] > 0)
+				placedNumbers |= NumberSet.of(this.probeNumbers[slot]);
+			else
+			{
+				many |= once & this.probePossible[slot];
+				once |= this.probePossible[slot];
+			}
+		}
+		
+		if ((placedNumbers | once) != NumberSet.range(this.size))
+			return -1;
+		
+		int singles = once & ~many & ~placedNumbers;
+		int placed = 0;
+		for (int rest = singles; rest != 0; rest &= rest - 1)
+		{
+			int number = NumberSet.first(rest);
+			for (int slot : unit)
+			{
+				if (this.probeNumbers[slot] == 0 && 
+						NumberSet.contains(this.probePossible[slot], number))
+				{
+					if (!place(slot, number))
+						return -1;
+					placed ++;
+					break;
+				}
+			}
+		}
+		
+		return placed;
+	}
+}
@@ -1,8 +1,7 @@
 package sp_logic;
 
-import java.awt.Color;
 import java.awt.Graphics2D;
-import java.util.ArrayList;
+import java.awt.image.BufferedImage;
 import java.util.List;
 
 import genesis_event.Drawable;
@@ -38,10 +37,13 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 	private EventSelector<KeyEvent> keySelector;
 	private Vector3D position, dimensions;
 	private int number;
-	private List<Integer> possibleNumbers;
+	private int possibleNumbers;
+	private int column, row, index;
 	private boolean updateRequired, focus, locked, marked, guess;
 	private NineSlotGrid grid;
 	private HandlerRelay handlers;
+	private BufferedImage image;
+	private volatile boolean dirty;
 	
 	
 	// CONSTRUCTOR	---------------------
@@ -52,8 +54,11 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 	 * @param position The slot's position
 	 * @param dimensions The slot's dimensions
 	 * @param grid The grid that holds this slot
+	 * @param column The index of the slot's column in the sudoku [0, size - 1]
+	 * @param row The index of the slot's row in the sudoku [0, size - 1]
 	 */
-	public Slot(HandlerRelay handlers, Vector3D position, Vector3D dimensions, NineSlotGrid grid)
+	public Slot(HandlerRelay handlers, Vector3D position, Vector3D dimensions, 
+			NineSlotGrid grid, int column, int row)
 	{
 		super(handlers);
 		
@@ -61,14 +66,19 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 		this.dimensions = dimensions;
 		this.grid = grid;
 		this.handlers = handlers;
+		this.column = column;
+		this.row = row;
+		this.index = row * grid.getGrid().getSize() + column;
 		
 		this.number = 0;
-		this.possibleNumbers = new ArrayList<>();
+		this.possibleNumbers = NumberSet.EMPTY;
 		this.updateRequired = true;
 		this.focus = false;
 		this.locked = false;
 		this.marked = false;
 		this.guess = false;
+		this.image = null;
+		this.dirty = true;
 		
 		initializeEventSelectors();
 		
@@ -82,21 +92,40 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 	 */
 	public Slot(Slot other, NineSlotGrid grid)
 	{
-		super(other.handlers);
+		this(other, grid, false);
+	}
+	
+	/**
+	 * Creates an exact copy of another slot
+	 * @param other The slot this one is copied from
+	 * @param grid The grid that holds the copied slot
+	 * @param detached Should the copy be left out of the handlers. A detached slot is never 
+	 * drawn nor informed about events.
+	 */
+	public Slot(Slot other, NineSlotGrid grid, boolean detached)
+	{
+		super(detached ? null : other.handlers);
 		
 		this.position = other.position;
 		this.dimensions = other.dimensions;
 		this.grid = grid;
-		this.handlers = other.handlers;
+		this.column = other.column;
+		this.row = other.row;
+		this.index = other.index;
+		if (detached)
+			this.handlers = null;
+		else
+			this.handlers = other.handlers;
 		this.number = other.getNumber();
 		this.updateRequired = other.updateRequired();
 		this.focus = other.focus;
 		this.marked = other.marked;
 		this.locked = other.locked;
 		this.guess = other.guess;
+		this.image = other.image;
+		this.dirty = other.dirty;
 		
-		this.possibleNumbers = new ArrayList<>();
-		this.possibleNumbers.addAll(other.getPossibleNumbers());
+		this.possibleNumbers = other.possibleNumbers;
 		
 		initializeEventSelectors();
 		getHandlingOperators().addOperatorForType(GenesisHandlerType.DRAWABLEHANDLER);
@@ -125,11 +154,11 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 		if (event.getButtonEventScale() == MouseButtonEventScale.LOCAL)
 		{
 			if (event.getButton() == MouseButton.LEFT)
-				this.focus = true;
+				setFocus(true);
 			else
 			{
 				StringBuilder s = new StringBuilder("Possible :");
-				for (Integer possible : this.possibleNumbers)
+				for (Integer possible : NumberSet.toList(this.possibleNumbers))
 				{
 					s.append(possible);
 					s.append(", ");
@@ -138,7 +167,7 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 			}
 		}
 		else
-			this.focus = false;
+			setFocus(false);
 	}
 
 	@Override
@@ -151,39 +180,42 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 	public void onKeyEvent(KeyEvent event)
 	{
 		// if a number key was pressed, changes the number in the slot
-		if (this.focus && Character.isDigit(event.getKey()))
-			setNumber(Character.getNumericValue(event.getKeyChar()));
+		// Numbers larger than 9 are typed as letters (A = 10, B = 11, ...)
+		if (!this.focus)
+			return;
+		int number = Character.digit(event.getKeyChar(), Character.MAX_RADIX);
+		if (number >= 0 && number <= getGrid().getGrid().getSize())
+			setNumber(number);
 	}
 
 	@Override
 	public void drawSelf(Graphics2D g2d)
 	{
-		if (this.locked || this.guess)
+		// The slot's image only needs to be updated when the slot's state changes
+		if (this.dirty)
 		{
+			this.dirty = false;
+			
+			int background = 0;
 			if (this.locked)
-				g2d.setColor(Color.LIGHT_GRAY);
-			else
-				g2d.setColor(Color.CYAN);
-			g2d.fillRect(this.position.getFirstInt(), this.position.getSecondInt(), 
-					this.dimensions.getFirstInt(), this.dimensions.getSecondInt());
+				background = 1;
+			else if (this.guess)
+				background = 2;
+			
+			int border = 0;
+			if (this.focus)
+				border = 3;
+			else if (this.marked)
+				border = 2;
+			else if (updateRequired())
+				border = 1;
+			
+			this.image = SlotImageCache.getImage(this.number, background, border, 
+					this.dimensions.getFirstInt(), this.dimensions.getSecondInt(), g2d);
 		}
 		
-		if (this.focus)
-			g2d.setColor(Color.RED);
-		else if (this.marked)
-			g2d.setColor(Color.PINK);
-		else if (updateRequired())
-			g2d.setColor(Color.BLUE);
-		else
-			g2d.setColor(Color.BLACK);
-		
-		g2d.drawRect(this.position.getFirstInt(), this.position.getSecondInt(), 
-				this.dimensions.getFirstInt(), this.dimensions.getSecondInt());
-		
-		if (hasNumber())
-			g2d.drawString(this.number + "", this.position.getFirstInt() + (int) (
-					this.dimensions.getFirst() * 0.2), this.position.getSecondInt() + 
-					(int) (this.dimensions.getSecond() * 0.8));
+		g2d.drawImage(this.image, this.position.getFirstInt(), this.position.getSecondInt(), 
+				null);
 	}
 
 	@Override
@@ -212,12 +244,16 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 		if (number == this.number)
 			return;
 		
+		int oldNumber = this.number;
+		int oldPossible = this.possibleNumbers;
 		this.number = number;
+		this.dirty = true;
 		
 		// After a number changes, updates are required 
 		setUpdateRequired(number <= 0);
 		if (number > 0)
-			getPossibleNumbers().clear();
+			this.possibleNumbers = NumberSet.EMPTY;
+		onChange(oldNumber, oldPossible);
 		// The grid needs to be updated, as well as the row and column
 		NineSlotGrid.setUpdateRequisition(getConnectedSlots());
 	}
@@ -240,7 +276,11 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 		if (newStatus && hasNumber())
 			return;
 		
-		this.updateRequired = newStatus;
+		if (newStatus != this.updateRequired)
+		{
+			this.updateRequired = newStatus;
+			this.dirty = true;
+		}
 	}
 	
 	/**
@@ -252,20 +292,40 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 	}
 	
 	/**
-	 * @return All the numbers that have been marked possible for this slot
+	 * @return All the numbers that have been marked possible for this slot as a 
+	 * {@link NumberSet}
 	 */
-	public List<Integer> getPossibleNumbers()
+	public int getPossibleNumbers()
 	{
 		return this.possibleNumbers;
 	}
 	
 	/**
-	 * Updates the list of possible numbers in the slot
-	 * @param numbers The numbers that are possible
+	 * Updates the set of possible numbers in the slot
+	 * @param numbers The numbers that are possible as a {@link NumberSet}
 	 */
-	public void setPossibleNumbers(List<Integer> numbers)
+	public void setPossibleNumbers(int numbers)
 	{
+		int oldPossible = this.possibleNumbers;
 		this.possibleNumbers = numbers;
+		onChange(this.number, oldPossible);
+	}
+	
+	/**
+	 * @return How many numbers are possible for this slot
+	 */
+	public int getPossibleNumberCount()
+	{
+		return NumberSet.size(this.possibleNumbers);
+	}
+	
+	/**
+	 * @param number A number
+	 * @return Is the number marked possible for this slot
+	 */
+	public boolean isPossible(int number)
+	{
+		return NumberSet.contains(this.possibleNumbers, number);
 	}
 	
 	/**
@@ -274,6 +334,7 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 	public void mark()
 	{
 		this.marked = true;
+		this.dirty = true;
 	}
 	
 	/**
@@ -283,6 +344,7 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 	public void guess(int number)
 	{
 		this.guess = true;
+		this.dirty = true;
 		setNumber(number);
 	}
 	
@@ -294,6 +356,14 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 		return this.locked;
 	}
 	
+	/**
+	 * @return Was the slot's number guessed
+	 */
+	boolean isGuess()
+	{
+		return this.guess;
+	}
+	
 	
 	// OTHER METHODS	-----------------
 	
@@ -316,6 +386,31 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 	public void removeMark()
 	{
 		this.marked = false;
+		this.dirty = true;
+	}
+	
+	/**
+	 * Returns the slot to a previously saved state. The connected slots are not informed.
+	 * @param number The number in the slot
+	 * @param possibleNumbers The possible numbers of the slot as a {@link NumberSet}
+	 * @param updateRequired Does the slot require updating
+	 * @param locked Is the slot locked. A locked slot stays locked.
+	 * @param guess Was the number guessed
+	 */
+	void restore(int number, int possibleNumbers, boolean updateRequired, boolean locked, 
+			boolean guess)
+	{
+		int oldNumber = this.number;
+		int oldPossible = this.possibleNumbers;
+		this.number = number;
+		this.possibleNumbers = possibleNumbers;
+		this.updateRequired = updateRequired;
+		this.guess = guess;
+		this.dirty = true;
+		onChange(oldNumber, oldPossible);
+		
+		if (locked && !this.locked)
+			lock();
 	}
 	
 	/**
@@ -324,22 +419,18 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 	public void lock()
 	{
 		this.locked = true;
+		this.dirty = true;
 		getHandlingOperators().getShouldBeHandledOperator(GenesisHandlerType.MOUSEHANDLER
 				).setState(false);
 	}
 	
 	/**
-	 * @return The slots that share numbers with this one (grid, row, column)
+	 * @return The slots that can't share a number with this one (grid, row, column and any 
+	 * other units of the sudoku)
 	 */
 	public List<Slot> getConnectedSlots()
 	{
-		Vector3D position = getPosition();
-		List<Slot> slots = SudokuGrid.getCombinedSlots(getGrid().getSlots(), 
-				SudokuGrid.getCombinedSlots(getGrid().getGrid().getRow(
-				position.getSecondInt()), getGrid().getGrid().getColumn(
-				position.getFirstInt())));
-		slots.remove(this);
-		return slots;
+		return getGrid().getGrid().getConnectedSlots(this);
 	}
 	
 	/**
@@ -347,7 +438,32 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 	 */
 	public Vector3D getPosition()
 	{
-		return getGrid().getGrid().getSlotPosition(this);
+		return new Vector3D(this.column, this.row);
+	}
+	
+	/**
+	 * @return The index of the slot's column in the sudoku [0, size - 1]
+	 */
+	public int getColumn()
+	{
+		return this.column;
+	}
+	
+	/**
+	 * @return The index of the slot's row in the sudoku [0, size - 1]
+	 */
+	public int getRow()
+	{
+		return this.row;
+	}
+	
+	/**
+	 * @return The index of the slot in the sudoku (row * size + column). This is the index 
+	 * the {@link SudokuRules} use.
+	 */
+	public int getIndex()
+	{
+		return this.index;
 	}
 	
 	/**
@@ -364,8 +480,8 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 	 */
 	public void addPossibleNumber(int possible)
 	{
-		if (!hasNumber() && !this.possibleNumbers.contains(possible))
-			this.possibleNumbers.add(possible);
+		if (!hasNumber())
+			setPossibleNumbers(this.possibleNumbers | NumberSet.of(possible));
 	}
 	
 	/**
@@ -374,24 +490,43 @@ public class Slot extends SimpleHandled implements Drawable, KeyListener,
 	 */
 	public void removePossibleNumber(int number)
 	{
-		int index = this.possibleNumbers.indexOf(number);
-		if (index >= 0)
-			this.possibleNumbers.remove(index);
+		setPossibleNumbers(this.possibleNumbers & ~NumberSet.of(number));
+	}
+	
+	/**
+	 * Removes multiple numbers from the possible numbers
+	 * @param numbers The numbers that are no longer possible in this slot as a 
+	 * {@link NumberSet}
+	 */
+	public void removePossibleNumbers(int numbers)
+	{
+		setPossibleNumbers(this.possibleNumbers & ~numbers);
 	}
 	
 	/**
 	 * Finds out all the possible numbers that fit into both of the slots
 	 * @param first The first slot
 	 * @param second The second slot
-	 * @return The numbers that fit into both slots
+	 * @return The numbers that fit into both slots as a {@link NumberSet}
 	 */
-	public static List<Integer> getSharedNumbers(Slot first, Slot second)
+	public static int getSharedNumbers(Slot first, Slot second)
 	{
-		List<Integer> sharedNumbers = new ArrayList<>();
-		sharedNumbers.addAll(first.getPossibleNumbers());
-		sharedNumbers.removeAll(NineSlotGrid.getRemainingNumbers(second.getPossibleNumbers()));
-		
-		return sharedNumbers;
+		return first.getPossibleNumbers() & second.getPossibleNumbers();
+	}
+	
+	private void onChange(int oldNumber, int oldPossible)
+	{
+		// The grid keeps track of where each number fits
+		this.grid.getGrid().onSlotChanged(this, oldNumber, oldPossible);
+	}
+	
+	private void setFocus(boolean focus)
+	{
+		if (focus != this.focus)
+		{
+			this.focus = focus;
+			this.dirty = true;
+		}
 	}
 	
 	private void initializeEventSelectors()
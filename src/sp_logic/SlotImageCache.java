@@ -0,0 +1,103 @@
+package sp_logic;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SlotImageCache holds the images of the slots. Each slot state (number, background and 
+ * border colour, size) is drawn only once and the image is shared between all the slots in 
+ * that state. The cache is only used from the drawing thread.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+class SlotImageCache
+{
+	// ATTRIBUTES	---------------------
+	
+	/**
+	 * The possible background colours of a slot. Null means that the background is not 
+	 * filled.
+	 */
+	static final Color[] BACKGROUNDS = {null, Color.LIGHT_GRAY, Color.CYAN};
+	/**
+	 * The possible border and text colours of a slot
+	 */
+	static final Color[] BORDERS = {Color.BLACK, Color.BLUE, Color.PINK, Color.RED};
+	
+	private static final Map<Long, BufferedImage> IMAGES = new HashMap<>();
+	private static Font font = null;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	private SlotImageCache()
+	{
+		// The interface is static
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * Finds or draws the image of a slot
+	 * @param number The number in the slot (<= 0 means empty)
+	 * @param background The index of the background colour in {@link #BACKGROUNDS}
+	 * @param border The index of the border colour in {@link #BORDERS}
+	 * @param width The width of the slot
+	 * @param height The height of the slot
+	 * @param g2d The graphics object the slot will be drawn with. Used for the font and 
+	 * rendering hints.
+	 * @return An image of the slot
+	 */
+	static BufferedImage getImage(int number, int background, int border, int width, 
+			int height, Graphics2D g2d)
+	{
+		// If the font changes, all the images have to be drawn again
+		if (!g2d.getFont().equals(font))
+		{
+			IMAGES.clear();
+			font = g2d.getFont();
+		}
+		
+		long key = ((long) width << 32) | ((long) height << 16) | (Math.max(number, 0) << 4) | 
+				(background << 2) | border;
+		BufferedImage image = IMAGES.get(key);
+		if (image == null)
+		{
+			image = drawImage(number, background, border, width, height, g2d);
+			IMAGES.put(key, image);
+		}
+		
+		return image;
+	}
+	
+	private static BufferedImage drawImage(int number, int background, int border, int width, 
+			int height, Graphics2D g2d)
+	{
+		// The border is drawn one pixel over the slot dimensions
+		BufferedImage image = new BufferedImage(width + 1, height + 1, 
+				BufferedImage.TYPE_INT_ARGB);
+		Graphics2D imageG2d = image.createGraphics();
+		imageG2d.setFont(font);
+		imageG2d.setRenderingHints(g2d.getRenderingHints());
+		
+		if (BACKGROUNDS[background] != null)
+		{
+			imageG2d.setColor(BACKGROUNDS[background]);
+			imageG2d.fillRect(0, 0, width, height);
+		}
+		
+		imageG2d.setColor(BORDERS[border]);
+		imageG2d.drawRect(0, 0, width, height);
+		
+		if (number > 0)
+			imageG2d.drawString(String.valueOf(number), (int) (width * 0.2), (int) (height * 0.8));
+		
+		imageG2d.dispose();
+		return image;
+	}
+}
@@ -0,0 +1,152 @@
+package sp_logic;
+
+/**
+ * SlotSet handles sets of slots that are stored as bits of a long array. Slot index n is 
+ * in the set when bit n % 64 of word n / 64 is set. Unlike {@link NumberSet}s, slot sets 
+ * are changed in place. The sets can be iterated with 
+ * <code>for (int i = first(set); i >= 0; i = next(set, i))</code>.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+final class SlotSet
+{
+	// CONSTRUCTOR	---------------------
+	
+	private SlotSet()
+	{
+		// The interface is static
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * @param slotCount The number of slots in the grid
+	 * @return An empty set that can hold all the slots of the grid
+	 */
+	static long[] create(int slotCount)
+	{
+		return new long[(slotCount + 63) / 64];
+	}
+	
+	/**
+	 * Adds a slot to the set
+	 * @param set A set of slots
+	 * @param index The index of the slot that is added
+	 */
+	static void set(long[] set, int index)
+	{
+		set[index >> 6] |= 1L << index;
+	}
+	
+	/**
+	 * @param set A set of slots
+	 * @param index The index of a slot
+	 * @return Does the set contain the slot
+	 */
+	static boolean contains(long[] set, int index)
+	{
+		return (set[index >> 6] & (1L << index)) != 0;
+	}
+	
+	/**
+	 * Adds the slots of another set to a set
+	 * @param set The set that is changed
+	 * @param other The slots that are added
+	 */
+	static void or(long[] set, long[] other)
+	{
+		for (int i = 0; i < set.length; i++)
+		{
+			set[i] |= other[i];
+		}
+	}
+	
+	/**
+	 * Removes the slots that are not in another set from a set
+	 * @param set The set that is changed
+	 * @param other The slots that are kept
+	 */
+	static void and(long[] set, long[] other)
+	{
+		for (int i = 0; i < set.length; i++)
+		{
+			set[i] &= other[i];
+		}
+	}
+	
+	/**
+	 * Removes the slots of another set from a set
+	 * @param set The set that is changed
+	 * @param other The slots that are removed
+	 */
+	static void andNot(long[] set, long[] other)
+	{
+		for (int i = 0; i < set.length; i++)
+		{
+			set[i] &= ~other[i];
+		}
+	}
+	
+	/**
+	 * @param set A set of slots
+	 * @param other Another set of slots
+	 * @return Do the sets have slots in common
+	 */
+	static boolean intersects(long[] set, long[] other)
+	{
+		for (int i = 0; i < set.length; i++)
+		{
+			if ((set[i] & other[i]) != 0)
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * @param set A set of slots
+	 * @return Is the set empty
+	 */
+	static boolean isEmpty(long[] set)
+	{
+		for (long word : set)
+		{
+			if (word != 0)
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * @param set A set of slots
+	 * @return The smallest slot index in the set, -1 if the set is empty
+	 */
+	static int first(long[] set)
+	{
+		return next(set, -1);
+	}
+	
+	/**
+	 * @param set A set of slots
+	 * @param index The index of a slot
+	 * @return The smallest slot index in the set that is larger than the given index, -1 if 
+	 * there are none
+	 */
+	static int next(long[] set, int index)
+	{
+		int from = index + 1;
+		int word = from >> 6;
+		if (word >= set.length)
+			return -1;
+		
+		long rest = set[word] & (-1L << from);
+		while (rest == 0)
+		{
+			word ++;
+			if (word >= set.length)
+				return -1;
+			rest = set[word];
+		}
+		return (word << 6) + Long.numberOfTrailingZeros(rest);
+	}
+}
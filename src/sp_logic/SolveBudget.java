@@ -0,0 +1,78 @@
+package sp_logic;
+
+/**
+ * SolveBudget limits how long a puzzle may be solved. The solving can be limited by time, 
+ * by the number of solving steps and by the number of guesses. The time limit starts 
+ * running when the budget is created.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class SolveBudget
+{
+	// ATTRIBUTES	---------------------
+	
+	/**
+	 * Used in place of a limit when the resource is not limited
+	 */
+	public static final int UNLIMITED = -1;
+	
+	private boolean hasDeadline;
+	private long deadline;
+	private int maxOperations, maxGuesses;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	/**
+	 * Creates a new budget
+	 * @param timeLimitMillis How many milliseconds the solving may take at most 
+	 * ({@link #UNLIMITED} if there's no time limit)
+	 * @param maxOperations How many solving steps may be taken at most 
+	 * ({@link #UNLIMITED} if there's no limit)
+	 * @param maxGuesses How many guesses may be made at most ({@link #UNLIMITED} if there's 
+	 * no limit)
+	 */
+	public SolveBudget(long timeLimitMillis, int maxOperations, int maxGuesses)
+	{
+		this.hasDeadline = timeLimitMillis >= 0;
+		this.deadline = System.nanoTime() + Math.max(timeLimitMillis, 0) * 1000000;
+		
+		this.maxOperations = maxOperations;
+		this.maxGuesses = maxGuesses;
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * @return A budget that never runs out
+	 */
+	public static SolveBudget unlimited()
+	{
+		return new SolveBudget(UNLIMITED, UNLIMITED, UNLIMITED);
+	}
+	
+	/**
+	 * @return Has the time limit been reached
+	 */
+	public boolean isPastDeadline()
+	{
+		return this.hasDeadline && System.nanoTime() - this.deadline >= 0;
+	}
+	
+	/**
+	 * Checks whether the budget has run out
+	 * @param operations How many solving steps have been taken
+	 * @param guesses How many guesses have been made
+	 * @return Has any of the limits been reached
+	 */
+	public boolean isExhausted(int operations, int guesses)
+	{
+		if (this.maxOperations != UNLIMITED && operations >= this.maxOperations)
+			return true;
+		if (this.maxGuesses != UNLIMITED && guesses >= this.maxGuesses)
+			return true;
+		
+		return isPastDeadline();
+	}
+}
@@ -0,0 +1,104 @@
+package sp_logic;
+
+/**
+ * SolveOutcome tells how a budgeted solving attempt ended and what the board looked like at 
+ * that point
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class SolveOutcome
+{
+	// ATTRIBUTES	---------------------
+	
+	private Status status;
+	private int[][] numbers;
+	private int operations, guesses;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	/**
+	 * Creates a new outcome
+	 * @param status How the solving ended
+	 * @param numbers The numbers on the board when the solving ended [x][y]
+	 * @param operations How many solving steps were taken
+	 * @param guesses How many guesses were made
+	 */
+	public SolveOutcome(Status status, int[][] numbers, int operations, int guesses)
+	{
+		this.status = status;
+		this.numbers = numbers;
+		this.operations = operations;
+		this.guesses = guesses;
+	}
+	
+	
+	// IMPLEMENTED METHODS	-------------
+	
+	@Override
+	public String toString()
+	{
+		return this.status + " after " + this.operations + " steps and " + this.guesses + 
+				" guesses";
+	}
+	
+	
+	// ACCESSORS	---------------------
+	
+	/**
+	 * @return How the solving ended
+	 */
+	public Status getStatus()
+	{
+		return this.status;
+	}
+	
+	/**
+	 * @return The numbers on the board when the solving ended [x][y] (0 means empty). The 
+	 * board is complete only if the puzzle was solved.
+	 */
+	public int[][] getNumbers()
+	{
+		return this.numbers;
+	}
+	
+	/**
+	 * @return How many solving steps were taken
+	 */
+	public int getOperations()
+	{
+		return this.operations;
+	}
+	
+	/**
+	 * @return How many guesses were made
+	 */
+	public int getGuesses()
+	{
+		return this.guesses;
+	}
+	
+	
+	// SUBCLASSES	---------------------
+	
+	/**
+	 * These are the ways a solving attempt can end
+	 * @author Mikko Hilpinen
+	 * @since 18.10.2026
+	 */
+	public static enum Status
+	{
+		/**
+		 * The puzzle was solved
+		 */
+		SOLVED,
+		/**
+		 * The puzzle was found to have no solution
+		 */
+		UNSOLVABLE,
+		/**
+		 * The budget ran out before the solving was finished
+		 */
+		BUDGET_EXHAUSTED;
+	}
+}
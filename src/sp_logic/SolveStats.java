@@ -0,0 +1,365 @@
+package sp_logic;
+
+import java.io.PrintStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import sp_logic.SudokuSolver.Technique;
+
+/**
+ * SolveStats collects the latency, operation count and guess count of finished solves 
+ * into histograms and counts the results, backtracks and the techniques that were used. 
+ * Each thread records into histograms of its own so that recording never 
+ * waits for other threads. The histograms of all the threads are merged when a report is 
+ * made. Once a thread has died, its histograms are merged into a shared set and dropped, 
+ * so the memory used only depends on the number of live threads.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class SolveStats
+{
+	// ATTRIBUTES	---------------------
+	
+	private static final SolveStats GLOBAL = new SolveStats();
+	private static final int MIN_PRUNE_LIMIT = 64;
+	
+	private ThreadLocal<Recorder> recorders;
+	private List<Recorder> allRecorders; // The recorders of the live threads
+	private Recorder retired; // The statistics of the threads that have died
+	private int pruneLimit; // Dead recorders are merged when there are this many recorders
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	/**
+	 * Creates a new empty set of statistics
+	 */
+	public SolveStats()
+	{
+		this.allRecorders = new ArrayList<>();
+		this.retired = new Recorder(null);
+		this.pruneLimit = MIN_PRUNE_LIMIT;
+		this.recorders = new ThreadLocal<Recorder>()
+		{
+			@Override
+			protected Recorder initialValue()
+			{
+				return addRecorder();
+			}
+		};
+	}
+	
+	
+	// ACCESSORS	---------------------
+	
+	/**
+	 * @return The statistics every solver records into unless told otherwise
+	 */
+	public static SolveStats global()
+	{
+		return GLOBAL;
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * Records a finished solve. A solve that is stopped because its budget ran out is 
+	 * recorded as well, and again if it is later continued to the end.
+	 * @param status How the solve ended
+	 * @param nanos How long the solving took in nanoseconds
+	 * @param operations How many steps the solving took
+	 * @param guesses How many guesses were made
+	 * @param backtracks How many guesses were taken back
+	 * @param techniqueUses How many steps were taken with each technique, indexed by the 
+	 * technique ordinals
+	 */
+	public void record(SolveOutcome.Status status, long nanos, int operations, int guesses, 
+			int backtracks, int[] techniqueUses)
+	{
+		Recorder recorder = this.recorders.get();
+		recorder.latency.record(nanos / 1000);
+		recorder.operations.record(operations);
+		recorder.guesses.record(guesses);
+		
+		// Each counter only has a single writer
+		AtomicLong results = recorder.getResultCounter(status);
+		results.lazySet(results.get() + 1);
+		recorder.backtracks.lazySet(recorder.backtracks.get() + backtracks);
+		for (int i = 0; i < techniqueUses.length; i++)
+		{
+			if (techniqueUses[i] != 0)
+				recorder.techniqueUses.lazySet(i, recorder.techniqueUses.get(i) + 
+						techniqueUses[i]);
+		}
+	}
+	
+	/**
+	 * @return The statistics recorded so far by all of the threads
+	 */
+	public synchronized Report report()
+	{
+		pruneRecorders();
+		
+		Report report = new Report();
+		report.add(this.retired);
+		for (Recorder recorder : this.allRecorders)
+		{
+			report.add(recorder);
+		}
+		
+		return report;
+	}
+	
+	/**
+	 * Starts printing reports at regular intervals. The reports are printed on a daemon 
+	 * thread so they don't keep the program running.
+	 * @param intervalMillis How often (in milliseconds) a report is printed
+	 * @param out The stream the reports are printed to
+	 * @return The timer that prints the reports. Cancel it to stop the reports.
+	 */
+	public Timer startReporting(long intervalMillis, PrintStream out)
+	{
+		Timer timer = new Timer("Solve stats", true);
+		timer.scheduleAtFixedRate(new TimerTask()
+		{
+			@Override
+			public void run()
+			{
+				out.println(report());
+			}
+		}, intervalMillis, intervalMillis);
+		
+		return timer;
+	}
+	
+	private synchronized Recorder addRecorder()
+	{
+		Recorder recorder = new Recorder(Thread.currentThread());
+		this.allRecorders.add(recorder);
+		if (this.allRecorders.size() >= this.pruneLimit)
+			pruneRecorders();
+		
+		return recorder;
+	}
+	
+	private synchronized void pruneRecorders()
+	{
+		// A dead thread doesn't record anymore, so its statistics can be merged safely
+		Iterator<Recorder> iterator = this.allRecorders.iterator();
+		while (iterator.hasNext())
+		{
+			Recorder recorder = iterator.next();
+			if (!recorder.isAlive())
+			{
+				this.retired.add(recorder);
+				iterator.remove();
+			}
+		}
+		
+		// The limit grows with the live threads so that pruning stays rare
+		this.pruneLimit = Math.max(MIN_PRUNE_LIMIT, this.allRecorders.size() * 2);
+	}
+	
+	
+	// SUBCLASSES	---------------------
+	
+	/**
+	 * A report contains the merged statistics of all the threads at a single moment
+	 * @author Mikko Hilpinen
+	 * @since 18.10.2026
+	 */
+	public static class Report
+	{
+		// ATTRIBUTES	-----------------
+		
+		private LogHistogram latency, operations, guesses;
+		private long solved, unsolvable, budgetExhausted, backtracks;
+		private long[] techniqueUses;
+		
+		
+		// CONSTRUCTOR	-----------------
+		
+		private Report()
+		{
+			this.latency = new LogHistogram();
+			this.operations = new LogHistogram();
+			this.guesses = new LogHistogram();
+			this.techniqueUses = new long[Technique.values().length];
+		}
+		
+		
+		// IMPLEMENTED METHODS	---------
+		
+		@Override
+		public String toString()
+		{
+			return "Solved " + this.solved + " puzzles, " + this.unsolvable + 
+					" were unsolvable, " + this.budgetExhausted + " ran out of budget\n" + 
+					"  latency (us): " + this.latency + "\n" + 
+					"  operations:   " + this.operations + "\n" + 
+					"  guesses:      " + this.guesses;
+		}
+		
+		
+		// ACCESSORS	-----------------
+		
+		/**
+		 * @return The time each solve took in microseconds
+		 */
+		public LogHistogram getLatency()
+		{
+			return this.latency;
+		}
+		
+		/**
+		 * @return The number of steps each solve took
+		 */
+		public LogHistogram getOperations()
+		{
+			return this.operations;
+		}
+		
+		/**
+		 * @return The number of guesses each solve made
+		 */
+		public LogHistogram getGuesses()
+		{
+			return this.guesses;
+		}
+		
+		/**
+		 * @return How many puzzles were solved
+		 */
+		public long getSolvedCount()
+		{
+			return this.solved;
+		}
+		
+		/**
+		 * @return How many puzzles were found unsolvable
+		 */
+		public long getUnsolvableCount()
+		{
+			return this.unsolvable;
+		}
+		
+		/**
+		 * @return How many solves were stopped because their budget ran out or their thread 
+		 * was interrupted
+		 */
+		public long getBudgetExhaustedCount()
+		{
+			return this.budgetExhausted;
+		}
+		
+		/**
+		 * @return How many guesses were taken back in total
+		 */
+		public long getBacktrackCount()
+		{
+			return this.backtracks;
+		}
+		
+		/**
+		 * @param technique A solving technique
+		 * @return How many steps were taken with the technique in total
+		 */
+		public long getUses(Technique technique)
+		{
+			return this.techniqueUses[technique.ordinal()];
+		}
+		
+		
+		// OTHER METHODS	-------------
+		
+		private void add(Recorder recorder)
+		{
+			this.latency.add(recorder.latency);
+			this.operations.add(recorder.operations);
+			this.guesses.add(recorder.guesses);
+			this.solved += recorder.solved.get();
+			this.unsolvable += recorder.unsolvable.get();
+			this.budgetExhausted += recorder.budgetExhausted.get();
+			this.backtracks += recorder.backtracks.get();
+			for (int i = 0; i < this.techniqueUses.length; i++)
+			{
+				this.techniqueUses[i] += recorder.techniqueUses.get(i);
+			}
+		}
+	}
+	
+	private static class Recorder
+	{
+		// ATTRIBUTES	-----------------
+		
+		private WeakReference<Thread> owner; // Null for the recorder of the dead threads
+		private LogHistogram latency, operations, guesses;
+		private AtomicLong solved, unsolvable, budgetExhausted, backtracks;
+		private AtomicLongArray techniqueUses;
+		
+		
+		// CONSTRUCTOR	-----------------
+		
+		public Recorder(Thread owner)
+		{
+			this.owner = owner == null ? null : new WeakReference<>(owner);
+			this.latency = new LogHistogram();
+			this.operations = new LogHistogram();
+			this.guesses = new LogHistogram();
+			this.solved = new AtomicLong();
+			this.unsolvable = new AtomicLong();
+			this.budgetExhausted = new AtomicLong();
+			this.backtracks = new AtomicLong();
+			this.techniqueUses = new AtomicLongArray(Technique.values().length);
+		}
+		
+		
+		// ACCESSORS	-----------------
+		
+		public boolean isAlive()
+		{
+			if (this.owner == null)
+				return true;
+			Thread thread = this.owner.get();
+			return thread != null && thread.isAlive();
+		}
+		
+		public AtomicLong getResultCounter(SolveOutcome.Status status)
+		{
+			switch (status)
+			{
+				case SOLVED: return this.solved;
+				case UNSOLVABLE: return this.unsolvable;
+				default: return this.budgetExhausted;
+			}
+		}
+		
+		
+		// OTHER METHODS	-------------
+		
+		public void add(Recorder other)
+		{
+			// Only called while holding the lock of the statistics
+			this.latency.add(other.latency);
+			this.operations.add(other.operations);
+			this.guesses.add(other.guesses);
+			this.solved.lazySet(this.solved.get() + other.solved.get());
+			this.unsolvable.lazySet(this.unsolvable.get() + other.unsolvable.get());
+			this.budgetExhausted.lazySet(this.budgetExhausted.get() + 
+					other.budgetExhausted.get());
+			this.backtracks.lazySet(this.backtracks.get() + other.backtracks.get());
+			for (int i = 0; i < this.techniqueUses.length(); i++)
+			{
+				this.techniqueUses.lazySet(i, this.techniqueUses.get(i) + 
+						other.techniqueUses.get(i));
+			}
+		}
+	}
+}
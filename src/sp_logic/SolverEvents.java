@@ -0,0 +1,161 @@
+package sp_logic;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * SolverEvents contains the Java Flight Recorder events emitted by {@link SudokuSolver}. 
+ * The events cost next to nothing while no recording is running, since each event is 
+ * checked to be enabled before any of its fields are filled. The phase events are disabled 
+ * by default and only a sample of the phases is recorded even when they are enabled.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+final class SolverEvents
+{
+	// ATTRIBUTES	---------------------
+	
+	/**
+	 * One in this many safe solving steps has its phases recorded
+	 */
+	static final int PHASE_SAMPLE_INTERVAL = 16;
+	
+	private static final EventType PHASE_EVENT_TYPE = EventType.getEventType(PhaseEvent.class);
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	private SolverEvents()
+	{
+		// The interface is static
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * @return Should the phases of the next safe solving step be recorded
+	 */
+	static boolean samplePhases()
+	{
+		// The event type is checked so that no event is made for the steps that aren't recorded
+		return PHASE_EVENT_TYPE.isEnabled() && 
+				ThreadLocalRandom.current().nextInt(PHASE_SAMPLE_INTERVAL) == 0;
+	}
+	
+	
+	// SUBCLASSES	---------------------
+	
+	/**
+	 * A solve event covers a single call to one of the solve methods
+	 */
+	@Name("sudoku.Solve")
+	@Label("Sudoku Solve")
+	@Category("Sudoku")
+	@Description("A puzzle was solved or the solving was stopped")
+	@StackTrace(false)
+	static class SolveEvent extends Event
+	{
+		@Label("Size")
+		int size;
+		
+		@Label("Operations")
+		int operations;
+		
+		@Label("Guesses")
+		int guesses;
+		
+		@Label("Backtracks")
+		int backtracks;
+		
+		@Label("Result")
+		String result;
+	}
+	
+	/**
+	 * A guess event is emitted whenever the solver has to guess a number
+	 */
+	@Name("sudoku.Guess")
+	@Label("Sudoku Guess")
+	@Category("Sudoku")
+	@Description("The solver guessed the number of a slot")
+	@StackTrace(false)
+	static class GuessEvent extends Event
+	{
+		@Label("Column")
+		int column;
+		
+		@Label("Row")
+		int row;
+		
+		@Label("Number")
+		int number;
+		
+		@Label("Options")
+		@Description("How many numbers the slot could have had")
+		int options;
+		
+		@Label("Depth")
+		@Description("How many guesses are in effect after this one")
+		int depth;
+		
+		@Label("Hook")
+		@Description("Was the slot picked from a hook")
+		boolean hook;
+	}
+	
+	/**
+	 * A backtrack event is emitted whenever a guess is found to be wrong
+	 */
+	@Name("sudoku.Backtrack")
+	@Label("Sudoku Backtrack")
+	@Category("Sudoku")
+	@Description("A guess lead to a dead end and was taken back")
+	@StackTrace(false)
+	static class BacktrackEvent extends Event
+	{
+		@Label("Column")
+		int column;
+		
+		@Label("Row")
+		int row;
+		
+		@Label("Number")
+		@Description("The number that was ruled out")
+		int number;
+		
+		@Label("Options Left")
+		int optionsLeft;
+		
+		@Label("Depth")
+		@Description("How many guesses are in effect after this one was taken back")
+		int depth;
+	}
+	
+	/**
+	 * A phase event covers a single phase of a safe solving step
+	 */
+	@Name("sudoku.Phase")
+	@Label("Sudoku Phase")
+	@Category("Sudoku")
+	@Description("A sampled phase of a safe solving step")
+	@StackTrace(false)
+	@Enabled(false)
+	static class PhaseEvent extends Event
+	{
+		@Label("Technique")
+		String technique;
+		
+		@Label("Solved")
+		@Description("Did the phase find a step")
+		boolean solved;
+	}
+}
@@ -0,0 +1,266 @@
+package sp_logic;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import sp_logic.SudokuRules.Cage;
+
+/**
+ * SolverSnapshot writes and reads the parts of a solver's state in a compact binary form. 
+ * Each grid after the first one is written as the differences to the previous grid, since 
+ * the grids of a guess stack differ by only a few slots.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+class SolverSnapshot
+{
+	// ATTRIBUTES	---------------------
+	
+	/**
+	 * The first bytes of each snapshot
+	 */
+	static final int MAGIC = 0x53505353;
+	/**
+	 * The version of the snapshot format
+	 */
+	static final int VERSION = 1;
+	
+	private static final int UPDATE_REQUIRED = 1;
+	private static final int LOCKED = 2;
+	private static final int GUESS = 4;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	private SolverSnapshot()
+	{
+		// The interface is static
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * Writes the rules of a sudoku
+	 * @param out The stream the rules are written to
+	 * @param rules The rules that are written
+	 * @throws IOException If the writing failed
+	 */
+	static void writeRules(DataOutput out, SudokuRules rules) throws IOException
+	{
+		int size = rules.getSize();
+		out.writeByte(rules.getBoxSize());
+		out.writeBoolean(rules.hasDiagonals());
+		out.writeBoolean(rules.hasRegularBoxes());
+		
+		if (!rules.hasRegularBoxes())
+		{
+			byte[] regionOfSlot = new byte[size * size];
+			for (int region = 0; region < rules.getRegionCount(); region++)
+			{
+				for (int slot : rules.getRegion(region))
+				{
+					regionOfSlot[slot] = (byte) region;
+				}
+			}
+			out.write(regionOfSlot);
+		}
+		
+		out.writeShort(rules.getCages().size());
+		for (Cage cage : rules.getCages())
+		{
+			out.writeShort(cage.getSum());
+			out.writeByte(cage.getSlots().length);
+			for (int slot : cage.getSlots())
+			{
+				out.writeShort(slot);
+			}
+		}
+	}
+	
+	/**
+	 * Reads the rules of a sudoku
+	 * @param in The stream the rules are read from
+	 * @return The rules that were read
+	 * @throws IOException If the reading failed
+	 * @throws IllegalArgumentException If the rules are not valid
+	 */
+	static SudokuRules readRules(DataInput in) throws IOException, IllegalArgumentException
+	{
+		int boxSize = in.readUnsignedByte();
+		if (!SudokuReader.isSupportedSize(boxSize * boxSize))
+			throw new IllegalArgumentException("Unsupported box size " + boxSize);
+		
+		SudokuRules rules = new SudokuRules(boxSize);
+		int size = rules.getSize();
+		if (in.readBoolean())
+			rules.addDiagonals();
+		
+		if (!in.readBoolean())
+		{
+			byte[] regionOfSlot = new byte[size * size];
+			in.readFully(regionOfSlot);
+			
+			int[][] regionIds = new int[size][size];
+			for (int slot = 0; slot < regionOfSlot.length; slot++)
+			{
+				regionIds[slot % size][slot / size] = regionOfSlot[slot];
+			}
+			rules.setRegions(regionIds);
+		}
+		
+		int cages = in.readUnsignedShort();
+		for (int i = 0; i < cages; i++)
+		{
+			int sum = in.readUnsignedShort();
+			int[] slots = new int[in.readUnsignedByte()];
+			for (int j = 0; j < slots.length; j++)
+			{
+				slots[j] = in.readUnsignedShort();
+			}
+			rules.addCage(sum, slots);
+		}
+		
+		return rules;
+	}
+	
+	/**
+	 * Writes the state of each slot in a grid
+	 * @param out The stream the grid is written to
+	 * @param grid The grid that is written
+	 * @param previous The grid that was written before this one. Only the differences are 
+	 * written. Null if the whole grid should be written.
+	 * @throws IOException If the writing failed
+	 */
+	static void writeGrid(DataOutput out, SudokuGrid grid, SudokuGrid previous) throws
+			IOException
+	{
+		int size = grid.getSize();
+		int candidateBytes = getCandidateBytes(size);
+		
+		if (previous == null)
+		{
+			for (int index = 0; index < size * size; index++)
+			{
+				writeSlot(out, grid.getSlot(index % size, index / size), candidateBytes);
+			}
+			return;
+		}
+		
+		int changes = 0;
+		for (int index = 0; index < size * size; index++)
+		{
+			if (!hasSameState(grid.getSlot(index % size, index / size), 
+					previous.getSlot(index % size, index / size)))
+				changes ++;
+		}
+		
+		out.writeShort(changes);
+		for (int index = 0; index < size * size; index++)
+		{
+			Slot slot = grid.getSlot(index % size, index / size);
+			if (!hasSameState(slot, previous.getSlot(index % size, index / size)))
+			{
+				out.writeShort(index);
+				writeSlot(out, slot, candidateBytes);
+			}
+		}
+	}
+	
+	/**
+	 * Reads the state of the slots in a grid
+	 * @param in The stream the grid is read from
+	 * @param grid The grid the states are read into. If the grid was written as differences, 
+	 * this should be a copy of the previous grid.
+	 * @param differences Was the grid written as the differences to the previous grid
+	 * @throws IOException If the reading failed
+	 */
+	static void readGrid(DataInput in, SudokuGrid grid, boolean differences) throws
+			IOException
+	{
+		int size = grid.getSize();
+		int candidateBytes = getCandidateBytes(size);
+		
+		if (!differences)
+		{
+			for (int index = 0; index < size * size; index++)
+			{
+				readSlot(in, grid.getSlot(index % size, index / size), candidateBytes);
+			}
+			return;
+		}
+		
+		int changes = in.readUnsignedShort();
+		for (int i = 0; i < changes; i++)
+		{
+			int index = in.readUnsignedShort();
+			if (index >= size * size)
+				throw new IOException("Slot index out of bounds");
+			readSlot(in, grid.getSlot(index % size, index / size), candidateBytes);
+		}
+	}
+	
+	private static void writeSlot(DataOutput out, Slot slot, int candidateBytes) throws
+			IOException
+	{
+		int flags = 0;
+		if (slot.updateRequired())
+			flags |= UPDATE_REQUIRED;
+		if (slot.isLocked())
+			flags |= LOCKED;
+		if (slot.isGuess())
+			flags |= GUESS;
+		
+		out.writeByte(slot.getNumber());
+		out.writeByte(flags);
+		// The possible numbers only matter in empty slots
+		if (!slot.hasNumber())
+		{
+			int candidates = slot.getPossibleNumbers() >>> 1;
+			for (int i = 0; i < candidateBytes; i++)
+			{
+				out.writeByte(candidates >>> (8 * i));
+			}
+		}
+	}
+	
+	private static void readSlot(DataInput in, Slot slot, int candidateBytes) throws
+			IOException
+	{
+		int number = in.readUnsignedByte();
+		int flags = in.readUnsignedByte();
+		int size = slot.getGrid().getGrid().getSize();
+		if (number > size)
+			throw new IOException("Invalid number " + number);
+		
+		int candidates = NumberSet.EMPTY;
+		if (number == 0)
+		{
+			for (int i = 0; i < candidateBytes; i++)
+			{
+				candidates |= in.readUnsignedByte() << (8 * i);
+			}
+			candidates <<= 1;
+			if ((candidates & ~NumberSet.range(size)) != 0)
+				throw new IOException("Invalid possible numbers");
+		}
+		
+		slot.restore(number, candidates, (flags & UPDATE_REQUIRED) != 0, 
+				(flags & LOCKED) != 0, (flags & GUESS) != 0);
+	}
+	
+	private static boolean hasSameState(Slot first, Slot second)
+	{
+		return first.getNumber() == second.getNumber() && 
+				first.getPossibleNumbers() == second.getPossibleNumbers() && 
+				first.updateRequired() == second.updateRequired() && 
+				first.isLocked() == second.isLocked() && first.isGuess() == second.isGuess();
+	}
+	
+	private static int getCandidateBytes(int size)
+	{
+		// Number n is stored in bit n - 1
+		return (size + 7) / 8;
+	}
+}
@@ -0,0 +1,213 @@
+package sp_logic;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import sp_logic.SudokuSolver.Result;
+import sp_logic.SudokuSolver.Technique;
+
+/**
+ * StepPlayer replays a step log written by a {@link StepRecorder} into a grid. The solver 
+ * isn't run during the replay, the recorded changes are simply applied to the slots.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class StepPlayer
+{
+	// ATTRIBUTES	---------------------
+	
+	private byte[] log;
+	private SudokuGrid sudoku;
+	private DataInputStream in;
+	private List<String> messages;
+	private int steps;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	/**
+	 * Creates a new player and sets the starting state of the log to the grid
+	 * @param log A log written by a {@link StepRecorder}
+	 * @param sudoku The grid the steps are replayed into. The grid should have the box size 
+	 * given by {@link #getBoxSize(byte[])}.
+	 * @throws IllegalArgumentException If the log is invalid or doesn't fit the grid
+	 */
+	public StepPlayer(byte[] log, SudokuGrid sudoku) throws IllegalArgumentException
+	{
+		if (getBoxSize(log) != sudoku.getBoxSize())
+			throw new IllegalArgumentException("The log doesn't match the sudoku");
+		
+		this.log = log;
+		this.sudoku = sudoku;
+		restart();
+	}
+	
+	
+	// ACCESSORS	---------------------
+	
+	/**
+	 * @return How many steps have been replayed
+	 */
+	public int getStepCount()
+	{
+		return this.steps;
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * Finds the box size of the sudoku a log was recorded from
+	 * @param log A log written by a {@link StepRecorder}
+	 * @return The width and height of a single box in the recorded sudoku
+	 * @throws IllegalArgumentException If the data is not a step log
+	 */
+	public static int getBoxSize(byte[] log) throws IllegalArgumentException
+	{
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(log)))
+		{
+			if (in.readInt() != StepRecorder.MAGIC || 
+					in.readUnsignedByte() != StepRecorder.VERSION)
+				throw new IllegalArgumentException("Not a step log");
+			
+			int boxSize = in.readUnsignedByte();
+			if (!SudokuReader.isSupportedSize(boxSize * boxSize))
+				throw new IllegalArgumentException("Unsupported box size " + boxSize);
+			return boxSize;
+		}
+		catch (IOException e)
+		{
+			throw new IllegalArgumentException("Not a step log", e);
+		}
+	}
+	
+	/**
+	 * Returns the grid to the state where the recording started
+	 * @throws IllegalArgumentException If the log is invalid
+	 */
+	public void restart() throws IllegalArgumentException
+	{
+		this.in = new DataInputStream(new ByteArrayInputStream(this.log));
+		this.messages = new ArrayList<>();
+		this.steps = 0;
+		
+		// The starting state was recorded as changes to an empty grid
+		for (Slot slot : this.sudoku.getSlots())
+		{
+			slot.restore(0, NumberSet.EMPTY, false, slot.isLocked(), false);
+		}
+		
+		try
+		{
+			// Skips the header
+			this.in.skipBytes(6);
+			readChanges();
+		}
+		catch (IOException e)
+		{
+			throw new IllegalArgumentException("Invalid step log", e);
+		}
+	}
+	
+	/**
+	 * @return Are there steps left to replay
+	 */
+	public boolean hasNext()
+	{
+		try
+		{
+			return this.in.available() > 0;
+		}
+		catch (IOException e)
+		{
+			return false;
+		}
+	}
+	
+	/**
+	 * Replays the next step
+	 * @return The recorded result of the step. The target slot is in the replayed grid.
+	 * @throws NoSuchElementException If there are no more steps
+	 * @throws IllegalArgumentException If the log is invalid
+	 */
+	public Result next() throws NoSuchElementException, IllegalArgumentException
+	{
+		if (!hasNext())
+			throw new NoSuchElementException();
+		
+		try
+		{
+			boolean clear = (this.in.readUnsignedByte() & StepRecorder.CLEAR) != 0;
+			int techniqueId = this.in.readUnsignedByte();
+			Technique technique = null;
+			if (techniqueId > Technique.values().length)
+				throw new IOException("Invalid technique " + techniqueId);
+			else if (techniqueId > 0)
+				technique = Technique.values()[techniqueId - 1];
+			
+			// New messages follow their ids
+			int messageId = readVarInt();
+			if (messageId == this.messages.size())
+				this.messages.add(this.in.readUTF());
+			else if (messageId > this.messages.size())
+				throw new IOException("Invalid message id " + messageId);
+			
+			int target = readVarInt() - 1;
+			readChanges();
+			this.steps ++;
+			
+			return new Result(clear, this.messages.get(messageId), 
+					target < 0 ? null : getSlot(target), technique);
+		}
+		catch (IOException e)
+		{
+			throw new IllegalArgumentException("Invalid step log", e);
+		}
+	}
+	
+	private void readChanges() throws IOException
+	{
+		int changes = readVarInt();
+		int index = -1;
+		for (int i = 0; i < changes; i++)
+		{
+			index += readVarInt() + 1;
+			int number = this.in.readUnsignedByte();
+			int flags = this.in.readUnsignedByte();
+			int candidates = NumberSet.EMPTY;
+			if (number == 0)
+				candidates = readVarInt() << 1;
+			
+			getSlot(index).restore(number, candidates, 
+					(flags & StepRecorder.UPDATE_REQUIRED) != 0, 
+					(flags & StepRecorder.LOCKED) != 0, (flags & StepRecorder.GUESS) != 0);
+		}
+	}
+	
+	private Slot getSlot(int index) throws IOException
+	{
+		int size = this.sudoku.getSize();
+		if (index < 0 || index >= size * size)
+			throw new IOException("Slot index out of bounds");
+		
+		return this.sudoku.getSlot(index % size, index / size);
+	}
+	
+	private int readVarInt() throws IOException
+	{
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7)
+		{
+			int b = this.in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		
+		throw new IOException("Too long number");
+	}
+}
@@ -0,0 +1,203 @@
+package sp_logic;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import sp_logic.SudokuSolver.Result;
+import sp_logic.SudokuSolver.Technique;
+
+/**
+ * StepRecorder writes the steps of a solver into a compact log that can be replayed with 
+ * a {@link StepPlayer} without solving the puzzle again. Each step is stored as the slots 
+ * that changed during it, so eliminations, guesses and retraces are all recorded. Indices 
+ * and candidates are written as variable length integers and each message is written only 
+ * once.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ * @see SudokuSolver#startRecording()
+ */
+public class StepRecorder
+{
+	// ATTRIBUTES	---------------------
+	
+	/**
+	 * The extension used for step log files
+	 */
+	public static final String FILE_EXTENSION = ".steps";
+	
+	static final int MAGIC = 0x53505354;
+	static final int VERSION = 1;
+	
+	static final int CLEAR = 1;
+	
+	static final int UPDATE_REQUIRED = 1;
+	static final int LOCKED = 2;
+	static final int GUESS = 4;
+	
+	private ByteArrayOutputStream bytes;
+	private DataOutputStream out;
+	private Map<String, Integer> messageIds;
+	private int[] numbers, candidates, flags; // The recorded state of each slot
+	private int steps;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	/**
+	 * Creates a new recorder. The starting state of the log is taken from the given grid.
+	 * @param sudoku The grid that is being solved
+	 */
+	public StepRecorder(SudokuGrid sudoku)
+	{
+		int slots = sudoku.getSize() * sudoku.getSize();
+		this.bytes = new ByteArrayOutputStream();
+		this.out = new DataOutputStream(this.bytes);
+		this.messageIds = new HashMap<>();
+		this.numbers = new int[slots];
+		this.candidates = new int[slots];
+		this.flags = new int[slots];
+		this.steps = 0;
+		
+		try
+		{
+			this.out.writeInt(MAGIC);
+			this.out.writeByte(VERSION);
+			this.out.writeByte(sudoku.getBoxSize());
+			// The starting state is written as changes to an empty grid
+			writeChanges(sudoku);
+		}
+		catch (IOException e)
+		{
+			// Writing into memory doesn't fail
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	
+	// ACCESSORS	---------------------
+	
+	/**
+	 * @return How many steps have been recorded
+	 */
+	public int getStepCount()
+	{
+		return this.steps;
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * Records a single solving step
+	 * @param result The result of the step
+	 * @param sudoku The grid the solver is working on after the step
+	 */
+	public void record(Result result, SudokuGrid sudoku)
+	{
+		try
+		{
+			Technique technique = result.getTechnique();
+			this.out.writeByte(result.isClear() ? CLEAR : 0);
+			this.out.writeByte(technique == null ? 0 : technique.ordinal() + 1);
+			
+			// New messages are written in full, the others only as ids
+			Integer messageId = this.messageIds.get(result.getMessage());
+			if (messageId == null)
+			{
+				writeVarInt(this.messageIds.size());
+				this.out.writeUTF(result.getMessage());
+				this.messageIds.put(result.getMessage(), this.messageIds.size());
+			}
+			else
+				writeVarInt(messageId);
+			
+			Slot target = result.getTarget();
+			writeVarInt(target == null ? 0 : target.getIndex() + 1);
+			writeChanges(sudoku);
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		
+		this.steps ++;
+	}
+	
+	/**
+	 * @return The steps recorded so far
+	 */
+	public byte[] toByteArray()
+	{
+		return this.bytes.toByteArray();
+	}
+	
+	private void writeChanges(SudokuGrid sudoku) throws IOException
+	{
+		int size = sudoku.getSize();
+		int changes = 0;
+		for (int index = 0; index < this.numbers.length; index++)
+		{
+			if (hasChanged(index, sudoku.getSlot(index % size, index / size)))
+				changes ++;
+		}
+		writeVarInt(changes);
+		
+		// The slot indices are written as the distances from the previous changed slot
+		int lastIndex = -1;
+		for (int index = 0; index < this.numbers.length; index++)
+		{
+			Slot slot = sudoku.getSlot(index % size, index / size);
+			if (!hasChanged(index, slot))
+				continue;
+			
+			writeVarInt(index - lastIndex - 1);
+			lastIndex = index;
+			
+			this.numbers[index] = slot.getNumber();
+			this.candidates[index] = slot.hasNumber() ? NumberSet.EMPTY : 
+					slot.getPossibleNumbers();
+			this.flags[index] = getFlags(slot);
+			
+			this.out.writeByte(this.numbers[index]);
+			this.out.writeByte(this.flags[index]);
+			if (!slot.hasNumber())
+				writeVarInt(this.candidates[index] >>> 1);
+		}
+	}
+	
+	private boolean hasChanged(int index, Slot slot)
+	{
+		if (slot.getNumber() != this.numbers[index] || getFlags(slot) != this.flags[index])
+			return true;
+		
+		return !slot.hasNumber() && slot.getPossibleNumbers() != this.candidates[index];
+	}
+	
+	private void writeVarInt(int value) throws IOException
+	{
+		// 7 bits are written at a time, the highest bit tells whether more bytes follow
+		int rest = value;
+		while ((rest & ~0x7F) != 0)
+		{
+			this.out.writeByte((rest & 0x7F) | 0x80);
+			rest >>>= 7;
+		}
+		this.out.writeByte(rest);
+	}
+	
+	private static int getFlags(Slot slot)
+	{
+		int flags = 0;
+		if (slot.updateRequired())
+			flags |= UPDATE_REQUIRED;
+		if (slot.isLocked())
+			flags |= LOCKED;
+		if (slot.isGuess())
+			flags |= GUESS;
+		
+		return flags;
+	}
+}
@@ -0,0 +1,24 @@
+package sp_logic;
+
+/**
+ * SudokuEngines are able to solve a sudoku puzzle. Different engines use different methods 
+ * but each copies its answer into the grid it was given.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public interface SudokuEngine
+{
+	/**
+	 * Solves the puzzle all at once without printing anything. The answer is copied to the 
+	 * grid the engine was created for. If the thread is interrupted, the solving stops early 
+	 * and the interrupted status is left set.
+	 * @throws UnsolvablePuzzleException If the puzzle can't be solved
+	 */
+	public void solve() throws UnsolvablePuzzleException;
+	
+	/**
+	 * @return How many operations the engine has taken so far. What counts as an operation 
+	 * depends on the engine.
+	 */
+	public int getOperations();
+}
@@ -1,14 +1,17 @@
 package sp_logic;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import genesis_event.HandlerRelay;
 import genesis_util.Vector3D;
 
 /**
- * SudokuGrid contains nine 3x3 slot grids
+ * SudokuGrid contains n x n slot grids that each hold n x n slots. In a regular sudoku n is 
+ * 3 but 16 x 16 (n = 4) and 25 x 25 (n = 5) sudokus are supported as well.
  * @author Mikko Hilpinen
  * @since 8.8.2015
  */
@@ -17,21 +20,47 @@ public class SudokuGrid
 	// ATTRIBUTES	---------------------
 	
 	private NineSlotGrid[][] grids;
+	private int boxSize;
+	private SudokuRules rules;
+	private UnitPositions unitPositions;
+	
+	// The unit views are created when they're first needed and reused after that
+	private List<Slot> slotView;
+	private List<NineSlotGrid> gridView;
+	private List<List<NineSlotGrid>> gridRowViews, gridColumnViews;
+	private List<List<Slot>> rowViews, columnViews, regionViews, peerViews;
+	// The rule arrays the region and peer views were created from
+	private int[][] regionSources, peerSources;
 	
 	
 	// CONSTRUCTOR	---------------------
 	
 	/**
-	 * Creates a new sudoku grid
+	 * Creates a new regular 9 x 9 sudoku grid
 	 * @param handlers The handlers that will handle the slots
 	 * @param position The grid's position
 	 * @param dimensions The grid's size
 	 */
 	public SudokuGrid(HandlerRelay handlers, Vector3D position, Vector3D dimensions)
 	{
-		this.grids = new NineSlotGrid[3][3];
+		this(handlers, position, dimensions, 3);
+	}
+	
+	/**
+	 * Creates a new sudoku grid
+	 * @param handlers The handlers that will handle the slots
+	 * @param position The grid's position
+	 * @param dimensions The grid's size
+	 * @param boxSize The width and height of a single box (3 in a regular sudoku)
+	 */
+	public SudokuGrid(HandlerRelay handlers, Vector3D position, Vector3D dimensions, 
+			int boxSize)
+	{
+		this.boxSize = boxSize;
+		this.rules = new SudokuRules(boxSize);
+		this.grids = new NineSlotGrid[boxSize][boxSize];
 		Vector3D margins = dimensions.dividedBy(20);
-		Vector3D gridDimensions = dimensions.minus(margins.times(3)).dividedBy(3);
+		Vector3D gridDimensions = dimensions.minus(margins.times(boxSize)).dividedBy(boxSize);
 		
 		for (int x = 0; x < this.grids.length; x++)
 		{
@@ -40,9 +69,30 @@ public class SudokuGrid
 				Vector3D gridPosition = position.plus(gridDimensions.plus(margins).times(
 						new Vector3D(x, y)));
 				this.grids[x][y] = new NineSlotGrid(handlers, gridPosition, gridDimensions, 
-						this);
+						this, x, y);
 			}
 		}
+		
+		this.unitPositions = new UnitPositions(this);
+	}
+	
+	/**
+	 * Creates a new sudoku grid that isn't drawn or handled in any way. Used when solving 
+	 * without the user interface.
+	 */
+	public SudokuGrid()
+	{
+		this(3);
+	}
+	
+	/**
+	 * Creates a new sudoku grid that isn't drawn or handled in any way. Used when solving 
+	 * without the user interface.
+	 * @param boxSize The width and height of a single box (3 in a regular sudoku)
+	 */
+	public SudokuGrid(int boxSize)
+	{
+		this(null, Vector3D.zeroVector(), Vector3D.zeroVector(), boxSize);
 	}
 	
 	/**
@@ -51,15 +101,30 @@ public class SudokuGrid
 	 */
 	public SudokuGrid(SudokuGrid other)
 	{
-		this.grids = new NineSlotGrid[3][3];
+		this(other, false);
+	}
+	
+	/**
+	 * Creates a copy of a sudoku grid
+	 * @param other The grid this one is copied from
+	 * @param detached Should the copy be left out of the handlers. The slots of a detached 
+	 * grid are never drawn nor informed about events, which makes copying cheaper.
+	 */
+	public SudokuGrid(SudokuGrid other, boolean detached)
+	{
+		this.boxSize = other.boxSize;
+		this.rules = other.rules;
+		this.grids = new NineSlotGrid[this.boxSize][this.boxSize];
 		
 		for (int x = 0; x < this.grids.length; x++)
 		{
 			for (int y = 0; y < this.grids[x].length; y++)
 			{
-				this.grids[x][y] = new NineSlotGrid(other.getGrid(x, y), this);
+				this.grids[x][y] = new NineSlotGrid(other.getGrid(x, y), this, detached);
 			}
 		}
+		
+		this.unitPositions = new UnitPositions(other.unitPositions);
 	}
 	
 	
@@ -78,9 +143,9 @@ public class SudokuGrid
 				NineSlotGrid grid = getGrid(gridX, gridY);
 				NineSlotGrid sourceGrid = other.getGrid(gridX, gridY);
 				
-				for (int x = 0; x < 3; x ++)
+				for (int x = 0; x < this.boxSize; x ++)
 				{
-					for (int y = 0; y < 3; y ++)
+					for (int y = 0; y < this.boxSize; y ++)
 					{
 						Slot slot = grid.getSlot(x, y);
 						Slot sourceSlot = sourceGrid.getSlot(x, y);
@@ -93,6 +158,58 @@ public class SudokuGrid
 		}
 	}
 	
+	/**
+	 * Copies all numbers from the given table
+	 * @param numbers The numbers that are copied [x][y] (<= 0 means empty)
+	 */
+	public void copyNumbersFrom(int[][] numbers)
+	{
+		for (int x = 0; x < numbers.length; x++)
+		{
+			for (int y = 0; y < numbers[x].length; y++)
+			{
+				Slot slot = getSlot(x, y);
+				if (slot.getNumber() != numbers[x][y])
+					slot.setNumber(numbers[x][y]);
+			}
+		}
+	}
+	
+	/**
+	 * @return The numbers currently in the grid [x][y] (0 means empty)
+	 */
+	public int[][] getNumbers()
+	{
+		int[][] numbers = new int[getSize()][getSize()];
+		for (int x = 0; x < numbers.length; x++)
+		{
+			for (int y = 0; y < numbers[x].length; y++)
+			{
+				numbers[x][y] = getSlot(x, y).getNumber();
+			}
+		}
+		
+		return numbers;
+	}
+	
+	/**
+	 * Sets the given numbers to the grid and locks them in place
+	 * @param numbers The numbers of the puzzle [x][y] (<= 0 means empty)
+	 */
+	public void loadNumbers(int[][] numbers)
+	{
+		for (int x = 0; x < numbers.length; x++)
+		{
+			for (int y = 0; y < numbers[x].length; y++)
+			{
+				if (numbers[x][y] > 0)
+					getSlot(x, y).setNumber(numbers[x][y]);
+			}
+		}
+		
+		lockCurrentNumbers();
+	}
+	
 	/**
 	 * Activates or disables each slot in the grid
 	 * @param newState Should the slots be active or not
@@ -116,10 +233,51 @@ public class SudokuGrid
 		}
 	}
 	
+	/**
+	 * @return The rules that define which slots can't share a number
+	 */
+	public SudokuRules getRules()
+	{
+		return this.rules;
+	}
+	
+	/**
+	 * Changes the rules of the sudoku. The possible numbers of each slot are updated 
+	 * afterwards.
+	 * @param rules The new rules of the sudoku
+	 * @throws IllegalArgumentException If the rules are for a sudoku of different size
+	 */
+	public void setRules(SudokuRules rules) throws IllegalArgumentException
+	{
+		if (rules.getBoxSize() != this.boxSize)
+			throw new IllegalArgumentException("The rules don't match the sudoku");
+		
+		this.rules = rules;
+		this.unitPositions = new UnitPositions(this);
+		NineSlotGrid.setUpdateRequisition(getSlots());
+	}
+	
+	/**
+	 * @return The width and height of a single box (3 in a regular sudoku)
+	 */
+	public int getBoxSize()
+	{
+		return this.boxSize;
+	}
+	
+	/**
+	 * @return The width and height of the whole sudoku. This is also the largest number 
+	 * that can be placed in the sudoku.
+	 */
+	public int getSize()
+	{
+		return this.boxSize * this.boxSize;
+	}
+	
 	/**
 	 * Finds the grid at the given position
-	 * @param x The grid's x index [0, 3]
-	 * @param y The grid's y index [0, 3]
+	 * @param x The grid's x index [0, box size - 1]
+	 * @param y The grid's y index [0, box size - 1]
 	 * @return The grid at the given index
 	 */
 	public NineSlotGrid getGrid(int x, int y)
@@ -128,28 +286,38 @@ public class SudokuGrid
 	}
 	
 	/**
-	 * @param x The slot's x index [0, 9]
-	 * @param y The slot's y index [0, 9]
+	 * @param x The slot's x index [0, size - 1]
+	 * @param y The slot's y index [0, size - 1]
 	 * @return A slot at the given position
 	 */
 	public Slot getSlot(int x, int y)
 	{
-		return getGrid(x / 3, y / 3).getSlot(x % 3, y % 3);
+		return getGrid(x / this.boxSize, y / this.boxSize).getSlot(x % this.boxSize, 
+				y % this.boxSize);
 	}
 	
 	/**
-	 * @param y The y index of the row [0, 3]
-	 * @return A row of grids
+	 * @param y The y index of the row [0, box size - 1]
+	 * @return A row of grids. The returned list can't be modified.
 	 */
 	public List<NineSlotGrid> getGridRow(int y)
 	{
-		List<NineSlotGrid> grids = new ArrayList<>();
-		for (int x = 0; x < this.grids.length; x++)
+		if (this.gridRowViews == null)
 		{
-			grids.add(getGrid(x, y));
+			List<List<NineSlotGrid>> views = new ArrayList<>(this.boxSize);
+			for (int row = 0; row < this.boxSize; row++)
+			{
+				NineSlotGrid[] grids = new NineSlotGrid[this.boxSize];
+				for (int x = 0; x < this.boxSize; x++)
+				{
+					grids[x] = getGrid(x, row);
+				}
+				views.add(createView(grids));
+			}
+			this.gridRowViews = views;
 		}
 		
-		return grids;
+		return this.gridRowViews.get(y);
 	}
 	
 	/**
@@ -159,17 +327,10 @@ public class SudokuGrid
 	 */
 	public Vector3D getGridPosition(NineSlotGrid grid)
 	{
-		for (int x = 0; x < this.grids.length; x++)
-		{
-			for (int y = 0; y < this.grids[x].length; y++)
-			{
-				NineSlotGrid target = getGrid(x, y);
-				if (target.equals(grid))
-					return new Vector3D(x, y);
-			}
-		}
+		if (!equals(grid.getGrid()))
+			return null;
 		
-		return null;
+		return new Vector3D(grid.getGridX(), grid.getGridY());
 	}
 	
 	/**
@@ -179,93 +340,223 @@ public class SudokuGrid
 	 */
 	public Vector3D getSlotPosition(Slot slot)
 	{
-		Vector3D gridPosition = getGridPosition(slot.getGrid());
-		return gridPosition.times(3).plus(slot.getGrid().getSlotPosition(slot));
+		return new Vector3D(slot.getColumn(), slot.getRow());
 	}
 	
 	/**
-	 * @param x The x index of the column [0, 3]
-	 * @return A column of grids
+	 * @param x The x index of the column [0, box size - 1]
+	 * @return A column of grids. The returned list can't be modified.
 	 */
 	public List<NineSlotGrid> getGridColumn(int x)
 	{
-		List<NineSlotGrid> grids = new ArrayList<>();
-		for (int y = 0; y < this.grids[x].length; y++)
+		if (this.gridColumnViews == null)
 		{
-			grids.add(getGrid(x, y));
+			List<List<NineSlotGrid>> views = new ArrayList<>(this.boxSize);
+			for (int column = 0; column < this.boxSize; column++)
+			{
+				views.add(createView(this.grids[column]));
+			}
+			this.gridColumnViews = views;
 		}
 		
-		return grids;
+		return this.gridColumnViews.get(x);
 	}
 	
 	/**
-	 * @param y The index of the row [0, 9]
-	 * @return The row at the given index
+	 * @param y The index of the row [0, size - 1]
+	 * @return The row at the given index. The returned list can't be modified.
 	 */
 	public List<Slot> getRow(int y)
 	{
-		int gridIndex = y / 3;
-		int rowIndex = y % 3;
-		
-		List<Slot> row = new ArrayList<>();
-		for (NineSlotGrid grid : getGridRow(gridIndex))
+		if (this.rowViews == null)
 		{
-			row.addAll(grid.getRowSlots(rowIndex));
+			int size = getSize();
+			List<List<Slot>> views = new ArrayList<>(size);
+			for (int row = 0; row < size; row++)
+			{
+				Slot[] slots = new Slot[size];
+				for (int x = 0; x < size; x++)
+				{
+					slots[x] = getSlot(x, row);
+				}
+				views.add(createView(slots));
+			}
+			this.rowViews = views;
 		}
 		
-		return row;
+		return this.rowViews.get(y);
 	}
 	
 	/**
-	 * @param x The index of the column [0, 9]
-	 * @return The column at the given index
+	 * @param x The index of the column [0, size - 1]
+	 * @return The column at the given index. The returned list can't be modified.
 	 */
 	public List<Slot> getColumn(int x)
 	{
-		int gridIndex = x / 3;
-		int columnIndex = x % 3;
+		if (this.columnViews == null)
+		{
+			int size = getSize();
+			List<List<Slot>> views = new ArrayList<>(size);
+			for (int column = 0; column < size; column++)
+			{
+				Slot[] slots = new Slot[size];
+				for (int y = 0; y < size; y++)
+				{
+					slots[y] = getSlot(column, y);
+				}
+				views.add(createView(slots));
+			}
+			this.columnViews = views;
+		}
+		
+		return this.columnViews.get(x);
+	}
+	
+	/**
+	 * @param index The index of the region [0, size - 1]
+	 * @return The slots in the region. In a regular sudoku the regions are the boxes. The 
+	 * returned list can't be modified.
+	 */
+	public List<Slot> getRegion(int index)
+	{
+		if (this.regionViews == null)
+		{
+			this.regionViews = new ArrayList<>(Collections.nCopies(
+					this.rules.getRegionCount(), (List<Slot>) null));
+			this.regionSources = new int[this.rules.getRegionCount()][];
+		}
+		
+		// The view is created again if the rules have changed since
+		int[] region = this.rules.getRegion(index);
+		if (this.regionSources[index] != region)
+		{
+			this.regionViews.set(index, getSlots(region));
+			this.regionSources[index] = region;
+		}
+		
+		return this.regionViews.get(index);
+	}
+	
+	/**
+	 * Finds the slots that can't share a number with the given slot
+	 * @param slot A slot in this grid
+	 * @return The slots that share a unit with the slot. The returned list can't be modified.
+	 */
+	public List<Slot> getConnectedSlots(Slot slot)
+	{
+		int index = slot.getIndex();
+		if (this.peerViews == null)
+		{
+			int slots = getSize() * getSize();
+			this.peerViews = new ArrayList<>(Collections.nCopies(slots, (List<Slot>) null));
+			this.peerSources = new int[slots][];
+		}
 		
-		List<Slot> column = new ArrayList<>();
-		for (NineSlotGrid grid : getGridColumn(gridIndex))
+		int[] peers = this.rules.getPeers(index);
+		if (this.peerSources[index] != peers)
 		{
-			column.addAll(grid.getColumnSlots(columnIndex));
+			this.peerViews.set(index, getSlots(peers));
+			this.peerSources[index] = peers;
 		}
 		
-		return column;
+		return this.peerViews.get(index);
 	}
 	
 	/**
-	 * @return All of the nineSlotGrids in this grid
+	 * @return All of the nineSlotGrids in this grid. The returned list can't be modified.
 	 */
 	public List<NineSlotGrid> getGrids()
 	{
-		List<NineSlotGrid> grids = new ArrayList<>();
-		for (int x = 0; x < this.grids.length; x++)
+		if (this.gridView == null)
 		{
-			for (int y = 0; y < this.grids[x].length; y++)
+			NineSlotGrid[] grids = new NineSlotGrid[this.boxSize * this.boxSize];
+			for (int x = 0; x < this.grids.length; x++)
 			{
-				grids.add(getGrid(x, y));
+				for (int y = 0; y < this.grids[x].length; y++)
+				{
+					grids[x * this.boxSize + y] = getGrid(x, y);
+				}
 			}
+			this.gridView = createView(grids);
 		}
 		
-		return grids;
+		return this.gridView;
 	}
 	
 	/**
-	 * @return All the slots in the grid
+	 * @return All the slots in the grid. The returned list can't be modified.
 	 */
 	public List<Slot> getSlots()
 	{
-		List<Slot> slots = new ArrayList<>();
-		for (int x = 0; x < this.grids.length; x++)
+		if (this.slotView == null)
 		{
-			for (int y = 0; y < this.grids[x].length; y++)
+			List<Slot> slots = new ArrayList<>(getSize() * getSize());
+			for (NineSlotGrid grid : getGrids())
 			{
-				slots.addAll(getGrid(x, y).getSlots());
+				slots.addAll(grid.getSlots());
 			}
+			this.slotView = Collections.unmodifiableList(slots);
 		}
 		
-		return slots;
+		return this.slotView;
+	}
+	
+	/**
+	 * @return The places where each number still fits in each unit. The places are found 
+	 * again if the rules have changed since.
+	 */
+	UnitPositions getUnitPositions()
+	{
+		if (!this.unitPositions.isCurrent(this.rules))
+			this.unitPositions = new UnitPositions(this);
+		return this.unitPositions;
+	}
+	
+	/**
+	 * Informs the grid that the number or the possible numbers of a slot changed
+	 * @param slot The slot that changed
+	 * @param oldNumber The number the slot used to hold
+	 * @param oldPossible The numbers that used to be possible for the slot
+	 */
+	void onSlotChanged(Slot slot, int oldNumber, int oldPossible)
+	{
+		// The slots change while the grid is being created
+		if (this.unitPositions == null)
+			return;
+		
+		// If the places are found again, the change is already included
+		if (this.unitPositions.isCurrent(this.rules))
+			this.unitPositions.update(slot.getIndex(), oldNumber, oldPossible, 
+					slot.getNumber(), slot.getPossibleNumbers());
+		else
+			this.unitPositions = new UnitPositions(this);
+	}
+	
+	/**
+	 * @param index The index of a unit in the rules
+	 * @return The slots in the unit
+	 * @see SudokuRules#getUnit(int)
+	 */
+	public List<Slot> getUnit(int index)
+	{
+		return getSlots(this.rules.getUnit(index));
+	}
+	
+	private List<Slot> getSlots(int[] indices)
+	{
+		int size = getSize();
+		Slot[] slots = new Slot[indices.length];
+		for (int i = 0; i < indices.length; i++)
+		{
+			slots[i] = getSlot(indices[i] % size, indices[i] / size);
+		}
+		
+		return createView(slots);
+	}
+	
+	private static <T> List<T> createView(T[] items)
+	{
+		return Collections.unmodifiableList(Arrays.asList(items));
 	}
 	
 	/**
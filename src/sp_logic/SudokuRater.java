@@ -0,0 +1,214 @@
+package sp_logic;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import sp_logic.SudokuSolver.Result;
+import sp_logic.SudokuSolver.Technique;
+
+/**
+ * SudokuRater finds out how difficult sudoku puzzles are. The puzzles are solved using the 
+ * cheapest techniques first and the used techniques are weighted to form the difficulty.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class SudokuRater
+{
+	// CONSTRUCTOR	---------------------
+	
+	private SudokuRater()
+	{
+		// The interface is static
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * Rates a sudoku puzzle. The puzzle is solved in the process.
+	 * @param name The name of the puzzle
+	 * @param sudoku The puzzle that is rated
+	 * @return The puzzle's rating
+	 * @throws UnsolvablePuzzleException If the puzzle can't be solved
+	 */
+	public static Rating rate(String name, SudokuGrid sudoku) throws UnsolvablePuzzleException
+	{
+		SudokuSolver solver = new SudokuSolver(sudoku, true);
+		Rating rating = new Rating(name);
+		
+		Result r = solver.solveStep();
+		while (r.isClear())
+		{
+			rating.record(r.getTechnique());
+			r = solver.solveStep();
+		}
+		
+		return rating;
+	}
+	
+	/**
+	 * Rates a puzzle read from a file
+	 * @param fileName The name of the file the puzzle is read from
+	 * @return The puzzle's rating
+	 * @throws FileNotFoundException If the file couldn't be found
+	 * @throws UnsolvablePuzzleException If the puzzle can't be solved
+	 * @throws IllegalArgumentException If the file doesn't contain a valid puzzle
+	 */
+	public static Rating rateFile(String fileName) throws FileNotFoundException, 
+			UnsolvablePuzzleException, IllegalArgumentException
+	{
+		int[][] numbers = SudokuReader.readFile(fileName);
+		SudokuGrid sudoku = new SudokuGrid(SudokuReader.getBoxSize(numbers.length));
+		sudoku.setRules(SudokuReader.readRules(fileName));
+		sudoku.loadNumbers(numbers);
+		return rate(fileName, sudoku);
+	}
+	
+	/**
+	 * Rates multiple puzzles. Puzzles that can't be read or solved are reported and left 
+	 * out of the results.
+	 * @param fileNames The names of the files the puzzles are read from
+	 * @return The ratings of the puzzles from the easiest to the hardest
+	 */
+	public static List<Rating> rateAll(List<String> fileNames)
+	{
+		List<Rating> ratings = new ArrayList<>();
+		for (String fileName : fileNames)
+		{
+			try
+			{
+				ratings.add(rateFile(fileName));
+			}
+			catch (FileNotFoundException e)
+			{
+				System.err.println("Couldn't find " + fileName);
+			}
+			catch (UnsolvablePuzzleException e)
+			{
+				System.err.println("Can't solve " + fileName);
+			}
+			catch (IllegalArgumentException e)
+			{
+				System.err.println(fileName + " isn't a valid sudoku");
+			}
+		}
+		
+		Collections.sort(ratings);
+		return ratings;
+	}
+	
+	
+	// SUBCLASSES	---------------------
+	
+	/**
+	 * Rating describes the difficulty of a single puzzle
+	 * @author Mikko Hilpinen
+	 * @since 18.10.2026
+	 */
+	public static class Rating implements Comparable<Rating>
+	{
+		// ATTRIBUTES	-----------------
+		
+		private String name;
+		private Map<Technique, Integer> histogram;
+		private int score;
+		private Technique hardest;
+		
+		
+		// CONSTRUCTOR	-----------------
+		
+		private Rating(String name)
+		{
+			this.name = name;
+			this.histogram = new EnumMap<>(Technique.class);
+			this.score = 0;
+			this.hardest = null;
+		}
+		
+		
+		// IMPLEMENTED METHODS	---------
+		
+		@Override
+		public int compareTo(Rating other)
+		{
+			return Integer.compare(getScore(), other.getScore());
+		}
+		
+		@Override
+		public String toString()
+		{
+			StringBuilder s = new StringBuilder();
+			s.append(this.name);
+			s.append(": ");
+			s.append(this.score);
+			for (Technique technique : this.histogram.keySet())
+			{
+				s.append(", ");
+				s.append(technique);
+				s.append(" x ");
+				s.append(this.histogram.get(technique));
+			}
+			
+			return s.toString();
+		}
+		
+		
+		// ACCESSORS	-----------------
+		
+		/**
+		 * @return The name of the rated puzzle
+		 */
+		public String getName()
+		{
+			return this.name;
+		}
+		
+		/**
+		 * @return The difficulty of the puzzle. The sum of the weights of all the steps 
+		 * taken.
+		 */
+		public int getScore()
+		{
+			return this.score;
+		}
+		
+		/**
+		 * @return The most difficult technique that was required (null if no steps were 
+		 * required)
+		 */
+		public Technique getHardestTechnique()
+		{
+			return this.hardest;
+		}
+		
+		/**
+		 * @param technique A solving technique
+		 * @return How many times the technique was used
+		 */
+		public int getUses(Technique technique)
+		{
+			Integer uses = this.histogram.get(technique);
+			if (uses == null)
+				return 0;
+			return uses;
+		}
+		
+		
+		// OTHER METHODS	-------------
+		
+		private void record(Technique technique)
+		{
+			if (technique == null)
+				return;
+			
+			this.histogram.put(technique, getUses(technique) + 1);
+			this.score += technique.getWeight();
+			if (this.hardest == null || technique.getWeight() > this.hardest.getWeight())
+				this.hardest = technique;
+		}
+	}
+}
@@ -0,0 +1,300 @@
+package sp_logic;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+
+import flow_io.ListFileReader;
+
+/**
+ * SudokuReader reads sudoku puzzles from text files. Each line holds a row of the puzzle 
+ * and lines starting with '*' are comments. 9 x 9, 16 x 16 and 25 x 25 puzzles (as well as 
+ * 4 x 4 ones) are supported. The size of the puzzle is found from the first row. The rows 
+ * can be written in two formats:<br>
+ * 1) One character per slot. Whitespaces are skipped, '0' and '.' mark empty slots and 
+ * numbers larger than 9 are written as letters (A = 10, B = 11, ... P = 25)<br>
+ * 2) Whitespace-separated decimal numbers, one per slot. '0' and '.' mark empty slots.<br>
+ * The rows may be followed by lines that describe variant rules:<br>
+ * "diagonal": The numbers on both diagonals must differ<br>
+ * "regions": The next rows hold one character per slot. Slots with the same character form 
+ * a region that replaces the boxes.<br>
+ * "cage &lt;sum&gt; &lt;x&gt;,&lt;y&gt; ...": The numbers in the listed slots must differ 
+ * and sum up to the given value. The slot indices start from 0.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class SudokuReader
+{
+	// CONSTRUCTOR	---------------------
+	
+	private SudokuReader()
+	{
+		// The interface is static
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * Reads a puzzle from a file
+	 * @param fileName The name of the file the puzzle is read from
+	 * @return The numbers in the puzzle [x][y] (0 means empty)
+	 * @throws FileNotFoundException If the file couldn't be found
+	 */
+	public static int[][] readFile(String fileName) throws FileNotFoundException
+	{
+		ListFileReader reader = new ListFileReader();
+		reader.readFile(fileName, "*");
+		
+		return parse(reader.getLines());
+	}
+	
+	/**
+	 * Reads the rules of a puzzle from a file
+	 * @param fileName The name of the file the puzzle is read from
+	 * @return The rules of the puzzle. Regular rules if the file doesn't describe any 
+	 * variants.
+	 * @throws FileNotFoundException If the file couldn't be found
+	 * @throws IllegalArgumentException If the file doesn't contain a valid puzzle
+	 */
+	public static SudokuRules readRules(String fileName) throws FileNotFoundException, 
+			IllegalArgumentException
+	{
+		ListFileReader reader = new ListFileReader();
+		reader.readFile(fileName, "*");
+		
+		List<String> lines = reader.getLines();
+		return parseRules(lines, parse(lines).length);
+	}
+	
+	/**
+	 * Parses a puzzle from a set of lines
+	 * @param lines The lines that form the puzzle, one row per line
+	 * @return The numbers in the puzzle [x][y] (0 means empty)
+	 * @throws IllegalArgumentException If the lines don't form a supported puzzle
+	 */
+	public static int[][] parse(List<String> lines) throws IllegalArgumentException
+	{
+		int[][] numbers = null;
+		boolean separatedNumbers = false;
+		
+		int y = 0;
+		for (String line : lines)
+		{
+			// Empty lines only separate the grids
+			String trimmed = line.trim();
+			if (trimmed.isEmpty() || trimmed.startsWith("*"))
+				continue;
+			
+			String[] parts = trimmed.split("\\s+");
+			
+			// The size and the format are decided from the first row
+			if (numbers == null)
+			{
+				int characters = trimmed.replaceAll("\\s", "").length();
+				if (isSupportedSize(parts.length) && parts.length != characters && 
+						areSeparatedNumbers(parts))
+				{
+					separatedNumbers = true;
+					numbers = new int[parts.length][parts.length];
+				}
+				else if (isSupportedSize(characters))
+					numbers = new int[characters][characters];
+				else
+					throw new IllegalArgumentException("Unsupported row: " + line);
+			}
+			
+			if (y >= numbers.length)
+				break;
+			
+			if (separatedNumbers)
+				parseSeparatedRow(parts, numbers, y);
+			else
+				parseCharacterRow(trimmed, numbers, y);
+			y ++;
+		}
+		
+		if (numbers == null || y < numbers.length)
+			throw new IllegalArgumentException("The puzzle doesn't have enough rows");
+		
+		return numbers;
+	}
+	
+	/**
+	 * Parses the rules of a puzzle from a set of lines. The rules are described after the 
+	 * rows of the puzzle.
+	 * @param lines The lines that form the puzzle
+	 * @param size The width of the puzzle
+	 * @return The rules of the puzzle
+	 * @throws IllegalArgumentException If the rules can't be parsed
+	 */
+	public static SudokuRules parseRules(List<String> lines, int size) throws 
+			IllegalArgumentException
+	{
+		SudokuRules rules = new SudokuRules(getBoxSize(size));
+		List<String> regionRows = null;
+		
+		int rows = 0;
+		for (String line : lines)
+		{
+			String trimmed = line.trim();
+			if (trimmed.isEmpty() || trimmed.startsWith("*"))
+				continue;
+			
+			// The rows of the puzzle are skipped
+			if (rows < size)
+			{
+				rows ++;
+				continue;
+			}
+			
+			if (regionRows != null && regionRows.size() < size)
+			{
+				regionRows.add(trimmed.replaceAll("\\s", ""));
+				if (regionRows.size() == size)
+					rules.setRegions(parseRegions(regionRows, size));
+				continue;
+			}
+			
+			String[] parts = trimmed.split("\\s+");
+			String directive = parts[0].toLowerCase();
+			if (directive.equals("diagonal"))
+				rules.addDiagonals();
+			else if (directive.equals("regions"))
+			{
+				if (regionRows != null)
+					throw new IllegalArgumentException("The regions are defined twice");
+				regionRows = new ArrayList<>();
+			}
+			else if (directive.equals("cage"))
+				parseCage(parts, rules);
+			else
+				throw new IllegalArgumentException("Unknown rule: " + line);
+		}
+		
+		if (regionRows != null && regionRows.size() < size)
+			throw new IllegalArgumentException("The regions don't have enough rows");
+		
+		return rules;
+	}
+	
+	/**
+	 * Checks whether a sudoku can be of the given size
+	 * @param size The width of the sudoku
+	 * @return Is the size a square of a box size between 2 and 5
+	 */
+	public static boolean isSupportedSize(int size)
+	{
+		int boxSize = getBoxSize(size);
+		return boxSize >= 2 && boxSize <= 5 && boxSize * boxSize == size;
+	}
+	
+	/**
+	 * @param size The width of a sudoku
+	 * @return The width of a single box in the sudoku
+	 */
+	public static int getBoxSize(int size)
+	{
+		return (int) Math.round(Math.sqrt(size));
+	}
+	
+	private static boolean areSeparatedNumbers(String[] parts)
+	{
+		// Each part must be a number that fits the sudoku. Parts with leading zeros 
+		// (like 0010) belong to the character format.
+		for (String part : parts)
+		{
+			if (part.equals(".") || part.equals("0"))
+				continue;
+			if (!part.matches("[1-9][0-9]*") || part.length() > 2 || 
+					Integer.parseInt(part) > parts.length)
+				return false;
+		}
+		
+		return true;
+	}
+	
+	private static void parseSeparatedRow(String[] parts, int[][] numbers, int y)
+	{
+		for (int x = 0; x < parts.length && x < numbers.length; x++)
+		{
+			// Empty slots are not recorded
+			if (!parts[x].equals("."))
+				numbers[x][y] = checkNumber(Integer.parseInt(parts[x]), numbers.length);
+		}
+	}
+	
+	private static void parseCharacterRow(String row, int[][] numbers, int y)
+	{
+		int x = 0;
+		for (int i = 0; i < row.length() && x < numbers.length; i++)
+		{
+			char c = row.charAt(i);
+			// Whitespaces are skipped
+			if (!Character.isWhitespace(c))
+			{
+				// Empty slots are not recorded
+				if (c != '.')
+					numbers[x][y] = checkNumber(Character.digit(c, Character.MAX_RADIX), 
+							numbers.length);
+				x ++;
+			}
+		}
+	}
+	
+	private static int[][] parseRegions(List<String> rows, int size) throws 
+			IllegalArgumentException
+	{
+		int[][] regionIds = new int[size][size];
+		for (int y = 0; y < size; y++)
+		{
+			String row = rows.get(y);
+			if (row.length() != size)
+				throw new IllegalArgumentException("Invalid region row: " + row);
+			
+			for (int x = 0; x < size; x++)
+			{
+				regionIds[x][y] = row.charAt(x);
+			}
+		}
+		
+		return regionIds;
+	}
+	
+	private static void parseCage(String[] parts, SudokuRules rules) throws 
+			IllegalArgumentException
+	{
+		if (parts.length < 3)
+			throw new IllegalArgumentException("A cage needs a sum and slots");
+		
+		try
+		{
+			int[] slots = new int[parts.length - 2];
+			for (int i = 0; i < slots.length; i++)
+			{
+				String[] position = parts[i + 2].split(",");
+				if (position.length != 2)
+					throw new IllegalArgumentException("Invalid slot: " + parts[i + 2]);
+				
+				int x = Integer.parseInt(position[0]);
+				int y = Integer.parseInt(position[1]);
+				if (x < 0 || y < 0 || x >= rules.getSize() || y >= rules.getSize())
+					throw new IllegalArgumentException("Invalid slot: " + parts[i + 2]);
+				slots[i] = rules.getIndex(x, y);
+			}
+			
+			rules.addCage(Integer.parseInt(parts[1]), slots);
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IllegalArgumentException("Invalid cage: " + e.getMessage());
+		}
+	}
+	
+	private static int checkNumber(int number, int maxNumber) throws IllegalArgumentException
+	{
+		if (number < 0 || number > maxNumber)
+			throw new IllegalArgumentException("Invalid number in the puzzle");
+		return number;
+	}
+}
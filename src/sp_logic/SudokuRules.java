@@ -0,0 +1,694 @@
+package sp_logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import sp_logic.SudokuSolver.Result;
+import sp_logic.SudokuSolver.Technique;
+import sp_logic.UnsolvablePuzzleException.Reason;
+
+/**
+ * SudokuRules defines the units of a sudoku. A unit is a set of slots that can't hold the 
+ * same number twice. A regular sudoku has rows, columns and boxes as units but variants may 
+ * add diagonals, replace the boxes with irregular regions (jigsaw sudoku) or add cages that 
+ * must sum up to a certain value (killer sudoku). The slots are referred to with their 
+ * indices (y * size + x). The rules should be finished before they are used in a grid 
+ * since they are shared between the copies of the grid.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class SudokuRules
+{
+	// ATTRIBUTES	---------------------
+	
+	private int boxSize;
+	private int[][] regions; // Region -> slot indices
+	private boolean regularBoxes, diagonals;
+	private List<int[]> extraUnits;
+	private List<Cage> cages;
+	private int[][] peers; // Slot index -> indices of the slots sharing a unit with it
+	private long[][] peerMasks; // Slot index -> the peers of the slot as a bit set
+	private int[][] units; // Regions, rows, columns and diagonals -> slot indices
+	private int[][] unitPlaces; // Slot index -> unit index * size + place in the unit
+	private int[] boxColumnMasks, boxRowMasks; // Places of a box that are on a line
+	private int[] segmentMasks; // Places of a line that are in a box
+	private long fingerprint; // Same for all rules with the same units and cages
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	/**
+	 * Creates the rules of a regular sudoku
+	 * @param boxSize The width and height of a single box (3 in a regular sudoku)
+	 */
+	public SudokuRules(int boxSize)
+	{
+		this.boxSize = boxSize;
+		this.regularBoxes = true;
+		this.diagonals = false;
+		this.extraUnits = new ArrayList<>();
+		this.cages = new ArrayList<>();
+		
+		// The regions are the boxes in the same order the grids are handled elsewhere
+		int size = getSize();
+		this.regions = new int[size][];
+		for (int gridX = 0; gridX < boxSize; gridX++)
+		{
+			for (int gridY = 0; gridY < boxSize; gridY++)
+			{
+				int[] region = new int[size];
+				for (int x = 0; x < boxSize; x++)
+				{
+					for (int y = 0; y < boxSize; y++)
+					{
+						region[x * boxSize + y] = getIndex(gridX * boxSize + x, 
+								gridY * boxSize + y);
+					}
+				}
+				this.regions[gridX * boxSize + gridY] = region;
+			}
+		}
+		
+		// The places in a box go column by column, the places in a line go in order
+		this.boxColumnMasks = new int[boxSize];
+		this.boxRowMasks = new int[boxSize];
+		this.segmentMasks = new int[boxSize];
+		for (int i = 0; i < boxSize; i++)
+		{
+			for (int j = 0; j < boxSize; j++)
+			{
+				this.boxColumnMasks[i] |= 1 << (i * boxSize + j);
+				this.boxRowMasks[i] |= 1 << (j * boxSize + i);
+				this.segmentMasks[i] |= 1 << (i * boxSize + j);
+			}
+		}
+		
+		updatePeers();
+	}
+	
+	
+	// ACCESSORS	---------------------
+	
+	/**
+	 * @return The width and height of a single box
+	 */
+	public int getBoxSize()
+	{
+		return this.boxSize;
+	}
+	
+	/**
+	 * @return The width and height of the whole sudoku
+	 */
+	public int getSize()
+	{
+		return this.boxSize * this.boxSize;
+	}
+	
+	/**
+	 * @return Are the regions the regular boxes of the sudoku. Techniques that depend on the 
+	 * shape of the boxes can only be used when this is true.
+	 */
+	public boolean hasRegularBoxes()
+	{
+		return this.regularBoxes;
+	}
+	
+	/**
+	 * @return Must the numbers on both diagonals differ
+	 */
+	public boolean hasDiagonals()
+	{
+		return this.diagonals;
+	}
+	
+	/**
+	 * @return The number of regions in the sudoku (the same as the size)
+	 */
+	public int getRegionCount()
+	{
+		return this.regions.length;
+	}
+	
+	/**
+	 * @param index The index of the region
+	 * @return The indices of the slots in the region
+	 */
+	public int[] getRegion(int index)
+	{
+		return this.regions[index];
+	}
+	
+	/**
+	 * @return The cages in the sudoku
+	 */
+	public List<Cage> getCages()
+	{
+		return this.cages;
+	}
+	
+	/**
+	 * @param index The index of a slot
+	 * @return The indices of the slots that share a unit with the slot
+	 */
+	public int[] getPeers(int index)
+	{
+		return this.peers[index];
+	}
+	
+	/**
+	 * @return The number of units that hold every number exactly once. These are the 
+	 * regions, rows and columns, followed by the diagonals if there are any.
+	 */
+	public int getUnitCount()
+	{
+		return this.units.length;
+	}
+	
+	/**
+	 * @param index The index of a unit. The regions come first, then the rows, the columns 
+	 * and the diagonals.
+	 * @return The indices of the slots in the unit
+	 */
+	public int[] getUnit(int index)
+	{
+		return this.units[index];
+	}
+	
+	/**
+	 * @param index The index of a unit
+	 * @return What the unit is called ("grid", "row", "column" or "diagonal")
+	 */
+	public String getUnitName(int index)
+	{
+		switch (index / getSize())
+		{
+			case 0: return "grid";
+			case 1: return "row";
+			case 2: return "column";
+			default: return "diagonal";
+		}
+	}
+	
+	/**
+	 * @return A value that is the same for all rules with the same units and cages and 
+	 * most likely different for any other rules
+	 */
+	long getFingerprint()
+	{
+		return this.fingerprint;
+	}
+	
+	/**
+	 * @param index The index of a slot
+	 * @return The slots sharing a unit with the slot as a bit set where bit n (of word 
+	 * n / 64) marks the slot with index n. The slot itself is not included.
+	 */
+	long[] getPeerMask(int index)
+	{
+		return this.peerMasks[index];
+	}
+	
+	/**
+	 * @param forColumns Is a column mask returned (false for rows)
+	 * @param line The index of the column / row inside a box [0, box size - 1]
+	 * @return The places of a regular box that are on the column / row as a bit mask
+	 */
+	int getBoxLineMask(boolean forColumns, int line)
+	{
+		return forColumns ? this.boxColumnMasks[line] : this.boxRowMasks[line];
+	}
+	
+	/**
+	 * @param segment The index of a box along a row or column [0, box size - 1]
+	 * @return The places of a row / column that are inside the box as a bit mask
+	 */
+	int getSegmentMask(int segment)
+	{
+		return this.segmentMasks[segment];
+	}
+	
+	/**
+	 * @param index The index of a slot
+	 * @return The units the slot belongs to, each encoded as unit index * size + the place 
+	 * of the slot in the unit
+	 */
+	int[] getUnitPlaces(int index)
+	{
+		return this.unitPlaces[index];
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * @param x The x index of a slot
+	 * @param y The y index of a slot
+	 * @return The index of the slot in these rules
+	 */
+	public int getIndex(int x, int y)
+	{
+		return y * getSize() + x;
+	}
+	
+	/**
+	 * Requires the numbers on both diagonals to differ
+	 */
+	public void addDiagonals()
+	{
+		if (this.diagonals)
+			return;
+		
+		int size = getSize();
+		int[] main = new int[size];
+		int[] anti = new int[size];
+		for (int i = 0; i < size; i++)
+		{
+			main[i] = getIndex(i, i);
+			anti[i] = getIndex(size - 1 - i, i);
+		}
+		
+		this.diagonals = true;
+		this.extraUnits.add(main);
+		this.extraUnits.add(anti);
+		updatePeers();
+	}
+	
+	/**
+	 * Replaces the boxes with irregular regions
+	 * @param regionIds The region of each slot [x][y]. Any values may be used as long as 
+	 * each value is shared by exactly size slots.
+	 * @throws IllegalArgumentException If the regions don't divide the sudoku evenly
+	 */
+	public void setRegions(int[][] regionIds) throws IllegalArgumentException
+	{
+		int size = getSize();
+		if (regionIds.length != size)
+			throw new IllegalArgumentException("The regions don't match the sudoku");
+		
+		// The regions are ordered by their first slot
+		Map<Integer, List<Integer>> slotsInRegions = new LinkedHashMap<>();
+		for (int x = 0; x < size; x++)
+		{
+			if (regionIds[x].length != size)
+				throw new IllegalArgumentException("The regions don't match the sudoku");
+			
+			for (int y = 0; y < size; y++)
+			{
+				List<Integer> slots = slotsInRegions.get(regionIds[x][y]);
+				if (slots == null)
+				{
+					slots = new ArrayList<>();
+					slotsInRegions.put(regionIds[x][y], slots);
+				}
+				slots.add(getIndex(x, y));
+			}
+		}
+		
+		if (slotsInRegions.size() != size)
+			throw new IllegalArgumentException("There must be " + size + " regions");
+		
+		int[][] regions = new int[size][];
+		int regionIndex = 0;
+		for (List<Integer> slots : slotsInRegions.values())
+		{
+			if (slots.size() != size)
+				throw new IllegalArgumentException("Each region must have " + size + 
+						" slots");
+			
+			regions[regionIndex] = new int[size];
+			for (int i = 0; i < size; i++)
+			{
+				regions[regionIndex][i] = slots.get(i);
+			}
+			regionIndex ++;
+		}
+		
+		this.regions = regions;
+		this.regularBoxes = false;
+		updatePeers();
+	}
+	
+	/**
+	 * Adds a new cage to the sudoku. The numbers in a cage must differ and sum up to the 
+	 * given value.
+	 * @param sum The sum of the numbers in the cage
+	 * @param slots The indices of the slots in the cage
+	 * @return The new cage
+	 * @throws IllegalArgumentException If the cage can't be formed
+	 */
+	public Cage addCage(int sum, int[] slots) throws IllegalArgumentException
+	{
+		for (int i = 0; i < slots.length; i++)
+		{
+			if (slots[i] < 0 || slots[i] >= getSize() * getSize())
+				throw new IllegalArgumentException("The cage is outside the sudoku");
+			for (int j = 0; j < i; j++)
+			{
+				if (slots[i] == slots[j])
+					throw new IllegalArgumentException("A slot appears twice in a cage");
+			}
+		}
+		
+		Cage cage = new Cage(sum, slots.clone(), getSize());
+		if (cage.combinations.length == 0)
+			throw new IllegalArgumentException("No numbers sum up to " + sum + " in " + 
+					slots.length + " slots");
+		
+		this.cages.add(cage);
+		this.extraUnits.add(cage.slots);
+		updatePeers();
+		
+		return cage;
+	}
+	
+	private void updatePeers()
+	{
+		int size = getSize();
+		int[] regionOfSlot = new int[size * size];
+		for (int region = 0; region < this.regions.length; region++)
+		{
+			for (int slot : this.regions[region])
+			{
+				regionOfSlot[slot] = region;
+			}
+		}
+		
+		int[][] peers = new int[size * size][];
+		for (int i = 0; i < peers.length; i++)
+		{
+			// Each slot sees its region first, then its row and column and finally the 
+			// other units
+			boolean[] added = new boolean[size * size];
+			added[i] = true;
+			int[] slotPeers = new int[size * size];
+			int count = 0;
+			
+			int x = i % size;
+			int y = i / size;
+			int[] row = new int[size];
+			int[] column = new int[size];
+			for (int j = 0; j < size; j++)
+			{
+				row[j] = getIndex(j, y);
+				column[j] = getIndex(x, j);
+			}
+			
+			List<int[]> units = new ArrayList<>();
+			units.add(this.regions[regionOfSlot[i]]);
+			units.add(row);
+			units.add(column);
+			for (int[] unit : this.extraUnits)
+			{
+				for (int slot : unit)
+				{
+					if (slot == i)
+					{
+						units.add(unit);
+						break;
+					}
+				}
+			}
+			
+			for (int[] unit : units)
+			{
+				for (int peer : unit)
+				{
+					if (!added[peer])
+					{
+						added[peer] = true;
+						slotPeers[count] = peer;
+						count ++;
+					}
+				}
+			}
+			
+			peers[i] = new int[count];
+			System.arraycopy(slotPeers, 0, peers[i], 0, count);
+		}
+		
+		// The bit sets let the solver find the slots seeing a group of slots at once
+		long[][] peerMasks = new long[peers.length][(peers.length + 63) / 64];
+		for (int i = 0; i < peers.length; i++)
+		{
+			for (int peer : peers[i])
+			{
+				peerMasks[i][peer >> 6] |= 1L << peer;
+			}
+		}
+		
+		this.peers = peers;
+		this.peerMasks = peerMasks;
+		updateUnits();
+	}
+	
+	private void updateUnits()
+	{
+		int size = getSize();
+		List<int[]> units = new ArrayList<>(Arrays.asList(this.regions));
+		for (int y = 0; y < size; y++)
+		{
+			int[] row = new int[size];
+			for (int x = 0; x < size; x++)
+			{
+				row[x] = getIndex(x, y);
+			}
+			units.add(row);
+		}
+		for (int x = 0; x < size; x++)
+		{
+			int[] column = new int[size];
+			for (int y = 0; y < size; y++)
+			{
+				column[y] = getIndex(x, y);
+			}
+			units.add(column);
+		}
+		// The extra units that aren't cages are the diagonals
+		for (int[] unit : this.extraUnits)
+		{
+			boolean isCage = false;
+			for (Cage cage : this.cages)
+			{
+				if (cage.slots == unit)
+				{
+					isCage = true;
+					break;
+				}
+			}
+			if (!isCage)
+				units.add(unit);
+		}
+		
+		int[] placeCounts = new int[size * size];
+		int[][] unitPlaces = new int[size * size][units.size()];
+		for (int unit = 0; unit < units.size(); unit++)
+		{
+			int[] slots = units.get(unit);
+			for (int place = 0; place < slots.length; place++)
+			{
+				int slot = slots[place];
+				unitPlaces[slot][placeCounts[slot]] = unit * size + place;
+				placeCounts[slot] ++;
+			}
+		}
+		for (int slot = 0; slot < unitPlaces.length; slot++)
+		{
+			unitPlaces[slot] = Arrays.copyOf(unitPlaces[slot], placeCounts[slot]);
+		}
+		
+		// The fingerprint covers every unit and cage so that grids with different rules never 
+		// look the same
+		long fingerprint = size;
+		for (int[] unit : units)
+		{
+			fingerprint = fingerprint * 31 + unit.length;
+			for (int slot : unit)
+			{
+				fingerprint = fingerprint * 31 + slot;
+			}
+		}
+		for (Cage cage : this.cages)
+		{
+			fingerprint = fingerprint * 31 + cage.sum;
+			for (int slot : cage.slots)
+			{
+				fingerprint = fingerprint * 31 + slot;
+			}
+		}
+		
+		this.units = units.toArray(new int[units.size()][]);
+		this.unitPlaces = unitPlaces;
+		this.fingerprint = fingerprint * 0x9E3779B97F4A7C15L;
+	}
+	
+	
+	// SUBCLASSES	---------------------
+	
+	/**
+	 * A cage is a set of slots whose numbers must differ and sum up to a certain value. The 
+	 * possible combinations of numbers are calculated when the cage is created so that 
+	 * pruning the possible numbers is fast.
+	 * @author Mikko Hilpinen
+	 * @since 18.10.2026
+	 */
+	public static class Cage
+	{
+		// ATTRIBUTES	-----------------
+		
+		private int sum;
+		private int[] slots;
+		private int[] combinations; // Each set of numbers that fits the cage
+		private int possibleNumbers; // All numbers that appear in the combinations
+		
+		
+		// CONSTRUCTOR	-----------------
+		
+		private Cage(int sum, int[] slots, int maxNumber)
+		{
+			this.sum = sum;
+			this.slots = slots;
+			
+			List<Integer> combinations = new ArrayList<>();
+			findCombinations(1, maxNumber, slots.length, sum, NumberSet.EMPTY, combinations);
+			
+			this.combinations = new int[combinations.size()];
+			this.possibleNumbers = NumberSet.EMPTY;
+			for (int i = 0; i < this.combinations.length; i++)
+			{
+				this.combinations[i] = combinations.get(i);
+				this.possibleNumbers |= this.combinations[i];
+			}
+		}
+		
+		
+		// ACCESSORS	-----------------
+		
+		/**
+		 * @return The sum of the numbers in the cage
+		 */
+		public int getSum()
+		{
+			return this.sum;
+		}
+		
+		/**
+		 * @return The indices of the slots in the cage
+		 */
+		public int[] getSlots()
+		{
+			return this.slots;
+		}
+		
+		/**
+		 * @return Each set of numbers that fits the cage
+		 */
+		public int[] getCombinations()
+		{
+			return this.combinations;
+		}
+		
+		/**
+		 * @return The numbers that may appear in the cage at all
+		 */
+		public int getPossibleNumbers()
+		{
+			return this.possibleNumbers;
+		}
+		
+		
+		// OTHER METHODS	-------------
+		
+		/**
+		 * Removes the possible numbers that can't be part of any combination that fits the 
+		 * cage
+		 * @param sudoku The sudoku the cage is in
+		 * @return A successful result if a number was placed
+		 * @throws UnsolvablePuzzleException If no combination fits the cage anymore
+		 */
+		public Result prune(SudokuGrid sudoku) throws UnsolvablePuzzleException
+		{
+			int size = sudoku.getSize();
+			Slot[] slots = new Slot[this.slots.length];
+			int placed = NumberSet.EMPTY;
+			int candidates = NumberSet.EMPTY;
+			int empty = 0;
+			
+			for (int i = 0; i < slots.length; i++)
+			{
+				slots[i] = sudoku.getSlot(this.slots[i] % size, this.slots[i] / size);
+				if (slots[i].hasNumber())
+					placed |= NumberSet.of(slots[i].getNumber());
+				else
+				{
+					if (slots[i].updateRequired())
+						SudokuSolver.updateSlotNumbers(slots[i]);
+					candidates |= slots[i].getPossibleNumbers();
+					empty ++;
+				}
+			}
+			
+			// Finds the numbers that can still complete the cage
+			int allowed = NumberSet.EMPTY;
+			boolean fits = false;
+			for (int combination : this.combinations)
+			{
+				if ((combination & placed) != placed)
+					continue;
+				
+				int missing = combination & ~placed;
+				if (NumberSet.size(missing) == empty && (missing & ~candidates) == 0)
+				{
+					allowed |= missing;
+					fits = true;
+				}
+			}
+			
+			if (!fits)
+				throw new UnsolvablePuzzleException(slots[0], Reason.NO_CAGE_COMBINATION, 
+						Arrays.asList(slots), 0);
+			
+			for (Slot slot : slots)
+			{
+				if (slot.hasNumber() || (slot.getPossibleNumbers() & ~allowed) == 0)
+					continue;
+				
+				slot.setPossibleNumbers(slot.getPossibleNumbers() & allowed);
+				if (slot.getPossibleNumberCount() == 0)
+					throw new UnsolvablePuzzleException(slot, Reason.NO_POSSIBLE_NUMBERS, 
+							Arrays.asList(slots), 0);
+				else if (slot.getPossibleNumberCount() == 1)
+				{
+					slot.setNumber(NumberSet.first(slot.getPossibleNumbers()));
+					return new Result(true, "Cage sum", slot, Technique.CAGE_SUM);
+				}
+			}
+			
+			return Result.failure();
+		}
+		
+		private static void findCombinations(int smallest, int maxNumber, int count, 
+				int sum, int combination, List<Integer> combinations)
+		{
+			if (count == 0)
+			{
+				if (sum == 0)
+					combinations.add(combination);
+				return;
+			}
+			
+			for (int number = smallest; number <= maxNumber && number <= sum; number++)
+			{
+				// The remaining numbers are larger than this one
+				if (number * count + (count - 1) * count / 2 > sum)
+					break;
+				
+				findCombinations(number + 1, maxNumber, count - 1, sum - number, 
+						combination | NumberSet.of(number), combinations);
+			}
+		}
+	}
+}
@@ -1,12 +1,22 @@
 package sp_logic;
 
-import genesis_util.Vector3D;
-
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Stack;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import sp_logic.SolverEvents.BacktrackEvent;
+import sp_logic.SolverEvents.GuessEvent;
+import sp_logic.SolverEvents.PhaseEvent;
+import sp_logic.SolverEvents.SolveEvent;
+import sp_logic.SudokuRules.Cage;
+import sp_logic.UnsolvablePuzzleException.Reason;
 
 //http://www.sudokudragon.com/tutorialhard1.htm
 
@@ -15,14 +25,21 @@ import java.util.Stack;
  * @author Mikko Hilpinen
  * @since 8.8.2015
  */
-public class SudokuSolver
+public class SudokuSolver implements SudokuEngine
 {
 	// ATTRIBUTES	-------------------
 	
 	private SudokuGrid originalSudoku, currentSudoku;
 	private Slot lastSlot;
 	private Stack<StepData> riskSteps;
-	private int operations;
+	private int operations, backtracks, guesses, maxChainLength;
+	private int[] techniqueUses;
+	private long solveNanos;
+	private boolean detachGuesses, finished, probeGuesses;
+	private StepRecorder recorder;
+	private SolveStats stats;
+	private InferenceChains chains;
+	private DeadEndTable deadEnds;
 	
 	
 	// CONSTRUCTOR	-------------------
@@ -32,17 +49,164 @@ public class SudokuSolver
 	 * @param sudoku The sudoku that needs solving
 	 */
 	public SudokuSolver(SudokuGrid sudoku)
+	{
+		this(sudoku, false);
+	}
+	
+	/**
+	 * Creates a new sudoku solver
+	 * @param sudoku The sudoku that needs solving
+	 * @param detachGuesses Should the grids created for guesses be left out of the handlers. 
+	 * If true, only the original grid is drawn and handled and the guesses are tested out of 
+	 * sight.
+	 */
+	public SudokuSolver(SudokuGrid sudoku, boolean detachGuesses)
 	{
 		this.originalSudoku = sudoku;
 		this.currentSudoku = sudoku;
 		this.lastSlot = null;
 		this.riskSteps = new Stack<>();
 		this.operations = 0;
+		this.backtracks = 0;
+		this.guesses = 0;
+		this.techniqueUses = new int[Technique.values().length];
+		this.solveNanos = 0;
+		this.detachGuesses = detachGuesses;
+		this.finished = false;
+		this.stats = SolveStats.global();
+		this.chains = new InferenceChains();
+		this.maxChainLength = InferenceChains.DEFAULT_MAX_LENGTH;
+		this.probeGuesses = true;
+		this.deadEnds = null;
 	}
 
 	
+	// ACCESSORS	-------------------
+	
+	/**
+	 * @return How many solving steps have been taken so far
+	 */
+	@Override
+	public int getOperations()
+	{
+		return this.operations;
+	}
+	
+	/**
+	 * @return The grid that is currently being solved. This differs from the original grid 
+	 * while a guess is being tested.
+	 */
+	public SudokuGrid getCurrentSudoku()
+	{
+		return this.currentSudoku;
+	}
+	
+	/**
+	 * Changes where the statistics of this solver are recorded. By default the global 
+	 * statistics are used.
+	 * @param stats The statistics the solve is recorded into once it finishes (null if it 
+	 * shouldn't be recorded)
+	 */
+	public void setStats(SolveStats stats)
+	{
+		this.stats = stats;
+	}
+	
+	/**
+	 * Changes how long inference chains the solver follows before it has to guess. Longer 
+	 * chains replace more guesses but take longer to look for.
+	 * @param maxLength The most links a chain may have. 0 turns the chains off. By default 
+	 * chains of up to {@value InferenceChains#DEFAULT_MAX_LENGTH} links are followed.
+	 */
+	public void setMaxChainLength(int maxLength)
+	{
+		this.maxChainLength = maxLength;
+	}
+	
+	/**
+	 * Changes whether the options of a slot are tried out before one of them is guessed. 
+	 * Each option is placed on a scratch copy of the grid and followed with singles only. 
+	 * The options that lead to a contradiction are removed, which often solves the slot 
+	 * without a guess. Probing is on by default.
+	 * @param probe Should the options be tried out before guessing
+	 */
+	public void setProbeGuesses(boolean probe)
+	{
+		this.probeGuesses = probe;
+	}
+	
+	/**
+	 * Makes the solver remember the states it has found to have no solution and skip them 
+	 * when they are reached again. The table may be shared between solvers, in which case 
+	 * the dead ends found while solving one puzzle are also skipped while solving the 
+	 * others. By default no table is used.
+	 * @param table The table the dead ends are stored in (null if they shouldn't be stored)
+	 */
+	public void setDeadEndTable(DeadEndTable table)
+	{
+		this.deadEnds = table;
+	}
+	
+	
 	// OTHER METHODS	---------------
 	
+	@Override
+	public void solve() throws UnsolvablePuzzleException
+	{
+		SolveEvent event = new SolveEvent();
+		event.begin();
+		int startOperations = this.operations;
+		int startBacktracks = this.backtracks;
+		int guesses = 0;
+		SolveOutcome.Status status = SolveOutcome.Status.UNSOLVABLE;
+		
+		try
+		{
+			Result r;
+			do
+			{
+				// The solving stops once the thread is interrupted
+				if (Thread.currentThread().isInterrupted())
+				{
+					status = SolveOutcome.Status.BUDGET_EXHAUSTED;
+					recordStop();
+					return;
+				}
+				
+				r = solveStep();
+				if (r.isGuess())
+					guesses ++;
+			}
+			while (r.isClear());
+			
+			status = SolveOutcome.Status.SOLVED;
+		}
+		finally
+		{
+			commitSolveEvent(event, startOperations, guesses, startBacktracks, status);
+		}
+	}
+	
+	/**
+	 * Solves the puzzle until it is solved or the budget runs out. If the budget runs out, 
+	 * the solving can be continued by calling this method again.
+	 * @param budget How long the puzzle may be solved. The steps and guesses are counted 
+	 * from the start of this call.
+	 * @return How the solving ended. An interrupted solving ends as if the budget ran out.
+	 */
+	public SolveOutcome solve(SolveBudget budget)
+	{
+		SolveEvent event = new SolveEvent();
+		event.begin();
+		int startBacktracks = this.backtracks;
+		
+		SolveOutcome outcome = solveWithin(budget);
+		commitSolveEvent(event, this.operations - outcome.getOperations(), 
+				outcome.getGuesses(), startBacktracks, outcome.getStatus());
+		
+		return outcome;
+	}
+	
 	/**
 	 * Solves the puzzle all at once
 	 * @throws UnsolvablePuzzleException If the puzzle can't be solved
@@ -53,10 +217,9 @@ public class SudokuSolver
 		Result r;
 		do
 		{
-			this.operations ++;
-			r = bruteSolveNext();
+			r = solveStep();
 			System.out.println(this.operations + ": " + r.getMessage());
-			if (r.isGuess)
+			if (r.isGuess())
 				guesses ++;
 		}
 		while (r.isClear());
@@ -70,11 +233,10 @@ public class SudokuSolver
 	 */
 	public void solveNext() throws UnsolvablePuzzleException
 	{
-		this.operations ++;
 		if (this.lastSlot != null)
 			this.lastSlot.removeMark();
 		
-		Result r = bruteSolveNext();
+		Result r = solveStep();
 		System.out.println(this.operations + ": " + r.getMessage());
 		if (r.getTarget() != null)
 		{
@@ -83,49 +245,252 @@ public class SudokuSolver
 		}
 	}
 	
-	private Result bruteSolveNext() throws UnsolvablePuzzleException
+	/**
+	 * Takes a single solving step without printing anything. The cheapest technique that 
+	 * works is always used first.
+	 * @return The result of the step. If the result is not clear, the puzzle is complete.
+	 * @throws UnsolvablePuzzleException If the sudoku puzzle is unsolvable
+	 */
+	public Result solveStep() throws UnsolvablePuzzleException
 	{
-		// Goes as far with safe methods as possible
+		long started = System.nanoTime();
+		this.operations ++;
+		Result r;
 		try
 		{
-			Result r = safeSolveNext(this.currentSudoku);
-			if (r.isClear())
-				return r;
+			r = bruteSolveNext();
 		}
 		catch (UnsolvablePuzzleException e)
 		{
-			boolean unsolvable = false;
-			do
+			finishSolve(started, SolveOutcome.Status.UNSOLVABLE);
+			throw e;
+		}
+		
+		if (r.isGuess())
+			this.guesses ++;
+		if (r.getTechnique() != null)
+			this.techniqueUses[r.getTechnique().ordinal()] ++;
+		if (this.recorder != null)
+			this.recorder.record(r, this.currentSudoku);
+		
+		// Only the time spent in the steps counts, not the time between them
+		if (r.isClear())
+			this.solveNanos += System.nanoTime() - started;
+		else
+			finishSolve(started, SolveOutcome.Status.SOLVED);
+		
+		return r;
+	}
+	
+	/**
+	 * Starts recording the steps taken by this solver. The recording starts from the 
+	 * current state of the solving.
+	 * @return The recorder the steps are written into
+	 * @see StepPlayer
+	 */
+	public StepRecorder startRecording()
+	{
+		this.recorder = new StepRecorder(this.currentSudoku);
+		return this.recorder;
+	}
+	
+	/**
+	 * Stops recording the steps. The recorder keeps the steps recorded so far.
+	 */
+	public void stopRecording()
+	{
+		this.recorder = null;
+	}
+	
+	/**
+	 * Saves the complete state of the solving so that it can be continued later, possibly 
+	 * on another machine. The state contains the rules, every grid in the guess stack and 
+	 * the grid that is currently being solved.
+	 * @return The state of the solver in a compact binary form
+	 * @see #restoreSnapshot(byte[], SudokuGrid, boolean)
+	 */
+	public byte[] createSnapshot()
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes)))
+		{
+			out.writeInt(SolverSnapshot.MAGIC);
+			out.writeByte(SolverSnapshot.VERSION);
+			SolverSnapshot.writeRules(out, this.currentSudoku.getRules());
+			out.writeInt(this.operations);
+			
+			// The grids are written from the bottom of the stack to the current grid
+			out.writeShort(this.riskSteps.size());
+			SudokuGrid previous = null;
+			for (StepData step : this.riskSteps)
 			{
-				unsolvable = false;
-				
-				// If the puzzle became unsolvable, at least the last risky step was a mistake
-				// If there were no risky steps in history, the puzzle is unsolvable
-				if (this.riskSteps.isEmpty())
-					throw new UnsolvablePuzzleException(e);
-				
-				// Goes back to the last step and marks the last solution as impossible
-				StepData lastStep = this.riskSteps.pop();
-				this.currentSudoku.kill();
-				
-				this.currentSudoku = lastStep.targetGrid;
-				this.currentSudoku.setActive(true);
+				SolverSnapshot.writeGrid(out, step.targetGrid, previous);
+				out.writeShort(step.targetSlot.getIndex());
+				out.writeByte(step.newNumber);
+				out.writeByte(step.possibilities);
+				previous = step.targetGrid;
+			}
+			SolverSnapshot.writeGrid(out, this.currentSudoku, previous);
+		}
+		catch (IOException e)
+		{
+			// Writing into memory doesn't fail
+			throw new IllegalStateException(e);
+		}
+		
+		return bytes.toByteArray();
+	}
+	
+	/**
+	 * Creates a solver that continues the solving from a snapshot
+	 * @param snapshot A snapshot created with {@link #createSnapshot()}
+	 * @param sudoku The grid the answer will be copied to. This should be a new grid of the 
+	 * same size as the one in the snapshot. The rules and the state of the snapshot's 
+	 * original grid are set to it.
+	 * @param detachGuesses Should the grids created for guesses be left out of the handlers
+	 * @return A solver that continues from where the snapshot was taken
+	 * @throws IllegalArgumentException If the snapshot is invalid or doesn't fit the grid
+	 */
+	public static SudokuSolver restoreSnapshot(byte[] snapshot, SudokuGrid sudoku, 
+			boolean detachGuesses) throws IllegalArgumentException
+	{
+		SudokuSolver solver = new SudokuSolver(sudoku, detachGuesses);
+		
+		try (DataInputStream in = new DataInputStream(new InflaterInputStream(
+				new ByteArrayInputStream(snapshot))))
+		{
+			if (in.readInt() != SolverSnapshot.MAGIC || 
+					in.readUnsignedByte() != SolverSnapshot.VERSION)
+				throw new IllegalArgumentException("Not a solver snapshot");
+			
+			sudoku.setRules(SolverSnapshot.readRules(in));
+			solver.operations = in.readInt();
+			
+			// The bottom of the stack is the original grid and the others are copies
+			int steps = in.readUnsignedShort();
+			int size = sudoku.getSize();
+			SudokuGrid grid = sudoku;
+			for (int i = 0; i < steps; i++)
+			{
+				if (i > 0)
+					grid = new SudokuGrid(grid, detachGuesses);
+				SolverSnapshot.readGrid(in, grid, i > 0);
 				
-				// Removes a possible number from the target since it lead to a dead end
-				Slot target = lastStep.targetSlot;
-				target.removePossibleNumber(lastStep.newNumber);
+				int index = in.readUnsignedShort();
+				if (index >= size * size)
+					throw new IllegalArgumentException("Invalid guess position");
+				solver.riskSteps.push(new StepData(grid, grid.getSlot(index % size, 
+						index / size), in.readUnsignedByte(), in.readUnsignedByte()));
 				
-				if (target.getPossibleNumbers().size() == 0)
-					unsolvable = true;
-				else if (target.getPossibleNumbers().size() == 1)
+				if (!detachGuesses)
+					grid.setActive(false);
+			}
+			
+			if (steps > 0)
+				grid = new SudokuGrid(grid, detachGuesses);
+			SolverSnapshot.readGrid(in, grid, steps > 0);
+			solver.currentSudoku = grid;
+			
+			// Reading to the end also checks the checksum of the compressed data
+			if (in.read() != -1)
+				throw new IllegalArgumentException("Unexpected data after the snapshot");
+		}
+		catch (IOException e)
+		{
+			throw new IllegalArgumentException("Invalid snapshot", e);
+		}
+		
+		return solver;
+	}
+	
+	private SolveOutcome solveWithin(SolveBudget budget)
+	{
+		int startOperations = this.operations;
+		int guesses = 0;
+		
+		try
+		{
+			Result r;
+			do
+			{
+				if (budget.isExhausted(this.operations - startOperations, guesses) || 
+						Thread.currentThread().isInterrupted())
 				{
-					target.setNumber(target.getPossibleNumbers().get(0));
-					return new Result(true, "Retraced (solve)", target);
+					recordStop();
+					return new SolveOutcome(SolveOutcome.Status.BUDGET_EXHAUSTED, 
+							this.currentSudoku.getNumbers(), 
+							this.operations - startOperations, guesses);
 				}
-				else
-					return new Result(true, "Retraced", target);
+				
+				r = solveStep();
+				if (r.isGuess())
+					guesses ++;
+			}
+			while (r.isClear());
+		}
+		catch (UnsolvablePuzzleException e)
+		{
+			return new SolveOutcome(SolveOutcome.Status.UNSOLVABLE, 
+					this.currentSudoku.getNumbers(), this.operations - startOperations, 
+					guesses);
+		}
+		
+		return new SolveOutcome(SolveOutcome.Status.SOLVED, this.originalSudoku.getNumbers(), 
+				this.operations - startOperations, guesses);
+	}
+	
+	private void finishSolve(long stepStarted, SolveOutcome.Status status)
+	{
+		this.solveNanos += System.nanoTime() - stepStarted;
+		if (!this.finished && this.stats != null)
+			this.stats.record(status, this.solveNanos, this.operations, this.guesses, 
+					this.backtracks, this.techniqueUses);
+		this.finished = true;
+	}
+	
+	private void recordStop()
+	{
+		// The solve may still be continued, so it isn't marked finished
+		if (!this.finished && this.stats != null)
+			this.stats.record(SolveOutcome.Status.BUDGET_EXHAUSTED, this.solveNanos, 
+					this.operations, this.guesses, this.backtracks, this.techniqueUses);
+	}
+	
+	private void commitSolveEvent(SolveEvent event, int startOperations, int guesses, 
+			int startBacktracks, SolveOutcome.Status status)
+	{
+		event.end();
+		if (event.shouldCommit())
+		{
+			event.size = this.originalSudoku.getSize();
+			event.operations = this.operations - startOperations;
+			event.guesses = guesses;
+			event.backtracks = this.backtracks - startBacktracks;
+			event.result = status.name();
+			event.commit();
+		}
+	}
+	
+	private Result bruteSolveNext() throws UnsolvablePuzzleException
+	{
+		// Goes as far with safe methods as possible
+		try
+		{
+			Result r = safeSolveNext(this.currentSudoku);
+			if (r.isClear())
+				return r;
+			
+			// Before guessing, tries to find a chain of inferences
+			if (this.maxChainLength > 0)
+			{
+				r = this.chains.solveNext(this.currentSudoku, this.maxChainLength);
+				if (r.isClear())
+					return r;
 			}
-			while (unsolvable);
+		}
+		catch (UnsolvablePuzzleException e)
+		{
+			return retrace(e);
 		}
 		
 		// Has to take chances and guess
@@ -146,22 +511,27 @@ public class SudokuSolver
 			if (bestGuessSlot != null)
 			{
 				risk = new StepData(this.currentSudoku, bestGuessSlot, 
-						bestGuessSlot.getPossibleNumbers().get(0), 
-						bestGuessSlot.getPossibleNumbers().size());
+						NumberSet.first(bestGuessSlot.getPossibleNumbers()), 
+						bestGuessSlot.getPossibleNumberCount());
 			}
 			// If a suitable slot couldn't be found, the puzzle is complete
 			else
 			{
 				// Copies the answer to the original sudoku
 				this.originalSudoku.copyNumbersFrom(this.currentSudoku);
-				this.originalSudoku.setActive(true);
 				
-				// All temporary sudoku grids will be killed
-				if (!this.riskSteps.isEmpty())
-					this.riskSteps.remove(0); // The original is at the bottom
-				for (StepData step : this.riskSteps)
+				// All temporary sudoku grids will be killed (detached grids were never 
+				// handled in the first place)
+				if (!this.detachGuesses)
 				{
-					step.targetGrid.kill();
+					this.originalSudoku.setActive(true);
+					
+					if (!this.riskSteps.isEmpty())
+						this.riskSteps.remove(0); // The original is at the bottom
+					for (StepData step : this.riskSteps)
+					{
+						step.targetGrid.kill();
+					}
 				}
 				this.riskSteps.clear();
 				
@@ -169,25 +539,165 @@ public class SudokuSolver
 			}
 		}
 		
+		// Tries the options out before guessing, since some of them may fail right away
+		if (this.probeGuesses)
+		{
+			try
+			{
+				Result r = probe(risk.targetSlot);
+				if (r.isClear())
+					return r;
+			}
+			catch (UnsolvablePuzzleException e)
+			{
+				return retrace(e);
+			}
+		}
+		
+		// States that are known to have no solution are not searched again
+		if (this.deadEnds != null)
+		{
+			long hash = this.currentSudoku.getUnitPositions().getHash();
+			if (this.deadEnds.contains(hash))
+				return retrace(new UnsolvablePuzzleException(risk.targetSlot, 
+						Reason.NO_SOLUTION, null, 0));
+			risk.hash = hash;
+		}
+		
 		// Makes the guess and returns
 		Result r = makeGuess(risk);
 		if (hookWasUsed)
-			r.message += " (hook method)";
+			r.message += Technique.HOOK.getNotation();
+		
+		GuessEvent event = new GuessEvent();
+		if (event.isEnabled())
+		{
+			event.column = risk.targetSlot.getColumn();
+			event.row = risk.targetSlot.getRow();
+			event.number = risk.newNumber;
+			event.options = risk.possibilities;
+			event.depth = this.riskSteps.size();
+			event.hook = hookWasUsed;
+			event.commit();
+		}
+		
 		return r;
 	}
 	
-	private Result makeGuess(StepData risk)
+	private Result retrace(UnsolvablePuzzleException e) throws UnsolvablePuzzleException
+	{
+		boolean unsolvable = false;
+		do
+		{
+			unsolvable = false;
+			
+			// If the puzzle became unsolvable, at least the last risky step was a mistake
+			// If there were no risky steps in history, the puzzle is unsolvable
+			if (this.riskSteps.isEmpty())
+				throw e;
+			
+			// Goes back to the last step and marks the last solution as impossible
+			StepData lastStep = this.riskSteps.pop();
+			if (!this.detachGuesses)
+				this.currentSudoku.kill();
+			
+			this.currentSudoku = lastStep.targetGrid;
+			if (!this.detachGuesses)
+				this.currentSudoku.setActive(true);
+			
+			// The states that were ruled out in the failed branch had no solution either
+			if (this.deadEnds != null && lastStep.branchDeadEnds != null)
+			{
+				for (long hash : lastStep.branchDeadEnds)
+				{
+					this.deadEnds.add(hash);
+				}
+			}
+			
+			// Removes a possible number from the target since it lead to a dead end
+			Slot target = lastStep.targetSlot;
+			target.removePossibleNumber(lastStep.newNumber);
+			
+			this.backtracks ++;
+			BacktrackEvent event = new BacktrackEvent();
+			if (event.isEnabled())
+			{
+				event.column = target.getColumn();
+				event.row = target.getRow();
+				event.number = lastStep.newNumber;
+				event.optionsLeft = target.getPossibleNumberCount();
+				event.depth = this.riskSteps.size();
+				event.commit();
+			}
+			
+			if (target.getPossibleNumberCount() == 0)
+			{
+				// None of the options worked, so the state before the guess has no solution
+				unsolvable = true;
+				if (this.deadEnds != null && lastStep.hash != 0)
+					this.deadEnds.add(lastStep.hash);
+			}
+			else
+			{
+				// The state before the guess has no solution if the rest of its branch fails
+				if (lastStep.hash != 0 && !this.riskSteps.isEmpty())
+				{
+					StepData branch = this.riskSteps.peek();
+					if (branch.branchDeadEnds == null)
+						branch.branchDeadEnds = new ArrayList<>();
+					branch.branchDeadEnds.add(lastStep.hash);
+				}
+				
+				if (target.getPossibleNumberCount() == 1)
+				{
+					target.setNumber(NumberSet.first(target.getPossibleNumbers()));
+					return new Result(true, "Retraced (solve)", target, Technique.RETRACE);
+				}
+				return new Result(true, "Retraced", target, Technique.RETRACE);
+			}
+		}
+		while (unsolvable);
+		
+		// The loop only ends by returning or throwing
+		throw e;
+	}
+	
+	private Result probe(Slot target) throws UnsolvablePuzzleException
 	{
-		Vector3D targetPosition = risk.targetSlot.getPosition();
+		// Removes the numbers that lead to a contradiction with singles alone
+		SinglesProbe probe = new SinglesProbe(this.currentSudoku);
+		int options = target.getPossibleNumbers();
+		for (int rest = options; rest != 0; rest &= rest - 1)
+		{
+			int number = NumberSet.first(rest);
+			if (probe.fails(target.getIndex(), number))
+				target.removePossibleNumber(number);
+		}
 		
+		if (target.getPossibleNumbers() == options)
+			return Result.failure();
+		if (target.getPossibleNumberCount() == 0)
+			throw new UnsolvablePuzzleException(target);
+		if (target.getPossibleNumberCount() == 1)
+		{
+			target.setNumber(NumberSet.first(target.getPossibleNumbers()));
+			return new Result(true, "Probed (solve)", target, Technique.PROBE);
+		}
+		return new Result(true, "Probed", target, Technique.PROBE);
+	}
+	
+	private Result makeGuess(StepData risk)
+	{
 		// Remembers the step so that it can be retraced
 		this.riskSteps.push(risk);
 		
-		// The last sudoku is disabled when the new one is created
-		risk.targetGrid.setActive(false);
-		this.currentSudoku = new SudokuGrid(risk.targetGrid);
-		Slot guessSlot = this.currentSudoku.getSlot(targetPosition.getFirstInt(), 
-				targetPosition.getSecondInt());
+		// The last sudoku is disabled when the new one is created. Detached guesses are never 
+		// shown so the last sudoku stays visible.
+		if (!this.detachGuesses)
+			risk.targetGrid.setActive(false);
+		this.currentSudoku = new SudokuGrid(risk.targetGrid, this.detachGuesses);
+		Slot guessSlot = this.currentSudoku.getSlot(risk.targetSlot.getColumn(), 
+				risk.targetSlot.getRow());
 		guessSlot.guess(risk.newNumber);
 		
 		return Result.guess(risk, guessSlot);
@@ -213,7 +723,7 @@ public class SudokuSolver
 			}
 			
 			// Finds the shared number and excludes it from the affected slots
-			int sharedNumber = Slot.getSharedNumbers(hook.hook, outsideStem).get(0);
+			int sharedNumber = NumberSet.first(Slot.getSharedNumbers(hook.hook, outsideStem));
 			for (Slot slot : affectedSlots)
 			{
 				// TODO: Make a separate method for this process
@@ -221,12 +731,13 @@ public class SudokuSolver
 				{
 					slot.removePossibleNumber(sharedNumber);
 					
-					if (slot.getPossibleNumbers().size() == 0)
-						throw new UnsolvablePuzzleException(slot);
-					else if (slot.getPossibleNumbers().size() == 1)
+					if (slot.getPossibleNumberCount() == 0)
+						throw new UnsolvablePuzzleException(slot, 
+								Reason.NO_POSSIBLE_NUMBERS, null, sharedNumber);
+					else if (slot.getPossibleNumberCount() == 1)
 					{
-						slot.setNumber(slot.getPossibleNumbers().get(0));
-						return new Result(true, "Hook method", slot);
+						slot.setNumber(NumberSet.first(slot.getPossibleNumbers()));
+						return new Result(true, "Hook method", slot, Technique.HOOK);
 					}
 				}
 			}
@@ -245,19 +756,18 @@ public class SudokuSolver
 		// Finds possible stems (pairs that share a possible number)
 		List<List<Slot>> possibleStems = new ArrayList<>();
 		
-		for (int x = 0; x < 9; x++)
+		for (int x = 0; x < sudoku.getSize(); x++)
 		{
-			for (int y = 0; y < 9; y++)
+			for (int y = 0; y < sudoku.getSize(); y++)
 			{
 				Slot stem1 = sudoku.getSlot(x, y);
 				
-				if (stem1.getPossibleNumbers().size() != 2)
+				if (stem1.getPossibleNumberCount() != 2)
 					continue;
 				
 				// Searches for all possible stems
-				List<Slot> possiblePairs = findStemPairs(sudoku, stem1, new Vector3D(x, y), 
-						true);
-				possiblePairs.addAll(findStemPairs(sudoku, stem1, new Vector3D(x, y), false));
+				List<Slot> possiblePairs = findStemPairs(sudoku, stem1, true);
+				possiblePairs.addAll(findStemPairs(sudoku, stem1, false));
 				
 				// Makes up the stems from the pairs and moves on
 				for (Slot stem2 : possiblePairs)
@@ -287,28 +797,28 @@ public class SudokuSolver
 	
 	// False checks from row
 	private static List<Slot> findStemPairs(SudokuGrid sudoku, Slot stem1, 
-			Vector3D stem1Position, boolean checkFromColumn)
+			boolean checkFromColumn)
 	{
 		// Finds the slots to the right / down from the stem1 from other grids
 		int startPosition;
 		if (checkFromColumn)
-			startPosition = stem1Position.getSecondInt() + 1;
+			startPosition = stem1.getRow() + 1;
 		else
-			startPosition = stem1Position.getFirstInt() + 1;
+			startPosition = stem1.getColumn() + 1;
 		
 		List<Slot> possiblePairs = new ArrayList<>();
-		for (int position = startPosition; position < 9; position ++)
+		for (int position = startPosition; position < sudoku.getSize(); position ++)
 		{
 			int x, y;
 			if (checkFromColumn)
 			{
-				x = stem1Position.getFirstInt();
+				x = stem1.getColumn();
 				y = position;
 			}
 			else
 			{
 				x = position;
-				y = stem1Position.getSecondInt();
+				y = stem1.getRow();
 			}
 			
 			Slot possiblePair = sudoku.getSlot(x, y);
@@ -317,9 +827,9 @@ public class SudokuSolver
 			// one of them needs to be shared with the other stem
 			if (possiblePair.getGrid().equals(stem1.getGrid()))
 				continue;
-			if (possiblePair.getPossibleNumbers().size() != 2)
+			if (possiblePair.getPossibleNumberCount() != 2)
 				continue;
-			if (Slot.getSharedNumbers(stem1, possiblePair).size() != 1)
+			if (NumberSet.size(Slot.getSharedNumbers(stem1, possiblePair)) != 1)
 				continue;
 			
 			possiblePairs.add(possiblePair);
@@ -375,19 +885,19 @@ public class SudokuSolver
 		List<Slot> hooks = new ArrayList<>();
 		for (Slot slot : hookSearchSlots)
 		{
-			if (slot.getPossibleNumbers().size() != 2)
+			if (slot.getPossibleNumberCount() != 2)
 				continue;
 			
-			List<Integer> firstSharedNumbers = Slot.getSharedNumbers(slot, stems.get(0));
-			if (firstSharedNumbers.size() != 1)
+			int firstSharedNumbers = Slot.getSharedNumbers(slot, stems.get(0));
+			if (NumberSet.size(firstSharedNumbers) != 1)
 				continue;
 			
-			List<Integer> secondSharedNumbers = Slot.getSharedNumbers(slot, stems.get(1));
-			if (secondSharedNumbers.size() != 1)
+			int secondSharedNumbers = Slot.getSharedNumbers(slot, stems.get(1));
+			if (NumberSet.size(secondSharedNumbers) != 1)
 				continue;
 			
 			// The shared numbers can't be the same for both stems
-			if (firstSharedNumbers.get(0) == secondSharedNumbers.get(0))
+			if (firstSharedNumbers == secondSharedNumbers)
 				continue;
 			
 			hooks.add(slot);
@@ -399,29 +909,30 @@ public class SudokuSolver
 	private static Slot getBestRiskSlot(SudokuGrid sudoku)
 	{	
 		// Starts from the center grid, then checks the other ones
-		Slot best = getBestRiskSlot(sudoku.getGrid(1, 1));
+		int center = sudoku.getBoxSize() / 2;
+		Slot best = getBestRiskSlot(sudoku.getGrid(center, center));
 		
 		int minNumbers = -1;
 		if (best != null)
-			minNumbers = best.getPossibleNumbers().size();
+			minNumbers = best.getPossibleNumberCount();
 		
 		// The best possible is a slot where there are only 2 choices
 		if (minNumbers == 2)
 			return best;
 		
-		for (int x = 0; x < 3; x++)
+		for (int x = 0; x < sudoku.getBoxSize(); x++)
 		{
-			for (int y = 0; y < 3; y++)
+			for (int y = 0; y < sudoku.getBoxSize(); y++)
 			{
 				// Skips the center this time
-				if (x == 1 && y == 1)
+				if (x == center && y == center)
 					continue;
 				
 				Slot gridBest = getBestRiskSlot(sudoku.getGrid(x, y));
 				if (gridBest == null)
 					continue;
 				
-				int numbers = gridBest.getPossibleNumbers().size();
+				int numbers = gridBest.getPossibleNumberCount();
 				if (numbers == 2)
 					return gridBest;
 				else if (best == null || numbers < minNumbers)
@@ -444,7 +955,7 @@ public class SudokuSolver
 		{
 			if (!slot.hasNumber())
 			{
-				int numbers = slot.getPossibleNumbers().size();
+				int numbers = slot.getPossibleNumberCount();
 				if (numbers == 2)
 					return slot;
 				else if (best == null || numbers < possibleNumbers)
@@ -460,64 +971,99 @@ public class SudokuSolver
 	
 	private static Result safeSolveNext(SudokuGrid sudoku) throws UnsolvablePuzzleException
 	{
+		// Only some of the steps are recorded since the phases are very short
+		PhaseEvent phase = SolverEvents.samplePhases() ? new PhaseEvent() : null;
+		if (phase != null)
+			phase.begin();
+		
 		Result r = primarySolveNext(sudoku);
 		
+		if (phase != null)
+			commitPhaseEvent(phase, Technique.ONLY_POSSIBLE_NUMBER, r);
+		
 		// 0: primary
 		// 1: grid (back to 1, skipping 1)
-		// 2: Secondary1 -> back to 1, skipping 2
-		// 3: Secondary2 -> back to 1, skipping 3
-		// 4: Hidden twin -> back to 1, skipping 4
-		// 5: Naked twin -> back to 1, skipping 5
-		// 6: Hook method -> back to 1, skipping 6
-		// 7: Failure
+		// 2: Cage sums -> back to 1, skipping 2
+		// 3: Secondary1 -> back to 1, skipping 3
+		// 4: Secondary2 -> back to 1, skipping 4
+		// 5: Hidden twin -> back to 1, skipping 5
+		// 6: Naked twin -> back to 1, skipping 6
+		// 7: Hook method -> back to 1, skipping 7
+		// 8: Simple coloring -> back to 1, skipping 8
+		// 9: X-chains -> back to 1, skipping 9
+		// 10: Failure
 		int currentPhase = 1;
 		int lastMaxPhase = 0;
 		
-		Map<Integer, String> notations = new HashMap<>();
-		notations.put(0, "");
-		notations.put(1, "");
-		notations.put(2, " (common column)");
-		notations.put(3, " (common row)");
-		notations.put(4, " (hidden twin)");
-		notations.put(5, " (naked twin)");
-		notations.put(6, " (hook method)");
+		// Techniques that depend on the shape of the boxes are skipped for irregular regions
+		SudokuRules rules = sudoku.getRules();
+		Technique[] phaseTechniques = {Technique.ONLY_POSSIBLE_NUMBER, 
+				Technique.ONLY_PLACE_IN_GRID, Technique.CAGE_SUM, Technique.COMMON_COLUMN, 
+				Technique.COMMON_ROW, Technique.HIDDEN_TWIN, Technique.NAKED_TWIN, 
+				Technique.HOOK, Technique.SIMPLE_COLORING, Technique.X_CHAIN};
 		
-		while (currentPhase < 7 && !r.isClear())
+		while (currentPhase < 10 && !r.isClear())
 		{
 			while (currentPhase <= lastMaxPhase + 1 && !r.isClear())
 			{
+				if (currentPhase == 10)
+					break;
+				
 				if (currentPhase != lastMaxPhase)
 				{
+					// A new event is only made for the steps whose phases are recorded
+					if (phase != null)
+					{
+						phase = new PhaseEvent();
+						phase.begin();
+					}
+					
 					switch (currentPhase)
 					{
 						case 1: r = gridSolveNext(sudoku); break;
-						case 2: r = secondarySolveNext(sudoku, true); break;
-						case 3: r = secondarySolveNext(sudoku, false); break;
+						case 2: r = cageSolveNext(sudoku); break;
+						case 3:
+							if (rules.hasRegularBoxes())
+								r = secondarySolveNext(sudoku, true);
+							break;
 						case 4:
-							for (NineSlotGrid grid : sudoku.getGrids())
+							if (rules.hasRegularBoxes())
+								r = secondarySolveNext(sudoku, false);
+							break;
+						case 5:
+							for (int i = 0; i < rules.getRegionCount(); i++)
 							{
-								filterHiddenTwins(grid);
+								filterHiddenTwins(sudoku.getRegion(i), sudoku.getSize());
 							}
 							break;
-						case 5:
-							for (NineSlotGrid grid : sudoku.getGrids())
+						case 6:
+							for (int i = 0; i < rules.getRegionCount(); i++)
 							{
-								r = NakedTwinSolve(grid);
+								r = NakedTwinSolve(sudoku.getRegion(i));
 								if (r.isClear())
 									break;
 							}
 							break;
-						case 6:
+						case 7:
 							//r = Result.failure();
-							r = hookSolveNext(sudoku);
+							if (rules.hasRegularBoxes())
+								r = hookSolveNext(sudoku);
+							break;
+						case 8: r = DigitChains.colorNext(sudoku); break;
+						case 9:
+							r = DigitChains.xChainNext(sudoku, DigitChains.MAX_X_CHAIN_LENGTH);
 							break;
 					}
 					
-					if (currentPhase == 7)
-						break;
+					if (phase != null)
+						commitPhaseEvent(phase, phaseTechniques[currentPhase], r);
 					
+					// The step is credited to the most expensive technique it required
 					if (r.isClear() && currentPhase < lastMaxPhase)
-						r.message += notations.get(lastMaxPhase);
+					{
+						r.message += phaseTechniques[lastMaxPhase].getNotation();
+						r.technique = phaseTechniques[lastMaxPhase];
+					}
 					
 					// Skips back to the beginning once a new step is reached
 					if (currentPhase > lastMaxPhase)
@@ -582,19 +1128,31 @@ public class SudokuSolver
 		*/
 	}
 	
+	private static void commitPhaseEvent(PhaseEvent event, Technique technique, Result r)
+	{
+		event.end();
+		if (event.shouldCommit())
+		{
+			event.technique = technique.name();
+			event.solved = r.isClear();
+			event.commit();
+		}
+	}
+	
 	private static Result primarySolveNext(SudokuGrid sudoku) throws UnsolvablePuzzleException
 	{
 		// Picks the next grid
-		for (int gridX = 0; gridX < 3; gridX++)
+		int boxSize = sudoku.getBoxSize();
+		for (int gridX = 0; gridX < boxSize; gridX++)
 		{
-			for (int gridY = 0; gridY < 3; gridY++)
+			for (int gridY = 0; gridY < boxSize; gridY++)
 			{
 				NineSlotGrid grid = sudoku.getGrid(gridX, gridY);
 				
 				// Picks the next target slot
-				for (int x = 0; x < 3; x++)
+				for (int x = 0; x < boxSize; x++)
 				{
-					for (int y = 0; y < 3; y++)
+					for (int y = 0; y < boxSize; y++)
 					{
 						Slot slot = grid.getSlot(x, y);
 						
@@ -602,14 +1160,15 @@ public class SudokuSolver
 						if (slot.updateRequired())
 						{
 							updateSlotNumbers(slot);
-							if (slot.getPossibleNumbers().size() == 0)
+							if (slot.getPossibleNumberCount() == 0)
 								throw new UnsolvablePuzzleException(slot);
 							
 							// If there's only a single possible number, adds it to the slot
-							if (slot.getPossibleNumbers().size() == 1)
+							if (slot.getPossibleNumberCount() == 1)
 							{
-								slot.setNumber(slot.getPossibleNumbers().get(0));
-								return new Result(true, "Only possible number", slot);
+								slot.setNumber(NumberSet.first(slot.getPossibleNumbers()));
+								return new Result(true, "Only possible number", slot, 
+										Technique.ONLY_POSSIBLE_NUMBER);
 							}
 						}
 					}
@@ -624,98 +1183,70 @@ public class SudokuSolver
 	private static Result secondarySolveNext(SudokuGrid sudoku, boolean forColumns) throws 
 			UnsolvablePuzzleException
 	{
-		// Goes throug each grid and checks if a number must be on a certain column / row
-		// Modifies other grids accordingly
-		for (int gridX = 0; gridX < 3; gridX ++)
+		SudokuRules rules = sudoku.getRules();
+		UnitPositions positions = sudoku.getUnitPositions();
+		int boxSize = sudoku.getBoxSize();
+		int size = sudoku.getSize();
+		int firstLine = forColumns ? 2 * size : size;
+		Technique technique = forColumns ? Technique.COMMON_COLUMN : Technique.COMMON_ROW;
+		String lineName = forColumns ? "column" : "row";
+		
+		// If a number must be on a certain column / row inside a grid, the rest of the 
+		// column / row can't have it (pointing)
+		for (int box = 0; box < size; box++)
 		{
-			for (int gridY = 0; gridY < 3; gridY ++)
+			int gridX = box / boxSize;
+			int gridY = box % boxSize;
+			
+			for (int number = 1; number <= size; number++)
 			{
-				NineSlotGrid grid = sudoku.getGrid(gridX, gridY);
-				List<Integer> remaining = NineSlotGrid.getRemainingNumbers(
-						grid.getUsedNumbers());
-				
-				// Neighbor grids are either on the same row or on the same column
-				List<NineSlotGrid> neighbors;
-				if (forColumns)
-					neighbors = sudoku.getGridColumn(gridX);
-				else
-					neighbors = sudoku.getGridRow(gridY);
-				neighbors.remove(grid);
+				int places = positions.getPlaces(box, number);
+				if (places == 0 || positions.isPlaced(box, number))
+					continue;
 				
-				for (Integer number : remaining)
+				for (int i = 0; i < boxSize; i++)
 				{
-					// Grids that already have the number are not affected
-					List<NineSlotGrid> affected = new ArrayList<>(); 
-					for (NineSlotGrid otherGrid : neighbors)
-					{
-						if (!otherGrid.getUsedNumbers().contains(number))
-							affected.add(otherGrid);
-					}
-					// If there are no affected grids, doesn't need checking
-					if (affected.isEmpty())
+					if ((places & ~rules.getBoxLineMask(forColumns, i)) != 0)
 						continue;
 					
-					int common = -1;
-					boolean notPossible = false;
-					
-					for (int x = 0; x < 3; x++)
-					{
-						for (int y = 0; y < 3; y++)
-						{
-							Slot slot = grid.getSlot(x, y);
-							if (slot.getPossibleNumbers().contains(number))
-							{
-								int position;
-								if (forColumns)
-									position = x;
-								else
-									position = y;
-								
-								if (common < 0)
-								{
-									common = position;
-								}
-								else if (position != common)
-								{
-									notPossible = true;
-									break;
-								}
-							}
-						}
-					}
+					int line = (forColumns ? gridX : gridY) * boxSize + i;
+					int segment = forColumns ? gridY : gridX;
+					Result r = eliminate(sudoku, firstLine + line, number, 
+							~rules.getSegmentMask(segment), "Common " + lineName + " method", 
+							technique);
+					if (r.isClear())
+						return r;
+					break;
+				}
+			}
+		}
+		
+		// If a number must be in a certain grid on a column / row, the rest of the grid 
+		// can't have it (claiming)
+		for (int line = 0; line < size; line++)
+		{
+			for (int number = 1; number <= size; number++)
+			{
+				int places = positions.getPlaces(firstLine + line, number);
+				if (places == 0 || positions.isPlaced(firstLine + line, number))
+					continue;
+				
+				for (int segment = 0; segment < boxSize; segment++)
+				{
+					if ((places & ~rules.getSegmentMask(segment)) != 0)
+						continue;
 					
-					if (!notPossible)
-					{
-						// If a common column / row was found, affects the other grids
-						for (NineSlotGrid affectedGrid : affected)
-						{
-							List<Slot> affectedSlots;
-							if (forColumns)
-								affectedSlots = affectedGrid.getColumnSlots(common);
-							else
-								affectedSlots = affectedGrid.getRowSlots(common);
-								
-							for (Slot slot : affectedSlots)
-							{
-								if (!slot.hasNumber())
-								{
-									slot.removePossibleNumber(number);
-									if (slot.getPossibleNumbers().size() == 0)
-										throw new UnsolvablePuzzleException(slot);
-									else if (slot.getPossibleNumbers().size() == 1)
-									{
-										slot.setNumber(slot.getPossibleNumbers().get(0));
-										String message;
-										if (forColumns)
-											message = "Common column method";
-										else
-											message = "Common row method";
-										return new Result(true, message, slot);
-									}
-								}
-							}
-						}
-					}
+					int box;
+					if (forColumns)
+						box = (line / boxSize) * boxSize + segment;
+					else
+						box = segment * boxSize + line / boxSize;
+					Result r = eliminate(sudoku, box, number, 
+							~rules.getBoxLineMask(forColumns, line % boxSize), 
+							"Common " + lineName + " in grid", technique);
+					if (r.isClear())
+						return r;
+					break;
 				}
 			}
 		}
@@ -723,23 +1254,52 @@ public class SudokuSolver
 		return Result.failure();
 	}
 	
+	private static Result eliminate(SudokuGrid sudoku, int unit, int number, int placeMask, 
+			String message, Technique technique) throws UnsolvablePuzzleException
+	{
+		// Removes the number from the given places of the unit
+		int[] slots = sudoku.getRules().getUnit(unit);
+		int size = sudoku.getSize();
+		int targets = sudoku.getUnitPositions().getPlaces(unit, number) & placeMask;
+		
+		for (int rest = targets; rest != 0; rest &= rest - 1)
+		{
+			int index = slots[Integer.numberOfTrailingZeros(rest)];
+			Slot slot = sudoku.getSlot(index % size, index / size);
+			slot.removePossibleNumber(number);
+			
+			if (slot.getPossibleNumberCount() == 0)
+				throw new UnsolvablePuzzleException(slot, Reason.NO_POSSIBLE_NUMBERS, 
+						sudoku.getUnit(unit), number);
+			else if (slot.getPossibleNumberCount() == 1)
+			{
+				slot.setNumber(NumberSet.first(slot.getPossibleNumbers()));
+				return new Result(true, message, slot, technique);
+			}
+		}
+		
+		return Result.failure();
+	}
+	
 	// http://www.sudokudragon.com/sudokustrategy.htm#XL2104
 	
-	private static void filterHiddenTwins(NineSlotGrid grid)
+	private static void filterHiddenTwins(List<Slot> slots, int maxNumber)
 	{
 		// If there are two numbers that can appear in only two shared spots, no other number 
 		// can appear in those spots
 		// First finds the numbers that appear in exactly two spots
 		List<Twin> twins = new ArrayList<>();
-		List<Slot> slots = grid.getSlots();
 		
-		for (int number : NineSlotGrid.getRemainingNumbers(NineSlotGrid.getSlotNumbers(slots)))
+		int remaining = NineSlotGrid.getRemainingNumbers(NineSlotGrid.getSlotNumbers(slots), 
+				maxNumber);
+		for (int rest = remaining; rest != 0; rest &= rest - 1)
 		{
+			int number = NumberSet.first(rest);
 			List<Slot> spots = new ArrayList<>();
 			
 			for (Slot slot : slots)
 			{
-				if (slot.getPossibleNumbers().contains(number))
+				if (slot.isPossible(number))
 				{
 					spots.add(slot);
 					if (spots.size() > 2)
@@ -765,29 +1325,25 @@ public class SudokuSolver
 				{
 					for (Slot slot : first.slots)
 					{
-						if (slot.getPossibleNumbers().size() > 2)
-						{
-							slot.getPossibleNumbers().clear();
-							slot.addPossibleNumber(first.number);
-							slot.addPossibleNumber(second.number);
-						}
+						if (slot.getPossibleNumberCount() > 2)
+							slot.setPossibleNumbers(NumberSet.of(first.number) | 
+									NumberSet.of(second.number));
 					}
 				}
 			}
 		}
 	}
 	
-	private static Result NakedTwinSolve(NineSlotGrid grid) throws UnsolvablePuzzleException
+	private static Result NakedTwinSolve(List<Slot> slots) throws UnsolvablePuzzleException
 	{
 		// If there are two slot that can only have two numbers, those numbers can't be put 
 		// anywhere else
 		
 		// First searches for slots that fit only two numbers
-		List<Slot> slots = grid.getSlots();
 		List<Slot> twoNumberSlots = new ArrayList<>();
 		for (Slot slot : slots)
 		{
-			if (slot.getPossibleNumbers().size() == 2)
+			if (slot.getPossibleNumberCount() == 2)
 				twoNumberSlots.add(slot);
 		}
 		
@@ -800,20 +1356,22 @@ public class SudokuSolver
 			{
 				Slot second = twoNumberSlots.get(b);
 				
-				if (first.getPossibleNumbers().containsAll(second.getPossibleNumbers()))
+				if (first.getPossibleNumbers() == second.getPossibleNumbers())
 				{
 					// If a twin is found, removes the numbers from other slots
 					for (Slot slot : slots)
 					{
 						if (!slot.hasNumber() && !slot.equals(first) && !slot.equals(second))
 						{
-							slot.getPossibleNumbers().removeAll(first.getPossibleNumbers());
-							if (slot.getPossibleNumbers().size() == 0)
-								throw new UnsolvablePuzzleException(slot);
-							else if (slot.getPossibleNumbers().size() == 1)
+							slot.removePossibleNumbers(first.getPossibleNumbers());
+							if (slot.getPossibleNumberCount() == 0)
+								throw new UnsolvablePuzzleException(slot, 
+										Reason.NO_POSSIBLE_NUMBERS, slots, 0);
+							else if (slot.getPossibleNumberCount() == 1)
 							{
-								slot.setNumber(slot.getPossibleNumbers().get(0));
-								return new Result(true, "Naked twin solve", slot);
+								slot.setNumber(NumberSet.first(slot.getPossibleNumbers()));
+								return new Result(true, "Naked twin solve", slot, 
+										Technique.NAKED_TWIN);
 							}
 						}
 					}
@@ -826,67 +1384,70 @@ public class SudokuSolver
 	
 	private static Result gridSolveNext(SudokuGrid sudoku) throws UnsolvablePuzzleException
 	{
-		// Tries to fill the grids after the changes in previous methods
-		for (int x = 0; x < 3; x++)
+		// Looks for a number that fits only one place in a unit. The regions are checked 
+		// first, then the rows, columns and diagonals.
+		SudokuRules rules = sudoku.getRules();
+		UnitPositions positions = sudoku.getUnitPositions();
+		int size = sudoku.getSize();
+		
+		for (int unit = 0; unit < rules.getUnitCount(); unit++)
 		{
-			for (int y = 0; y < 3; y++)
+			for (int number = 1; number <= size; number++)
 			{
-				Result r = fillGrid(sudoku.getGrid(x, y));
-				if (r.isClear())
-					return r;
+				if (positions.isPlaced(unit, number))
+					continue;
+				
+				int places = positions.getPlaces(unit, number);
+				if (places == 0)
+				{
+					List<Slot> slots = sudoku.getUnit(unit);
+					throw new UnsolvablePuzzleException(slots.get(slots.size() / 2), 
+							Reason.NO_PLACE_FOR_NUMBER, slots, number);
+				}
+				
+				// A single bit means a single place
+				if ((places & (places - 1)) == 0)
+				{
+					int index = rules.getUnit(unit)[Integer.numberOfTrailingZeros(places)];
+					Slot slot = sudoku.getSlot(index % size, index / size);
+					slot.setNumber(number);
+					return new Result(true, "Only place in the " + rules.getUnitName(unit), 
+							slot, Technique.ONLY_PLACE_IN_GRID);
+				}
 			}
 		}
 		
 		return Result.failure();
 	}
 	
-	private static void updateSlotNumbers(Slot slot)
+	private static Result cageSolveNext(SudokuGrid sudoku) throws UnsolvablePuzzleException
 	{
-		// Finds all the numbers that remain
-		List<Integer> possible = NineSlotGrid.getRemainingNumbers(
-				NineSlotGrid.getSlotNumbers(slot.getConnectedSlots()));
-		slot.setPossibleNumbers(possible);
-		slot.setUpdateRequired(false);
-	}
-	
-	private static Result fillGrid(NineSlotGrid grid) throws UnsolvablePuzzleException
-	{
-		// If a number fits only one place, adds it to the grid
-		List<Slot> slots = grid.getSlots();
-		List<Integer> remainingNumbers = NineSlotGrid.getRemainingNumbers(
-				NineSlotGrid.getSlotNumbers(slots));
-		
-		for (Integer number : remainingNumbers)
+		// Removes the numbers that don't fit the sums of the cages
+		for (Cage cage : sudoku.getRules().getCages())
 		{
-			Slot firstFit = null;
-			boolean tooManySlots = false;
-			
-			for (Slot slot : slots)
-			{
-				if (slot.getPossibleNumbers().contains(number))
-				{
-					if (firstFit == null)
-						firstFit = slot;
-					else
-					{
-						tooManySlots = true;
-						break;
-					}
-				}
-			}
-			
-			if (!tooManySlots)
-			{
-				if (firstFit == null)
-					throw new UnsolvablePuzzleException(grid.getSlot(1, 1));
-				firstFit.setNumber(number);
-				return new Result(true, "Only place in the grid", firstFit);
-			}
+			Result r = cage.prune(sudoku);
+			if (r.isClear())
+				return r;
 		}
 		
 		return Result.failure();
 	}
 	
+	/**
+	 * Updates the possible numbers of a slot based on the slots connected to it
+	 * @param slot The slot that is updated
+	 */
+	static void updateSlotNumbers(Slot slot)
+	{
+		// Finds all the numbers that remain
+		int possible = NineSlotGrid.getRemainingNumbers(
+				NineSlotGrid.getSlotNumbers(slot.getConnectedSlots()), 
+				slot.getGrid().getGrid().getSize());
+		slot.setPossibleNumbers(possible);
+		slot.setUpdateRequired(false);
+	}
+	
+	
 	
 	// SUBCLASSES	--------------------
 	
@@ -902,6 +1463,7 @@ public class SudokuSolver
 		private String message;
 		private boolean isClear, isGuess;
 		private Slot target;
+		private Technique technique;
 		
 		
 		// CONSTRUCTOR	----------------
@@ -913,11 +1475,24 @@ public class SudokuSolver
 		 * @param target The slot that was changed (if any)
 		 */
 		public Result(boolean clear, String message, Slot target)
+		{
+			this(clear, message, target, null);
+		}
+		
+		/**
+		 * Creates a new result
+		 * @param clear Was the solve successful
+		 * @param message A message given with the result
+		 * @param target The slot that was changed (if any)
+		 * @param technique The technique that was used for the step (if any)
+		 */
+		public Result(boolean clear, String message, Slot target, Technique technique)
 		{
 			this.message = message;
 			this.isClear = clear;
 			this.target = target;
-			this.isGuess = false;
+			this.technique = technique;
+			this.isGuess = technique == Technique.GUESS;
 		}
 		
 		
@@ -947,6 +1522,22 @@ public class SudokuSolver
 			return this.target;
 		}
 		
+		/**
+		 * @return Was the step a guess
+		 */
+		public boolean isGuess()
+		{
+			return this.isGuess;
+		}
+		
+		/**
+		 * @return The technique the step required (null if no step was taken)
+		 */
+		public Technique getTechnique()
+		{
+			return this.technique;
+		}
+		
 		
 		// OTHER METHODS	------------
 		
@@ -960,10 +1551,115 @@ public class SudokuSolver
 		
 		private static Result guess(StepData risk, Slot newSlot)
 		{
-			Result r = new Result(true, "Guess (1 / " +risk.possibilities + ")", 
-					newSlot);
-			r.isGuess = true;
-			return r;
+			return new Result(true, "Guess (1 / " +risk.possibilities + ")", 
+					newSlot, Technique.GUESS);
+		}
+	}
+	
+	/**
+	 * These are the techniques the solver uses. They are listed in the order they were 
+	 * added, since the recorded steps refer to the techniques by their position. The order 
+	 * doesn't tell how hard a technique is. Instead each technique has a weight that the 
+	 * difficulty ratings are based on.
+	 * @author Mikko Hilpinen
+	 * @since 18.10.2026
+	 */
+	public static enum Technique
+	{
+		/**
+		 * A slot has only a single possible number left
+		 */
+		ONLY_POSSIBLE_NUMBER("", 1),
+		/**
+		 * A number has only a single possible place left in a grid
+		 */
+		ONLY_PLACE_IN_GRID("", 2),
+		/**
+		 * The numbers of a cage must add up to its sum
+		 */
+		CAGE_SUM(" (cage sum)", 4),
+		/**
+		 * A number must be on a certain column inside a grid
+		 */
+		COMMON_COLUMN(" (common column)", 5),
+		/**
+		 * A number must be on a certain row inside a grid
+		 */
+		COMMON_ROW(" (common row)", 5),
+		/**
+		 * Two numbers can only be placed into the same two slots
+		 */
+		HIDDEN_TWIN(" (hidden twin)", 10),
+		/**
+		 * Two slots can only hold the same two numbers
+		 */
+		NAKED_TWIN(" (naked twin)", 8),
+		/**
+		 * Three two-number slots form a hook
+		 */
+		HOOK(" (hook method)", 15),
+		/**
+		 * A number is guessed
+		 */
+		GUESS("", 40),
+		/**
+		 * A guess is undone since it lead to a dead end
+		 */
+		RETRACE("", 10),
+		// New techniques are added to the end so that the recorded steps keep their ids
+		/**
+		 * The conjugate pairs of a number are colored and a color is found false or a slot 
+		 * sees both colors
+		 */
+		SIMPLE_COLORING(" (simple coloring)", 20),
+		/**
+		 * A chain of strong and weak links shows that one of its ends must hold a number
+		 */
+		X_CHAIN(" (x-chain)", 25),
+		/**
+		 * An alternating chain of inferences over several numbers removes possible numbers 
+		 * or leads to a contradiction
+		 */
+		CHAIN(" (chain)", 30),
+		/**
+		 * The options of a slot are tried out and the ones that fail right away are removed
+		 */
+		PROBE(" (probe)", 20);
+		
+		
+		// ATTRIBUTES	-------------
+		
+		private final String notation;
+		private final int weight;
+		
+		
+		// CONSTRUCTOR	-------------
+		
+		private Technique(String notation, int weight)
+		{
+			this.notation = notation;
+			this.weight = weight;
+		}
+		
+		
+		// ACCESSORS	-------------
+		
+		/**
+		 * @return The notation added to a step message when an easier technique finishes 
+		 * the work of this one
+		 */
+		public String getNotation()
+		{
+			return this.notation;
+		}
+		
+		/**
+		 * @return How hard the technique is to use. The rating of a puzzle adds up the 
+		 * weights of its steps and the technique with the highest weight is its hardest.
+		 */
+		public int getWeight()
+		{
+			return this.weight;
 		}
 	}
 	
@@ -975,6 +1671,8 @@ public class SudokuSolver
 		private Slot targetSlot;
 		private int newNumber;
 		private int possibilities;
+		private long hash; // The state of the grid before the guess, 0 if unknown
+		private List<Long> branchDeadEnds; // The states that fail if the guess fails, or null
 		
 		
 		// CONSTRUCTOR	--------------
@@ -985,6 +1683,8 @@ public class SudokuSolver
 			this.targetSlot = slot;
 			this.newNumber = newNumber;
 			this.possibilities = possibilities;
+			this.hash = 0;
+			this.branchDeadEnds = null;
 		}
 	}
 	
@@ -1039,11 +1739,11 @@ public class SudokuSolver
 					stems.get(1).getGrid()))
 				System.err.println("Hook doesn't share a grid with a stem");
 			
-			if (Slot.getSharedNumbers(stems.get(0), stems.get(1)).size() != 1)
+			if (NumberSet.size(Slot.getSharedNumbers(stems.get(0), stems.get(1))) != 1)
 				System.err.println("Possible stem numbers don't link together");
 			
-			if (Slot.getSharedNumbers(hook, stems.get(0)).size() != 1 || 
-					Slot.getSharedNumbers(hook, stems.get(1)).size() != 1)
+			if (NumberSet.size(Slot.getSharedNumbers(hook, stems.get(0))) != 1 || 
+					NumberSet.size(Slot.getSharedNumbers(hook, stems.get(1))) != 1)
 				System.err.println("Possible hook numbers don't link with the stems");
 				*/
 		}
@@ -1070,18 +1770,11 @@ public class SudokuSolver
 			Slot best = getOutsideStem();
 			
 			// The new number is the one shared between the stems
-			int newNumber = -1;
-			for (int number : this.stems.get(0).getPossibleNumbers())
-			{
-				if (this.stems.get(1).getPossibleNumbers().contains(number))
-				{
-					newNumber = number;
-					break;
-				}
-			}
+			int newNumber = NumberSet.first(Slot.getSharedNumbers(this.stems.get(0), 
+					this.stems.get(1)));
 			
 			return new StepData(best.getGrid().getGrid(), best, newNumber, 
-					best.getPossibleNumbers().size());
+					best.getPossibleNumberCount());
 		}
 		/*
 		public void mark()
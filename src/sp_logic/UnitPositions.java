@@ -0,0 +1,198 @@
+package sp_logic;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * UnitPositions keeps track of the places each number can still go to in each unit of a 
+ * grid. The places are stored as bit masks (bit n is set when the nth slot of the unit can 
+ * hold the number) and they are updated by the slots whenever their numbers change, so 
+ * finding a number that fits only one place in a unit doesn't require going through the 
+ * slots.<br> 
+ * The positions also keep a Zobrist hash of the numbers and the possible numbers of the 
+ * slots. Grids of the same rules that are in the same state have the same hash, no matter 
+ * how they got there.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+final class UnitPositions
+{
+	// ATTRIBUTES	---------------------
+	
+	private static final long KEY_SEED = 0x5D0C0DE5EED5L;
+	private static final Map<Integer, long[]> KEYS = new HashMap<>();
+	
+	private SudokuRules rules;
+	private int[] source; // Changes whenever the units of the rules change
+	private int size;
+	private int[] places; // Unit index * size + number - 1 -> places that can hold the number
+	private int[] placed; // Unit index * size + number - 1 -> slots that hold the number
+	private int[] versions; // Number -> how many times the places of the number have changed
+	private long[] keys; // (Slot index * size + number - 1) * 2 (+ 1 if placed) -> hash key
+	private long hash;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	/**
+	 * Finds the places of the numbers in a grid
+	 * @param sudoku The grid whose numbers are tracked
+	 */
+	UnitPositions(SudokuGrid sudoku)
+	{
+		this.rules = sudoku.getRules();
+		this.source = this.rules.getUnitPlaces(0);
+		this.size = this.rules.getSize();
+		this.places = new int[this.rules.getUnitCount() * this.size];
+		this.placed = new int[this.places.length];
+		this.versions = new int[this.size + 1];
+		this.keys = getKeys(this.size);
+		this.hash = this.rules.getFingerprint();
+		
+		for (Slot slot : sudoku.getSlots())
+		{
+			update(slot.getIndex(), 0, NumberSet.EMPTY, slot.getNumber(), 
+					slot.getPossibleNumbers());
+		}
+	}
+	
+	/**
+	 * Copies the places of another grid
+	 * @param other The places that are copied
+	 */
+	UnitPositions(UnitPositions other)
+	{
+		this.rules = other.rules;
+		this.source = other.source;
+		this.size = other.size;
+		this.places = other.places.clone();
+		this.placed = other.placed.clone();
+		this.versions = other.versions.clone();
+		this.keys = other.keys;
+		this.hash = other.hash;
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * @param rules The rules of the grid
+	 * @return Were the places found using the current units of the rules
+	 */
+	boolean isCurrent(SudokuRules rules)
+	{
+		return rules == this.rules && rules.getUnitPlaces(0) == this.source;
+	}
+	
+	/**
+	 * @param unit The index of a unit
+	 * @param number A number
+	 * @return The places in the unit that can hold the number as a bit mask
+	 */
+	int getPlaces(int unit, int number)
+	{
+		return this.places[unit * this.size + number - 1];
+	}
+	
+	/**
+	 * @param unit The index of a unit
+	 * @param number A number
+	 * @return Does a slot in the unit already hold the number
+	 */
+	boolean isPlaced(int unit, int number)
+	{
+		return this.placed[unit * this.size + number - 1] > 0;
+	}
+	
+	/**
+	 * @param number A number
+	 * @return A value that changes whenever the places of the number or the slots holding 
+	 * it change
+	 */
+	int getVersion(int number)
+	{
+		return this.versions[number];
+	}
+	
+	/**
+	 * @return A hash of the numbers and the possible numbers of all the slots
+	 */
+	long getHash()
+	{
+		return this.hash;
+	}
+	
+	/**
+	 * Updates the places after the state of a slot changed
+	 * @param slot The index of the slot
+	 * @param oldNumber The number the slot used to hold (0 if none)
+	 * @param oldPossible The numbers that used to be possible for the slot
+	 * @param newNumber The number the slot holds now (0 if none)
+	 * @param newPossible The numbers that are possible for the slot now
+	 */
+	void update(int slot, int oldNumber, int oldPossible, int newNumber, int newPossible)
+	{
+		int changed = oldPossible ^ newPossible;
+		if (changed == 0 && oldNumber == newNumber)
+			return;
+		
+		int firstKey = slot * this.size - 1;
+		for (int rest = changed; rest != 0; rest &= rest - 1)
+		{
+			int number = NumberSet.first(rest);
+			this.versions[number] ++;
+			this.hash ^= this.keys[(firstKey + number) * 2];
+		}
+		if (oldNumber != newNumber)
+		{
+			this.versions[Math.max(oldNumber, 0)] ++;
+			this.versions[Math.max(newNumber, 0)] ++;
+			if (oldNumber > 0)
+				this.hash ^= this.keys[(firstKey + oldNumber) * 2 + 1];
+			if (newNumber > 0)
+				this.hash ^= this.keys[(firstKey + newNumber) * 2 + 1];
+		}
+		
+		for (int unitPlace : this.rules.getUnitPlaces(slot))
+		{
+			int first = unitPlace - unitPlace % this.size;
+			int bit = 1 << (unitPlace % this.size);
+			
+			for (int rest = changed; rest != 0; rest &= rest - 1)
+			{
+				int number = NumberSet.first(rest);
+				if (NumberSet.contains(newPossible, number))
+					this.places[first + number - 1] |= bit;
+				else
+					this.places[first + number - 1] &= ~bit;
+			}
+			
+			if (oldNumber != newNumber)
+			{
+				if (oldNumber > 0)
+					this.placed[first + oldNumber - 1] --;
+				if (newNumber > 0)
+					this.placed[first + newNumber - 1] ++;
+			}
+		}
+	}
+	
+	private static synchronized long[] getKeys(int size)
+	{
+		// The keys are always the same so that the hashes of different grids can be compared
+		long[] keys = KEYS.get(size);
+		if (keys == null)
+		{
+			SplittableRandom random = new SplittableRandom(KEY_SEED + size);
+			keys = new long[size * size * size * 2];
+			for (int i = 0; i < keys.length; i++)
+			{
+				keys[i] = random.nextLong();
+			}
+			KEYS.put(size, keys);
+		}
+		
+		return keys;
+	}
+}
@@ -1,7 +1,13 @@
 package sp_logic;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
- * These exceptions are thrown when the sudoku cannot be solved
+ * These exceptions are thrown when the sudoku cannot be solved. The solver throws one for 
+ * each contradiction it runs into while guessing, so the exceptions don't record a stack 
+ * trace. Instead they tell which slot, unit and number the contradiction was found in.
  * @author Mikko Hilpinen
  * @since 8.8.2015
  */
@@ -11,6 +17,9 @@ public class UnsolvablePuzzleException extends Exception
 	
 	private static final long serialVersionUID = -4287114058415043644L;
 	private Slot source;
+	private Reason reason;
+	private List<Slot> unit;
+	private int number;
 	
 	
 	// CONSTRUCTOR	------------------
@@ -21,7 +30,27 @@ public class UnsolvablePuzzleException extends Exception
 	 */
 	public UnsolvablePuzzleException(Slot source)
 	{
+		this(source, Reason.NO_POSSIBLE_NUMBERS, null, 0);
+	}
+	
+	/**
+	 * Creates a new exception
+	 * @param source The slot where the contradiction was found. Null if the contradiction 
+	 * wasn't found in any single slot, like when a complete search finds no solution.
+	 * @param reason Why the puzzle can't be solved
+	 * @param unit The unit (row, column, region or cage) where the contradiction was found. 
+	 * Null if the contradiction doesn't concern a single unit.
+	 * @param number The number that couldn't be placed or was removed last. 0 if no single 
+	 * number is involved.
+	 */
+	public UnsolvablePuzzleException(Slot source, Reason reason, List<Slot> unit, int number)
+	{
+		super(null, null, false, false);
+		
 		this.source = source;
+		this.reason = reason;
+		this.unit = unit;
+		this.number = number;
 	}
 	
 	/**
@@ -30,18 +59,134 @@ public class UnsolvablePuzzleException extends Exception
 	 */
 	public UnsolvablePuzzleException(UnsolvablePuzzleException source)
 	{
-		super(source);
+		super(null, source, false, false);
+		
 		this.source = source.getSource();
+		this.reason = source.getReason();
+		this.unit = source.unit;
+		this.number = source.getNumber();
+	}
+	
+	
+	// IMPLEMENTED METHODS	----------
+	
+	@Override
+	public String getMessage()
+	{
+		StringBuilder s = new StringBuilder(this.reason.toString());
+		if (this.source != null)
+			s.append(" at ").append(this.source.getPosition());
+		if (this.number > 0)
+			s.append(", number ").append(this.number);
+		if (this.unit != null)
+			s.append(", unit of ").append(this.unit.size()).append(" slots");
+		
+		return s.toString();
 	}
 	
 	
 	// ACCESSORS	------------------
 	
 	/**
-	 * @return The slot that was noticed unsolvable
+	 * @return The slot that was noticed unsolvable. Null if the contradiction wasn't found 
+	 * in any single slot.
 	 */
 	public Slot getSource()
 	{
 		return this.source;
 	}
+	
+	/**
+	 * @return Why the puzzle can't be solved
+	 */
+	public Reason getReason()
+	{
+		return this.reason;
+	}
+	
+	/**
+	 * @return The slots of the unit where the contradiction was found. Empty if the 
+	 * contradiction doesn't concern a single unit.
+	 */
+	public List<Slot> getUnit()
+	{
+		if (this.unit == null)
+			return Collections.emptyList();
+		return Collections.unmodifiableList(this.unit);
+	}
+	
+	/**
+	 * @return The number that couldn't be placed or was removed last. 0 if no single number 
+	 * is involved.
+	 */
+	public int getNumber()
+	{
+		return this.number;
+	}
+	
+	
+	// OTHER METHODS	--------------
+	
+	/**
+	 * Creates a copy of this exception where the slots are replaced with the slots at the 
+	 * same positions in another grid. This is useful when a puzzle is solved on a copy 
+	 * of the visible grid.
+	 * @param grid The grid the slots are taken from
+	 * @return An exception that points to the slots of the given grid
+	 */
+	public UnsolvablePuzzleException moveTo(SudokuGrid grid)
+	{
+		List<Slot> movedUnit = null;
+		if (this.unit != null)
+		{
+			movedUnit = new ArrayList<>(this.unit.size());
+			for (Slot slot : this.unit)
+			{
+				movedUnit.add(getSlotAt(grid, slot));
+			}
+		}
+		
+		return new UnsolvablePuzzleException(getSlotAt(grid, this.source), this.reason, 
+				movedUnit, this.number);
+	}
+	
+	private static Slot getSlotAt(SudokuGrid grid, Slot slot)
+	{
+		if (slot == null)
+			return null;
+		return grid.getSlot(slot.getColumn(), slot.getRow());
+	}
+	
+	
+	// SUBCLASSES	------------------
+	
+	/**
+	 * These are the different contradictions that make a puzzle unsolvable
+	 * @author Mikko Hilpinen
+	 * @since 18.10.2026
+	 */
+	public static enum Reason
+	{
+		/**
+		 * A slot has no possible numbers left
+		 */
+		NO_POSSIBLE_NUMBERS,
+		/**
+		 * A number has no place left in a unit
+		 */
+		NO_PLACE_FOR_NUMBER,
+		/**
+		 * The numbers of a cage can't add up to its sum
+		 */
+		NO_CAGE_COMBINATION,
+		/**
+		 * The starting numbers break the rules
+		 */
+		INVALID_START,
+		/**
+		 * A complete search didn't find a solution. The contradiction isn't tied to any 
+		 * single slot.
+		 */
+		NO_SOLUTION;
+	}
 }
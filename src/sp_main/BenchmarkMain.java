@@ -0,0 +1,228 @@
+package sp_main;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import sp_logic.DeadEndTable;
+import sp_logic.SolveStats;
+import sp_logic.SolveStats.Report;
+import sp_logic.SudokuReader;
+import sp_logic.SudokuRules;
+import sp_logic.SudokuSolver;
+import sp_logic.UnsolvablePuzzleException;
+import sp_service.SolveBatcher.Puzzle;
+
+/**
+ * BenchmarkMain solves a set of puzzles without the user interface and compares how the 
+ * solver does without a dead end table, with a new table for each solve and with a single 
+ * table shared by all the solves. The puzzles are read from regular sudoku files or from 
+ * collections with one puzzle per line (each line starting with the numbers of the puzzle, 
+ * row after row). The settings rounds (how many times each puzzle is solved, 3 by default) 
+ * and table (the capacity bits of the tables, 16 by default) may be given as name=value 
+ * arguments before the file names.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class BenchmarkMain
+{
+	// CONSTRUCTOR	---------------------
+	
+	private BenchmarkMain()
+	{
+		// The interface is static
+	}
+	
+	
+	// MAIN METHOD	---------------------
+	
+	/**
+	 * Runs the benchmark
+	 * @param args The settings as name=value pairs, followed by the names of the files that 
+	 * contain the puzzles
+	 */
+	public static void main(String[] args)
+	{
+		int rounds = 3;
+		int tableBits = DeadEndTable.DEFAULT_CAPACITY_BITS;
+		List<Puzzle> puzzles = new ArrayList<>();
+		
+		try
+		{
+			for (String arg : args)
+			{
+				if (arg.startsWith("rounds="))
+					rounds = Integer.parseInt(arg.substring(7));
+				else if (arg.startsWith("table="))
+					tableBits = Integer.parseInt(arg.substring(6));
+				else
+					puzzles.addAll(readPuzzles(arg));
+			}
+		}
+		catch (NumberFormatException e)
+		{
+			System.err.println("Invalid number: " + e.getMessage());
+			return;
+		}
+		catch (IOException e)
+		{
+			System.err.println("Couldn't read the puzzles: " + e.getMessage());
+			return;
+		}
+		catch (IllegalArgumentException e)
+		{
+			System.err.println("Invalid puzzle: " + e.getMessage());
+			return;
+		}
+		
+		if (puzzles.isEmpty())
+		{
+			System.err.println("Please provide the sudoku file names as arguments");
+			return;
+		}
+		
+		// The first run isn't shown so that the code has been compiled before timing
+		run(puzzles, rounds, TableMode.NONE, tableBits);
+		
+		System.out.println("Solving " + puzzles.size() + " puzzles " + rounds + 
+				" times with each setting");
+		for (TableMode mode : TableMode.values())
+		{
+			System.out.println(run(puzzles, rounds, mode, tableBits));
+		}
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	private static String run(List<Puzzle> puzzles, int rounds, TableMode mode, int tableBits)
+	{
+		SolveStats stats = new SolveStats();
+		DeadEndTable shared = mode == TableMode.SHARED ? new DeadEndTable(tableBits) : null;
+		long lookups = 0;
+		long hits = 0;
+		
+		long started = System.nanoTime();
+		for (int round = 0; round < rounds; round++)
+		{
+			for (Puzzle puzzle : puzzles)
+			{
+				DeadEndTable table = shared;
+				if (mode == TableMode.PER_SOLVE)
+					table = new DeadEndTable(tableBits);
+				
+				SudokuSolver solver = new SudokuSolver(puzzle.createGrid(), true);
+				solver.setStats(stats);
+				solver.setDeadEndTable(table);
+				try
+				{
+					solver.solve();
+				}
+				catch (UnsolvablePuzzleException e)
+				{
+					// Unsolvable puzzles are counted by the statistics
+				}
+				
+				if (mode == TableMode.PER_SOLVE)
+				{
+					lookups += table.getLookupCount();
+					hits += table.getHitCount();
+				}
+			}
+		}
+		long millis = (System.nanoTime() - started) / 1000000;
+		
+		if (shared != null)
+		{
+			lookups = shared.getLookupCount();
+			hits = shared.getHitCount();
+		}
+		
+		Report report = stats.report();
+		return mode.getDescription() + ": " + millis + " ms, " + 
+				report.getSolvedCount() + " solved, " + report.getUnsolvableCount() + 
+				" unsolvable, " + report.getGuesses().getSum() + " guesses, " + 
+				report.getBacktrackCount() + " backtracks, latency p50 " + 
+				report.getLatency().getValueAtPercentile(50) + " us, p99 " + 
+				report.getLatency().getValueAtPercentile(99) + " us" + 
+				(mode == TableMode.NONE ? "" : ", " + hits + " table hits in " + lookups + 
+				" lookups");
+	}
+	
+	private static List<Puzzle> readPuzzles(String fileName) throws IOException, 
+			IllegalArgumentException
+	{
+		List<Puzzle> puzzles = new ArrayList<>();
+		try
+		{
+			// A regular sudoku file holds a single puzzle
+			int[][] numbers = SudokuReader.readFile(fileName);
+			puzzles.add(new Puzzle(numbers, SudokuReader.readRules(fileName)));
+			return puzzles;
+		}
+		catch (FileNotFoundException e)
+		{
+			throw new IOException("Couldn't find " + fileName, e);
+		}
+		catch (IllegalArgumentException e)
+		{
+			// Otherwise the file is read as a collection of single line puzzles
+		}
+		
+		for (String line : Files.readAllLines(Paths.get(fileName)))
+		{
+			String trimmed = line.trim();
+			if (trimmed.isEmpty() || trimmed.startsWith("*"))
+				continue;
+			
+			String numbers = trimmed.split("\\s+")[0];
+			int size = SudokuReader.getBoxSize(numbers.length());
+			if (!SudokuReader.isSupportedSize(size) || size * size != numbers.length())
+				throw new IllegalArgumentException("Unsupported puzzle in " + fileName + 
+						": " + numbers);
+			
+			List<String> rows = new ArrayList<>();
+			for (int y = 0; y < size; y++)
+			{
+				rows.add(numbers.substring(y * size, (y + 1) * size));
+			}
+			puzzles.add(new Puzzle(SudokuReader.parse(rows), 
+					new SudokuRules(SudokuReader.getBoxSize(size))));
+		}
+		
+		return puzzles;
+	}
+	
+	
+	// SUBCLASSES	---------------------
+	
+	private static enum TableMode
+	{
+		NONE("No dead end table"), 
+		PER_SOLVE("A table for each solve"), 
+		SHARED("A shared table");
+		
+		// ATTRIBUTES	-----------------
+		
+		private final String description;
+		
+		
+		// CONSTRUCTOR	-----------------
+		
+		private TableMode(String description)
+		{
+			this.description = description;
+		}
+		
+		
+		// ACCESSORS	-----------------
+		
+		public String getDescription()
+		{
+			return this.description;
+		}
+	}
+}
@@ -3,12 +3,20 @@ package sp_main;
 import java.awt.Color;
 import java.awt.Font;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
 
+import sp_logic.AsyncSolver;
 import sp_logic.Slot;
+import sp_logic.StepPlayer;
+import sp_logic.StepRecorder;
 import sp_logic.SudokuGrid;
+import sp_logic.SudokuReader;
 import sp_logic.SudokuSolver;
+import sp_logic.SudokuSolver.Result;
 import sp_logic.UnsolvablePuzzleException;
-import flow_io.ListFileReader;
 import gateway_event.ButtonEvent;
 import gateway_event.ButtonEvent.ButtonEventType;
 import gateway_event.ButtonEventListener;
@@ -16,6 +24,8 @@ import gateway_ui.AbstractButton;
 import gateway_ui.InputBar;
 import gateway_ui.MessageBox;
 import gateway_ui.RectangleUIComponentBackground;
+import genesis_event.Actor;
+import genesis_event.ActorHandler;
 import genesis_event.DrawableHandler;
 import genesis_event.EventSelector;
 import genesis_event.HandlerRelay;
@@ -63,40 +73,32 @@ public class Main
 		handlers.addHandler(new DrawableHandler(false, panel.getDrawer()));
 		handlers.addHandler(new KeyListenerHandler(false, window.getHandlerRelay()));
 		handlers.addHandler(new MouseListenerHandler(false, window.getHandlerRelay()));
+		handlers.addHandler(new ActorHandler(false, window.getHandlerRelay()));
 		
-		SudokuGrid sudoku = new SudokuGrid(handlers, margins, 
-				resolution.minus(margins.times(2)));
-		new KeySolver(handlers, sudoku);
-		
-		new MessageBoxInterface(handlers, resolution, margins, sudoku);
+		new MessageBoxInterface(handlers, resolution, margins);
 	}
 	
-	private static void loadSudoku(String fileName, SudokuGrid sudoku) throws FileNotFoundException
+	private static SudokuGrid loadSudoku(String fileName, HandlerRelay handlers, 
+			Vector3D position, Vector3D dimensions) throws FileNotFoundException
 	{
-		ListFileReader reader = new ListFileReader();
-		reader.readFile(fileName, "*");
+		// The size of the grid depends on the puzzle
+		int[][] numbers = SudokuReader.readFile(fileName);
+		SudokuGrid sudoku = new SudokuGrid(handlers, position, dimensions, 
+				SudokuReader.getBoxSize(numbers.length));
+		sudoku.setRules(SudokuReader.readRules(fileName));
+		sudoku.loadNumbers(numbers);
 		
-		int y = 0;
-		for (String line : reader.getLines())
-		{
-			int x = 0;
-			for (int i = 0; i < line.length(); i++)
-			{
-				char c = line.charAt(i);
-				// Whitespaces are skipped
-				if (c != ' ')
-				{
-					// Zeros are not recorded
-					int number = Character.getNumericValue(c);
-					if (number > 0)
-						sudoku.getSlot(x, y).setNumber(number);
-					x ++;
-				}
-			}
-			y ++;
-		}
-		
-		sudoku.lockCurrentNumbers();
+		return sudoku;
+	}
+	
+	private static StepPlayer loadReplay(String fileName, HandlerRelay handlers, 
+			Vector3D position, Vector3D dimensions) throws IOException
+	{
+		// The grid is sized after the recorded sudoku
+		byte[] log = Files.readAllBytes(Paths.get(fileName));
+		SudokuGrid sudoku = new SudokuGrid(handlers, position, dimensions, 
+				StepPlayer.getBoxSize(log));
+		return new StepPlayer(log, sudoku);
 	}
 	
 	
@@ -107,7 +109,8 @@ public class Main
 		// ATTRIBUTES	---------------
 		
 		private EventSelector<ButtonEvent> selector;
-		private SudokuGrid sudoku;
+		private HandlerRelay handlers;
+		private Vector3D resolution, margins;
 		
 		private MessageBox messageBox;
 		private InputBar input;
@@ -115,12 +118,13 @@ public class Main
 		
 		// CONSTRUCTOR	---------------
 		
-		public MessageBoxInterface(HandlerRelay handlers, Vector3D resolution, Vector3D margins, 
-				SudokuGrid sudoku)
+		public MessageBoxInterface(HandlerRelay handlers, Vector3D resolution, Vector3D margins)
 		{
 			super(handlers);
 			
-			this.sudoku = sudoku;
+			this.handlers = handlers;
+			this.resolution = resolution;
+			this.margins = margins;
 			
 			this.selector = ButtonEvent.createButtonEventSelector(ButtonEventType.RELEASED);
 			
@@ -160,11 +164,18 @@ public class Main
 		@Override
 		public void onButtonEvent(ButtonEvent e)
 		{
-			// Tries to load the sudoku
+			// Tries to load the sudoku or a recorded solution
 			String fileName = this.input.getInputReader().getInput();
+			Vector3D dimensions = this.resolution.minus(this.margins.times(2));
 			try
 			{
-				loadSudoku(fileName, this.sudoku);
+				if (fileName.endsWith(StepRecorder.FILE_EXTENSION))
+					new KeyReplayer(this.handlers, loadReplay(fileName, this.handlers, 
+							this.margins, dimensions));
+				else
+					new KeySolver(this.handlers, loadSudoku(fileName, this.handlers, 
+							this.margins, dimensions));
+				
 				this.messageBox.getIsDeadStateOperator().setState(true);
 				getIsDeadStateOperator().setState(true);
 			}
@@ -173,14 +184,26 @@ public class Main
 				this.messageBox.setMessage("Couldn't find " + fileName + 
 						".#Please input another file name");
 			}
+			catch (IOException e1)
+			{
+				this.messageBox.setMessage("Couldn't read " + fileName + 
+						".#Please input another file name");
+			}
+			catch (IllegalArgumentException e1)
+			{
+				this.messageBox.setMessage(fileName + " isn't a valid sudoku" + 
+						".#Please input another file name");
+			}
 		}
 	}
 	
-	private static class KeySolver extends SimpleHandled implements KeyListener
+	private static class KeySolver extends SimpleHandled implements KeyListener, Actor
 	{
 		// ATTRIBUTES	---------------
 		
+		private SudokuGrid sudoku;
 		private SudokuSolver solver;
+		private AsyncSolver backgroundSolver;
 		private EventSelector<KeyEvent> selector;
 		
 		
@@ -190,7 +213,30 @@ public class Main
 		{
 			super(handlers);
 			
+			this.sudoku = sudoku;
 			this.solver = new SudokuSolver(sudoku);
+			this.backgroundSolver = new AsyncSolver(sudoku, 100);
+			this.backgroundSolver.setListener(new AsyncSolver.Listener()
+			{
+				@Override
+				public void onProgress(int operations, String message)
+				{
+					// The progress is shown in the grid
+				}
+				
+				@Override
+				public void onComplete()
+				{
+					System.out.println("Puzzle complete");
+				}
+				
+				@Override
+				public void onError(Throwable error)
+				{
+					System.err.println("The background solving failed");
+					System.err.println(error);
+				}
+			});
 			this.selector = KeyEvent.createEventTypeSelector(KeyEventType.PRESSED);
 		}
 		
@@ -208,39 +254,123 @@ public class Main
 		{
 			if (event.getKey() == KeyEvent.RIGHT)
 			{
+				// Stepping is not possible while the puzzle is solved in the background
+				if (this.backgroundSolver.isRunning())
+					return;
+				
 				try
 				{
 					this.solver.solveNext();
 				}
 				catch (UnsolvablePuzzleException e)
 				{
-					for (Slot slot : e.getSource().getConnectedSlots())
-					{
-						slot.mark();
-					}
-					System.err.println("Can't solve the puzzle");
-					System.err.println("Source position: " + e.getSource().getPosition());
-					e.printStackTrace();
-					getIsDeadStateOperator().setState(true);
+					onUnsolvable(e);
 				}
 			}
 			else if (event.getKey() == KeyEvent.UP)
 			{
-				try
-				{
-					this.solver.solveMax();
-				}
-				catch (UnsolvablePuzzleException e)
+				// The background solver works on the original grid, which isn't visible while 
+				// a guess is being stepped through
+				if (this.solver.getCurrentSudoku() != this.sudoku)
 				{
-					for (Slot slot : e.getSource().getConnectedSlots())
-					{
-						slot.mark();
-					}
-					System.err.println("Can't solve the puzzle");
-					System.err.println("Source position: " + e.getSource().getPosition());
-					e.printStackTrace();
-					getIsDeadStateOperator().setState(true);
+					System.out.println("Can't solve in the background after a guess");
+					return;
 				}
+				this.backgroundSolver.start();
+			}
+			else if (event.getKey() == KeyEvent.DOWN)
+				this.backgroundSolver.cancel();
+		}
+
+		@Override
+		public void act(double duration)
+		{
+			// Shows the progress of the background solving
+			try
+			{
+				this.backgroundSolver.update();
+			}
+			catch (UnsolvablePuzzleException e)
+			{
+				onUnsolvable(e);
+			}
+		}
+		
+		
+		// OTHER METHODS	----------
+		
+		private void onUnsolvable(UnsolvablePuzzleException e)
+		{
+			// Marks the unit where the contradiction was found, if there is one. A search 
+			// that finds no solution doesn't point to any slot, so nothing is marked.
+			List<Slot> marked = e.getUnit();
+			if (marked.isEmpty() && e.getSource() != null)
+				marked = e.getSource().getConnectedSlots();
+			for (Slot slot : marked)
+			{
+				slot.mark();
+			}
+			System.err.println("Can't solve the puzzle");
+			System.err.println(e.getMessage());
+			
+			// The background thread isn't needed once the solver is gone
+			this.backgroundSolver.shutdown();
+			getIsDeadStateOperator().setState(true);
+		}
+	}
+	
+	private static class KeyReplayer extends SimpleHandled implements KeyListener
+	{
+		// ATTRIBUTES	---------------
+		
+		private StepPlayer player;
+		private Slot lastSlot;
+		private EventSelector<KeyEvent> selector;
+		
+		
+		// CONSTRUCTOR	---------------
+		
+		public KeyReplayer(HandlerRelay handlers, StepPlayer player)
+		{
+			super(handlers);
+			
+			this.player = player;
+			this.selector = KeyEvent.createEventTypeSelector(KeyEventType.PRESSED);
+		}
+		
+		
+		// IMPLEMENTED METHODS	------
+		
+		@Override
+		public EventSelector<KeyEvent> getKeyEventSelector()
+		{
+			return this.selector;
+		}
+		
+		@Override
+		public void onKeyEvent(KeyEvent event)
+		{
+			// Right shows the next recorded step, left starts the replay over
+			if (event.getKey() == KeyEvent.RIGHT)
+			{
+				if (!this.player.hasNext())
+					return;
+				
+				if (this.lastSlot != null)
+					this.lastSlot.removeMark();
+				
+				Result r = this.player.next();
+				System.out.println(this.player.getStepCount() + ": " + r.getMessage());
+				this.lastSlot = r.getTarget();
+				if (this.lastSlot != null)
+					this.lastSlot.mark();
+			}
+			else if (event.getKey() == KeyEvent.LEFT)
+			{
+				if (this.lastSlot != null)
+					this.lastSlot.removeMark();
+				this.lastSlot = null;
+				this.player.restart();
 			}
 		}
 	}
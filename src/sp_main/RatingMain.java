@@ -0,0 +1,60 @@
+package sp_main;
+
+import java.util.Arrays;
+import java.util.Timer;
+
+import sp_logic.SolveStats;
+import sp_logic.SudokuRater;
+import sp_logic.SudokuRater.Rating;
+
+/**
+ * RatingMain rates a set of sudoku puzzles in batch and prints them from the easiest to 
+ * the hardest
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class RatingMain
+{
+	// ATTRIBUTES	---------------------
+	
+	private static final long REPORT_INTERVAL_MILLIS = 10000;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	private RatingMain()
+	{
+		// The interface is static
+	}
+	
+	
+	// MAIN METHOD	---------------------
+	
+	/**
+	 * Rates the puzzles
+	 * @param args The names of the files that contain the puzzles
+	 */
+	public static void main(String[] args)
+	{
+		if (args.length == 0)
+		{
+			System.err.println("Please provide the sudoku file names as arguments");
+			return;
+		}
+		
+		// Long runs report their progress every now and then
+		Timer reporting = SolveStats.global().startReporting(REPORT_INTERVAL_MILLIS, 
+				System.out);
+		
+		long started = System.currentTimeMillis();
+		for (Rating rating : SudokuRater.rateAll(Arrays.asList(args)))
+		{
+			System.out.println(rating);
+		}
+		reporting.cancel();
+		
+		System.out.println("Rated " + args.length + " puzzles in " + 
+				(System.currentTimeMillis() - started) + " ms");
+		System.out.println(SolveStats.global().report());
+	}
+}
@@ -0,0 +1,82 @@
+package sp_main;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import sp_logic.StepRecorder;
+import sp_logic.SudokuGrid;
+import sp_logic.SudokuReader;
+import sp_logic.SudokuSolver;
+import sp_logic.UnsolvablePuzzleException;
+
+/**
+ * RecordMain solves sudoku puzzles without the user interface and saves each step of the 
+ * solution next to the puzzle file. The steps can then be replayed in the game by opening 
+ * the saved file.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class RecordMain
+{
+	// CONSTRUCTOR	---------------------
+	
+	private RecordMain()
+	{
+		// The interface is static
+	}
+	
+	
+	// MAIN METHOD	---------------------
+	
+	/**
+	 * Solves and records the puzzles
+	 * @param args The names of the files that contain the puzzles
+	 */
+	public static void main(String[] args)
+	{
+		if (args.length == 0)
+		{
+			System.err.println("Please provide the sudoku file names as arguments");
+			return;
+		}
+		
+		for (String fileName : args)
+		{
+			try
+			{
+				int[][] numbers = SudokuReader.readFile(fileName);
+				SudokuGrid sudoku = new SudokuGrid(SudokuReader.getBoxSize(numbers.length));
+				sudoku.setRules(SudokuReader.readRules(fileName));
+				sudoku.loadNumbers(numbers);
+				
+				SudokuSolver solver = new SudokuSolver(sudoku, true);
+				StepRecorder recorder = solver.startRecording();
+				solver.solve();
+				
+				String logName = fileName + StepRecorder.FILE_EXTENSION;
+				byte[] log = recorder.toByteArray();
+				Files.write(Paths.get(logName), log);
+				System.out.println("Recorded " + recorder.getStepCount() + " steps of " + 
+						fileName + " into " + logName + " (" + log.length + " bytes)");
+			}
+			catch (FileNotFoundException e)
+			{
+				System.err.println("Couldn't find " + fileName);
+			}
+			catch (UnsolvablePuzzleException e)
+			{
+				System.err.println("Can't solve " + fileName);
+			}
+			catch (IllegalArgumentException e)
+			{
+				System.err.println(fileName + " isn't a valid sudoku");
+			}
+			catch (IOException e)
+			{
+				System.err.println("Couldn't save the steps of " + fileName);
+			}
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package sp_main;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+
+import sp_logic.SolveStats;
+import sp_service.SolveBatcher;
+import sp_service.SolveService;
+
+/**
+ * ServiceMain starts the solve service without the user interface. The settings are given 
+ * as name=value arguments: port, host, workers, queue, batch, delay (ms), timeout (ms) and 
+ * report (how often the solve statistics are printed in seconds, 0 for never). 
+ * By default the service only listens to the loopback address and solves as many puzzles 
+ * at a time as there are processors.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class ServiceMain
+{
+	// CONSTRUCTOR	---------------------
+	
+	private ServiceMain()
+	{
+		// The interface is static
+	}
+	
+	
+	// MAIN METHOD	---------------------
+	
+	/**
+	 * Starts the service
+	 * @param args The settings of the service as name=value pairs
+	 */
+	public static void main(String[] args)
+	{
+		Map<String, String> settings = new HashMap<>();
+		for (String arg : args)
+		{
+			int split = arg.indexOf('=');
+			if (split < 0)
+			{
+				System.err.println("Settings must be given as name=value, not " + arg);
+				return;
+			}
+			settings.put(arg.substring(0, split).trim().toLowerCase(), 
+					arg.substring(split + 1).trim());
+		}
+		
+		try
+		{
+			int workers = getInt(settings, "workers", 
+					Runtime.getRuntime().availableProcessors());
+			int queueLimit = getInt(settings, "queue", 256);
+			long timeout = getInt(settings, "timeout", 10000);
+			
+			SolveBatcher batcher = new SolveBatcher(workers, queueLimit, 
+					getInt(settings, "batch", 16), getInt(settings, "delay", 2), timeout);
+			
+			InetAddress host = settings.containsKey("host") ? 
+					InetAddress.getByName(settings.get("host")) :
+					InetAddress.getLoopbackAddress();
+			SolveService service = new SolveService(new InetSocketAddress(host, 
+					getInt(settings, "port", 8080)), batcher, Math.max(4, workers * 2), 
+					queueLimit, timeout * 2);
+			service.start();
+			
+			System.out.println("Solving sudokus at http://" + 
+					service.getAddress().getHostString() + ":" + 
+					service.getAddress().getPort() + "/solve");
+			System.out.println("Requests are handled on " + 
+					(service.isUsingVirtualThreads() ? "virtual threads" : "platform threads") + 
+					", puzzles are solved on " + workers + " workers");
+			
+			int reportSeconds = getInt(settings, "report", 60);
+			if (reportSeconds > 0)
+				SolveStats.global().startReporting(reportSeconds * 1000L, System.out);
+			
+			Runtime.getRuntime().addShutdownHook(new Thread()
+			{
+				@Override
+				public void run()
+				{
+					service.stop(1);
+					System.out.println(SolveStats.global().report());
+				}
+			});
+		}
+		catch (NumberFormatException e)
+		{
+			System.err.println("Invalid number: " + e.getMessage());
+		}
+		catch (IOException e)
+		{
+			System.err.println("Couldn't start the service: " + e.getMessage());
+		}
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	private static int getInt(Map<String, String> settings, String name, int defaultValue)
+			throws NumberFormatException
+	{
+		String value = settings.get(name);
+		if (value == null)
+			return defaultValue;
+		return Integer.parseInt(value);
+	}
+}
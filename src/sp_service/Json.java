@@ -0,0 +1,268 @@
+package sp_service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Json reads and writes the small JSON documents used by the solve service. Objects are 
+ * read into maps, arrays into lists, numbers into doubles and the rest into strings, 
+ * booleans and nulls. The documents of the service are flat, so objects and arrays may only 
+ * be nested a few levels deep.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class Json
+{
+	// ATTRIBUTES	---------------------
+	
+	/**
+	 * How many objects and arrays may be nested inside each other
+	 */
+	public static final int MAX_DEPTH = 8;
+	
+	private String text;
+	private int position;
+	private int depth;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	private Json(String text)
+	{
+		this.text = text;
+		this.position = 0;
+		this.depth = 0;
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * Parses a JSON document
+	 * @param text The document
+	 * @return The value in the document
+	 * @throws IllegalArgumentException If the text isn't valid JSON or if it is nested deeper 
+	 * than {@link #MAX_DEPTH}
+	 */
+	public static Object parse(String text) throws IllegalArgumentException
+	{
+		Json parser = new Json(text);
+		Object value = parser.readValue();
+		parser.skipWhitespace();
+		if (parser.position < text.length())
+			throw parser.error("Unexpected content");
+		
+		return value;
+	}
+	
+	/**
+	 * Writes a string as a JSON string literal
+	 * @param s The string that is written
+	 * @return The string in quotes with the special characters escaped
+	 */
+	public static String quote(String s)
+	{
+		StringBuilder quoted = new StringBuilder(s.length() + 2);
+		quoted.append('"');
+		for (int i = 0; i < s.length(); i++)
+		{
+			char c = s.charAt(i);
+			switch (c)
+			{
+				case '"': quoted.append("\\\""); break;
+				case '\\': quoted.append("\\\\"); break;
+				case '\n': quoted.append("\\n"); break;
+				case '\r': quoted.append("\\r"); break;
+				case '\t': quoted.append("\\t"); break;
+				default:
+					if (c < 0x20)
+						quoted.append(String.format("\\u%04x", (int) c));
+					else
+						quoted.append(c);
+			}
+		}
+		quoted.append('"');
+		
+		return quoted.toString();
+	}
+	
+	private Object readValue()
+	{
+		skipWhitespace();
+		if (this.position >= this.text.length())
+			throw error("Unexpected end");
+		
+		char c = this.text.charAt(this.position);
+		switch (c)
+		{
+			case '{': return readNested(true);
+			case '[': return readNested(false);
+			case '"': return readString();
+			case 't': return readLiteral("true", Boolean.TRUE);
+			case 'f': return readLiteral("false", Boolean.FALSE);
+			case 'n': return readLiteral("null", null);
+			default: return readNumber();
+		}
+	}
+	
+	private Object readNested(boolean object)
+	{
+		// The depth is limited so that a deeply nested document can't exhaust the stack
+		if (this.depth >= MAX_DEPTH)
+			throw error("Nested too deep");
+		
+		this.depth ++;
+		Object value = object ? readObject() : readArray();
+		this.depth --;
+		return value;
+	}
+	
+	private Map<String, Object> readObject()
+	{
+		Map<String, Object> object = new LinkedHashMap<>();
+		this.position ++;
+		skipWhitespace();
+		if (consume('}'))
+			return object;
+		
+		do
+		{
+			skipWhitespace();
+			if (this.position >= this.text.length() || this.text.charAt(this.position) != '"')
+				throw error("Expected a property name");
+			String name = readString();
+			
+			skipWhitespace();
+			if (!consume(':'))
+				throw error("Expected ':'");
+			object.put(name, readValue());
+			skipWhitespace();
+		}
+		while (consume(','));
+		
+		if (!consume('}'))
+			throw error("Expected '}'");
+		return object;
+	}
+	
+	private List<Object> readArray()
+	{
+		List<Object> array = new ArrayList<>();
+		this.position ++;
+		skipWhitespace();
+		if (consume(']'))
+			return array;
+		
+		do
+		{
+			array.add(readValue());
+			skipWhitespace();
+		}
+		while (consume(','));
+		
+		if (!consume(']'))
+			throw error("Expected ']'");
+		return array;
+	}
+	
+	private String readString()
+	{
+		StringBuilder s = new StringBuilder();
+		this.position ++;
+		while (this.position < this.text.length())
+		{
+			char c = this.text.charAt(this.position ++);
+			if (c == '"')
+				return s.toString();
+			else if (c != '\\')
+			{
+				s.append(c);
+				continue;
+			}
+			
+			if (this.position >= this.text.length())
+				break;
+			char escaped = this.text.charAt(this.position ++);
+			switch (escaped)
+			{
+				case 'n': s.append('\n'); break;
+				case 'r': s.append('\r'); break;
+				case 't': s.append('\t'); break;
+				case 'b': s.append('\b'); break;
+				case 'f': s.append('\f'); break;
+				case 'u':
+					if (this.position + 4 > this.text.length())
+						throw error("Invalid escape");
+					try
+					{
+						s.append((char) Integer.parseInt(this.text.substring(this.position, 
+								this.position + 4), 16));
+					}
+					catch (NumberFormatException e)
+					{
+						throw error("Invalid escape");
+					}
+					this.position += 4;
+					break;
+				default: s.append(escaped);
+			}
+		}
+		
+		throw error("Unterminated string");
+	}
+	
+	private Object readLiteral(String literal, Object value)
+	{
+		if (!this.text.startsWith(literal, this.position))
+			throw error("Unexpected value");
+		
+		this.position += literal.length();
+		return value;
+	}
+	
+	private Double readNumber()
+	{
+		int start = this.position;
+		while (this.position < this.text.length() && 
+				"+-0123456789.eE".indexOf(this.text.charAt(this.position)) >= 0)
+		{
+			this.position ++;
+		}
+		
+		try
+		{
+			return Double.valueOf(this.text.substring(start, this.position));
+		}
+		catch (NumberFormatException e)
+		{
+			throw error("Unexpected value");
+		}
+	}
+	
+	private boolean consume(char c)
+	{
+		if (this.position < this.text.length() && this.text.charAt(this.position) == c)
+		{
+			this.position ++;
+			return true;
+		}
+		
+		return false;
+	}
+	
+	private void skipWhitespace()
+	{
+		while (this.position < this.text.length() && 
+				Character.isWhitespace(this.text.charAt(this.position)))
+		{
+			this.position ++;
+		}
+	}
+	
+	private IllegalArgumentException error(String message)
+	{
+		return new IllegalArgumentException(message + " at " + this.position);
+	}
+}
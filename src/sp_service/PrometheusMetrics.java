@@ -0,0 +1,133 @@
+package sp_service;
+
+import java.math.BigDecimal;
+
+import sp_logic.LogHistogram;
+import sp_logic.SolveStats;
+import sp_logic.SudokuSolver.Technique;
+
+/**
+ * PrometheusMetrics writes the solve statistics in the Prometheus text exposition format 
+ * so that they can be scraped from the solve service. The histograms are written with 
+ * fixed bucket bounds. Since the statistics themselves are stored in logarithmic buckets, 
+ * the count at each bound is accurate to about 6 percent of the bound.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class PrometheusMetrics
+{
+	// ATTRIBUTES	---------------------
+	
+	/**
+	 * The content type of the written metrics
+	 */
+	public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+	
+	private static final long[] LATENCY_BOUNDS_MICROS = {100, 250, 500, 1000, 2500, 5000, 
+			10000, 25000, 50000, 100000, 250000, 500000, 1000000, 2500000, 5000000, 
+			10000000, 30000000};
+	private static final long[] OPERATION_BOUNDS = {10, 25, 50, 100, 250, 500, 1000, 2500, 
+			5000, 10000, 25000, 50000, 100000};
+	private static final long[] GUESS_BOUNDS = {0, 1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 
+			2500, 5000};
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	private PrometheusMetrics()
+	{
+		// The interface is static
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * Writes the metrics
+	 * @param stats The solve statistics that are written
+	 * @param batcher The batcher whose queue is described (null if there's no batcher)
+	 * @return The metrics in the Prometheus text format
+	 */
+	public static String write(SolveStats.Report stats, SolveBatcher batcher)
+	{
+		StringBuilder s = new StringBuilder(4096);
+		
+		writeHeader(s, "sudoku_solves_total", "counter", "Solves by how they ended");
+		writeSample(s, "sudoku_solves_total", "result=\"solved\"", stats.getSolvedCount());
+		writeSample(s, "sudoku_solves_total", "result=\"unsolvable\"", 
+				stats.getUnsolvableCount());
+		writeSample(s, "sudoku_solves_total", "result=\"budget_exhausted\"", 
+				stats.getBudgetExhaustedCount());
+		
+		writeHeader(s, "sudoku_guesses_total", "counter", "Guesses made by the solver");
+		writeSample(s, "sudoku_guesses_total", null, stats.getGuesses().getSum());
+		
+		writeHeader(s, "sudoku_backtracks_total", "counter", 
+				"Guesses that lead to a dead end and were taken back");
+		writeSample(s, "sudoku_backtracks_total", null, stats.getBacktrackCount());
+		
+		writeHeader(s, "sudoku_steps_total", "counter", "Solving steps by their technique");
+		for (Technique technique : Technique.values())
+		{
+			writeSample(s, "sudoku_steps_total", "technique=\"" + 
+					technique.name().toLowerCase() + "\"", stats.getUses(technique));
+		}
+		
+		writeHistogram(s, "sudoku_solve_duration_seconds", "Time spent solving a puzzle", 
+				stats.getLatency(), LATENCY_BOUNDS_MICROS, 6);
+		writeHistogram(s, "sudoku_solve_operations", "Solving steps taken for a puzzle", 
+				stats.getOperations(), OPERATION_BOUNDS, 0);
+		writeHistogram(s, "sudoku_solve_guesses", "Guesses made for a puzzle", 
+				stats.getGuesses(), GUESS_BOUNDS, 0);
+		
+		if (batcher != null)
+		{
+			writeHeader(s, "sudoku_queue_pending", "gauge", 
+					"Puzzles waiting or being solved");
+			writeSample(s, "sudoku_queue_pending", null, batcher.getPendingCount());
+			
+			writeHeader(s, "sudoku_queue_rejected_total", "counter", 
+					"Puzzles rejected because the queue was full");
+			writeSample(s, "sudoku_queue_rejected_total", null, batcher.getRejectedCount());
+			
+			writeHeader(s, "sudoku_batches_total", "counter", "Batches handed to the workers");
+			writeSample(s, "sudoku_batches_total", null, batcher.getBatchCount());
+		}
+		
+		return s.toString();
+	}
+	
+	private static void writeHeader(StringBuilder s, String name, String type, String help)
+	{
+		s.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		s.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+	
+	private static void writeSample(StringBuilder s, String name, String labels, Object value)
+	{
+		s.append(name);
+		if (labels != null)
+			s.append('{').append(labels).append('}');
+		s.append(' ').append(value).append('\n');
+	}
+	
+	private static void writeHistogram(StringBuilder s, String name, String help, 
+			LogHistogram histogram, long[] bounds, int scale)
+	{
+		writeHeader(s, name, "histogram", help);
+		for (long bound : bounds)
+		{
+			writeSample(s, name + "_bucket", "le=\"" + toDecimal(bound, scale) + "\"", 
+					histogram.getCountAtMost(bound));
+		}
+		writeSample(s, name + "_bucket", "le=\"+Inf\"", histogram.getCount());
+		writeSample(s, name + "_sum", null, toDecimal(histogram.getSum(), scale));
+		writeSample(s, name + "_count", null, histogram.getCount());
+	}
+	
+	private static String toDecimal(long value, int scale)
+	{
+		// The values are stored as integers, the scale moves them to the reported unit
+		return BigDecimal.valueOf(value, scale).stripTrailingZeros().toPlainString();
+	}
+}
@@ -0,0 +1,355 @@
+package sp_service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import sp_logic.SolveBudget;
+import sp_logic.SolveOutcome;
+import sp_logic.SudokuGrid;
+import sp_logic.SudokuReader;
+import sp_logic.SudokuRules;
+import sp_logic.SudokuSolver;
+
+/**
+ * SolveBatcher solves puzzles on a pool of worker threads. Puzzles that arrive close to 
+ * each other are collected into batches so that the queue is handed over to the workers 
+ * once per batch. Each puzzle of a batch is still solved as a task of its own, so a batch 
+ * is spread over all the idle workers. The number of puzzles waiting or being solved is 
+ * limited. Once the limit is reached, new puzzles are rejected instead of queued.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class SolveBatcher
+{
+	// ATTRIBUTES	---------------------
+	
+	private int maxBatchSize;
+	private long maxDelayNanos, timeLimitMillis;
+	
+	private BlockingQueue<Job> queue;
+	private Semaphore capacity;
+	private ExecutorService workers;
+	private Thread dispatcher;
+	private volatile boolean running;
+	
+	private AtomicLong batches, solved, rejected;
+	private AtomicInteger pending;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	/**
+	 * Creates a new batcher and starts its threads
+	 * @param workers How many puzzles may be solved at the same time
+	 * @param queueLimit How many puzzles may be waiting or being solved at the same time
+	 * @param maxBatchSize How many puzzles are handed to the workers at once at most
+	 * @param maxDelayMillis How long (in milliseconds) a batch waits for more puzzles at most
+	 * @param timeLimitMillis How long (in milliseconds) a single puzzle may be solved 
+	 * ({@link SolveBudget#UNLIMITED} if there's no limit)
+	 */
+	public SolveBatcher(int workers, int queueLimit, int maxBatchSize, long maxDelayMillis, 
+			long timeLimitMillis)
+	{
+		this.maxBatchSize = Math.max(1, maxBatchSize);
+		this.maxDelayNanos = maxDelayMillis * 1000000;
+		this.timeLimitMillis = timeLimitMillis;
+		
+		this.queue = new LinkedBlockingQueue<>();
+		this.capacity = new Semaphore(queueLimit);
+		this.batches = new AtomicLong();
+		this.solved = new AtomicLong();
+		this.rejected = new AtomicLong();
+		this.pending = new AtomicInteger();
+		this.running = true;
+		
+		this.workers = Executors.newFixedThreadPool(workers, new ThreadFactory()
+		{
+			private int created = 0;
+			
+			@Override
+			public synchronized Thread newThread(Runnable r)
+			{
+				this.created ++;
+				Thread thread = new Thread(r, "Sudoku worker " + this.created);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		
+		this.dispatcher = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				dispatch();
+			}
+		}, "Sudoku batcher");
+		this.dispatcher.setDaemon(true);
+		this.dispatcher.start();
+	}
+	
+	
+	// ACCESSORS	---------------------
+	
+	/**
+	 * @return How many batches have been handed to the workers
+	 */
+	public long getBatchCount()
+	{
+		return this.batches.get();
+	}
+	
+	/**
+	 * @return How many puzzles have been solved (or found unsolvable or out of time)
+	 */
+	public long getSolvedCount()
+	{
+		return this.solved.get();
+	}
+	
+	/**
+	 * @return How many puzzles have been rejected because the queue was full
+	 */
+	public long getRejectedCount()
+	{
+		return this.rejected.get();
+	}
+	
+	/**
+	 * @return How many puzzles are waiting or being solved at the moment
+	 */
+	public int getPendingCount()
+	{
+		return this.pending.get();
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * Queues puzzles for solving. Either all of the puzzles are queued or none of them.
+	 * @param puzzles The puzzles that are solved
+	 * @return The outcome of each puzzle in the same order
+	 * @throws RejectedExecutionException If there's no room for the puzzles in the queue or 
+	 * if the batcher has been shut down
+	 */
+	public List<Future<SolveOutcome>> submit(List<Puzzle> puzzles) throws 
+			RejectedExecutionException
+	{
+		if (!this.running || !this.capacity.tryAcquire(puzzles.size()))
+		{
+			this.rejected.addAndGet(puzzles.size());
+			throw new RejectedExecutionException("The solve queue is full");
+		}
+		this.pending.addAndGet(puzzles.size());
+		
+		List<Future<SolveOutcome>> outcomes = new ArrayList<>(puzzles.size());
+		for (Puzzle puzzle : puzzles)
+		{
+			Job job = new Job(puzzle);
+			outcomes.add(job.outcome);
+			this.queue.add(job);
+		}
+		
+		return outcomes;
+	}
+	
+	/**
+	 * Stops the threads of the batcher. Puzzles that haven't been solved yet are cancelled.
+	 */
+	public void shutdown()
+	{
+		this.running = false;
+		this.dispatcher.interrupt();
+		this.workers.shutdownNow();
+		
+		List<Job> remaining = new ArrayList<>();
+		this.queue.drainTo(remaining);
+		for (Job job : remaining)
+		{
+			job.outcome.cancel(false);
+		}
+	}
+	
+	private void dispatch()
+	{
+		while (this.running)
+		{
+			try
+			{
+				// A batch is started by the first puzzle and waits a while for others
+				List<Job> batch = new ArrayList<>(this.maxBatchSize);
+				batch.add(this.queue.take());
+				long deadline = System.nanoTime() + this.maxDelayNanos;
+				
+				while (batch.size() < this.maxBatchSize)
+				{
+					this.queue.drainTo(batch, this.maxBatchSize - batch.size());
+					long remaining = deadline - System.nanoTime();
+					if (batch.size() >= this.maxBatchSize || remaining <= 0)
+						break;
+					
+					Job next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+					if (next == null)
+						break;
+					batch.add(next);
+				}
+				
+				this.batches.incrementAndGet();
+				for (int i = 0; i < batch.size(); i++)
+				{
+					try
+					{
+						this.workers.execute(new SolveTask(batch.get(i)));
+					}
+					catch (RejectedExecutionException e)
+					{
+						// Happens only when the batcher is shut down
+						for (Job job : batch.subList(i, batch.size()))
+						{
+							job.outcome.cancel(false);
+						}
+						return;
+					}
+				}
+			}
+			catch (InterruptedException e)
+			{
+				return;
+			}
+		}
+	}
+	
+	private SolveOutcome solve(Puzzle puzzle)
+	{
+		return new SudokuSolver(puzzle.createGrid(), true).solve(new SolveBudget(
+				this.timeLimitMillis, SolveBudget.UNLIMITED, SolveBudget.UNLIMITED));
+	}
+	
+	
+	// SUBCLASSES	---------------------
+	
+	/**
+	 * A puzzle is a set of numbers and the rules they are solved with
+	 * @author Mikko Hilpinen
+	 * @since 18.10.2026
+	 */
+	public static class Puzzle
+	{
+		// ATTRIBUTES	-----------------
+		
+		private int[][] numbers;
+		private SudokuRules rules;
+		
+		
+		// CONSTRUCTOR	-----------------
+		
+		/**
+		 * Creates a new puzzle
+		 * @param numbers The numbers of the puzzle [x][y] (0 means empty)
+		 * @param rules The rules of the puzzle
+		 * @throws IllegalArgumentException If the rules don't match the numbers
+		 */
+		public Puzzle(int[][] numbers, SudokuRules rules) throws IllegalArgumentException
+		{
+			if (rules.getSize() != numbers.length)
+				throw new IllegalArgumentException("The rules don't match the puzzle");
+			
+			this.numbers = numbers;
+			this.rules = rules;
+		}
+		
+		
+		// OTHER METHODS	-------------
+		
+		/**
+		 * @return A new grid that contains the numbers of this puzzle and uses its rules
+		 */
+		public SudokuGrid createGrid()
+		{
+			SudokuGrid sudoku = new SudokuGrid(this.rules.getBoxSize());
+			sudoku.setRules(this.rules);
+			sudoku.loadNumbers(this.numbers);
+			return sudoku;
+		}
+		
+		/**
+		 * Parses a puzzle in the format used by {@link SudokuReader}
+		 * @param lines The lines that form the puzzle
+		 * @return The puzzle
+		 * @throws IllegalArgumentException If the lines don't form a valid puzzle
+		 */
+		public static Puzzle parse(List<String> lines) throws IllegalArgumentException
+		{
+			int[][] numbers = SudokuReader.parse(lines);
+			return new Puzzle(numbers, SudokuReader.parseRules(lines, numbers.length));
+		}
+	}
+	
+	private static class Job
+	{
+		// ATTRIBUTES	-----------------
+		
+		private Puzzle puzzle;
+		private CompletableFuture<SolveOutcome> outcome;
+		
+		
+		// CONSTRUCTOR	-----------------
+		
+		public Job(Puzzle puzzle)
+		{
+			this.puzzle = puzzle;
+			this.outcome = new CompletableFuture<>();
+		}
+	}
+	
+	private class SolveTask implements Runnable
+	{
+		// ATTRIBUTES	-----------------
+		
+		private Job job;
+		
+		
+		// CONSTRUCTOR	-----------------
+		
+		public SolveTask(Job job)
+		{
+			this.job = job;
+		}
+		
+		
+		// IMPLEMENTED METHODS	---------
+		
+		@Override
+		public void run()
+		{
+			try
+			{
+				if (!this.job.outcome.isDone())
+					this.job.outcome.complete(solve(this.job.puzzle));
+			}
+			catch (RuntimeException e)
+			{
+				this.job.outcome.completeExceptionally(e);
+			}
+			finally
+			{
+				SolveBatcher.this.solved.incrementAndGet();
+				SolveBatcher.this.pending.decrementAndGet();
+				SolveBatcher.this.capacity.release();
+			}
+		}
+	}
+}
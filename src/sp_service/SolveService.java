@@ -0,0 +1,501 @@
+package sp_service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import sp_logic.SolveOutcome;
+import sp_logic.SolveStats;
+import sp_logic.SudokuReader;
+import sp_service.SolveBatcher.Puzzle;
+
+/**
+ * SolveService is a small HTTP server that solves sudokus. Puzzles are posted to /solve 
+ * either as text or as JSON and the answers are returned as JSON.<br> 
+ * Text: The puzzles are written in the format read by {@link SudokuReader}. Multiple 
+ * puzzles are separated by lines that contain only "---". The puzzles may also be written 
+ * one per line, one character per slot.<br> 
+ * JSON: {"puzzle": "..."} or {"puzzles": ["...", "..."]} where each puzzle is written as 
+ * in the text format.<br> 
+ * The solve statistics can be scraped from /metrics in the Prometheus text format.<br>
+ * When the solve queue is full, the request is rejected with 503 so that the clients can 
+ * back off and try again later. Requests that are too large are rejected with 413.<br>
+ * Each request is handled on its own virtual thread when the runtime supports them, so 
+ * slow clients only cost memory. The solving itself always happens on the bounded worker 
+ * pool of the {@link SolveBatcher}.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class SolveService
+{
+	// ATTRIBUTES	---------------------
+	
+	private static final String PUZZLE_SEPARATOR = "---";
+	private static final int MAX_REQUEST_BYTES = 4 * 1024 * 1024;
+	
+	private HttpServer server;
+	private ExecutorService handlerThreads;
+	private boolean virtualThreads;
+	private SolveBatcher batcher;
+	private int maxPuzzlesPerRequest;
+	private long responseTimeoutMillis;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	/**
+	 * Creates a new service. The service has to be started separately.
+	 * @param address The address the service listens to
+	 * @param batcher The batcher that solves the puzzles
+	 * @param handlerThreads How many requests may be handled at the same time when the 
+	 * runtime doesn't support virtual threads
+	 * @param maxPuzzlesPerRequest How many puzzles a single request may contain at most
+	 * @param responseTimeoutMillis How long (in milliseconds) a request waits for its 
+	 * answers at most
+	 * @throws IOException If the server couldn't be bound to the address
+	 */
+	public SolveService(InetSocketAddress address, SolveBatcher batcher, int handlerThreads, 
+			int maxPuzzlesPerRequest, long responseTimeoutMillis) throws IOException
+	{
+		this.batcher = batcher;
+		this.maxPuzzlesPerRequest = maxPuzzlesPerRequest;
+		this.responseTimeoutMillis = responseTimeoutMillis;
+		
+		this.handlerThreads = createVirtualThreadExecutor();
+		this.virtualThreads = this.handlerThreads != null;
+		if (!this.virtualThreads)
+		{
+			this.handlerThreads = Executors.newFixedThreadPool(handlerThreads, 
+					new ThreadFactory()
+			{
+				private int created = 0;
+				
+				@Override
+				public synchronized Thread newThread(Runnable r)
+				{
+					this.created ++;
+					Thread thread = new Thread(r, "Solve request " + this.created);
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		
+		this.server = HttpServer.create(address, 0);
+		this.server.setExecutor(this.handlerThreads);
+		this.server.createContext("/solve", new SolveHandler());
+		this.server.createContext("/health", new HealthHandler());
+		this.server.createContext("/metrics", new MetricsHandler());
+	}
+	
+	
+	// ACCESSORS	---------------------
+	
+	/**
+	 * @return The address the service listens to
+	 */
+	public InetSocketAddress getAddress()
+	{
+		return this.server.getAddress();
+	}
+	
+	/**
+	 * @return Is each request handled on its own virtual thread
+	 */
+	public boolean isUsingVirtualThreads()
+	{
+		return this.virtualThreads;
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * Starts accepting requests
+	 */
+	public void start()
+	{
+		this.server.start();
+	}
+	
+	/**
+	 * Stops the service. The requests that are being handled get some time to finish.
+	 * @param delaySeconds How long (in seconds) the requests are waited for at most
+	 */
+	public void stop(int delaySeconds)
+	{
+		this.server.stop(delaySeconds);
+		this.batcher.shutdown();
+		this.handlerThreads.shutdownNow();
+	}
+	
+	/**
+	 * Parses the puzzles of a text request
+	 * @param text The text of the request
+	 * @return The puzzles in the text
+	 * @throws IllegalArgumentException If the text doesn't contain valid puzzles
+	 */
+	public static List<Puzzle> parseText(String text) throws IllegalArgumentException
+	{
+		List<Puzzle> puzzles = new ArrayList<>();
+		List<String> lines = new ArrayList<>();
+		for (String line : text.split("\\r?\\n", -1))
+		{
+			if (line.trim().equals(PUZZLE_SEPARATOR))
+			{
+				addPuzzle(puzzles, lines);
+				lines = new ArrayList<>();
+			}
+			else
+				lines.add(line);
+		}
+		addPuzzle(puzzles, lines);
+		
+		return puzzles;
+	}
+	
+	/**
+	 * Parses the puzzles of a JSON request
+	 * @param json The JSON of the request
+	 * @return The puzzles in the document
+	 * @throws IllegalArgumentException If the document doesn't contain valid puzzles
+	 */
+	public static List<Puzzle> parseJson(String json) throws IllegalArgumentException
+	{
+		Object document = Json.parse(json);
+		if (!(document instanceof Map))
+			throw new IllegalArgumentException("Expected an object");
+		Map<?, ?> request = (Map<?, ?>) document;
+		
+		List<Object> texts = new ArrayList<>();
+		if (request.get("puzzle") != null)
+			texts.add(request.get("puzzle"));
+		if (request.get("puzzles") instanceof List)
+			texts.addAll((List<?>) request.get("puzzles"));
+		
+		List<Puzzle> puzzles = new ArrayList<>();
+		for (Object text : texts)
+		{
+			if (!(text instanceof String))
+				throw new IllegalArgumentException("Puzzles must be strings");
+			puzzles.addAll(parseText((String) text));
+		}
+		
+		return puzzles;
+	}
+	
+	private static void addPuzzle(List<Puzzle> puzzles, List<String> lines)
+	{
+		List<String> content = new ArrayList<>();
+		for (String line : lines)
+		{
+			if (!line.trim().isEmpty())
+				content.add(line.trim());
+		}
+		if (content.isEmpty())
+			return;
+		
+		// Each line that holds a whole puzzle is a puzzle of its own. Lines that are enough to 
+		// form a grid as wide as the first line are read as the rows of a single puzzle.
+		String first = content.get(0);
+		boolean rows = SudokuReader.isSupportedSize(first.length()) && 
+				content.size() >= first.length();
+		if (!rows && areSingleLinePuzzles(content))
+		{
+			for (String line : content)
+			{
+				puzzles.add(Puzzle.parse(splitRows(line)));
+			}
+		}
+		else
+			puzzles.add(Puzzle.parse(content));
+	}
+	
+	private static boolean areSingleLinePuzzles(List<String> lines)
+	{
+		for (String line : lines)
+		{
+			int size = SudokuReader.getBoxSize(line.length());
+			if (size * size != line.length() || !SudokuReader.isSupportedSize(size))
+				return false;
+		}
+		return true;
+	}
+	
+	private static List<String> splitRows(String line)
+	{
+		int size = SudokuReader.getBoxSize(line.length());
+		List<String> rows = new ArrayList<>(size);
+		for (int y = 0; y < size; y++)
+		{
+			rows.add(line.substring(y * size, (y + 1) * size));
+		}
+		return rows;
+	}
+	
+	private static String toJson(SolveOutcome outcome, long nanos)
+	{
+		int[][] numbers = outcome.getNumbers();
+		StringBuilder solution = new StringBuilder(numbers.length * numbers.length);
+		for (int y = 0; y < numbers.length; y++)
+		{
+			for (int x = 0; x < numbers.length; x++)
+			{
+				if (numbers[x][y] == 0)
+					solution.append('.');
+				else
+					solution.append(Character.toUpperCase(Character.forDigit(numbers[x][y], 
+							Character.MAX_RADIX)));
+			}
+		}
+		
+		return "{\"status\":" + Json.quote(outcome.getStatus().name()) + ",\"solution\":" + 
+				Json.quote(solution.toString()) + ",\"operations\":" + 
+				outcome.getOperations() + ",\"guesses\":" + outcome.getGuesses() + 
+				",\"micros\":" + nanos / 1000 + "}";
+	}
+	
+	private static String readBody(HttpExchange exchange) throws IOException, 
+			RequestTooLargeException
+	{
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		try (InputStream in = exchange.getRequestBody())
+		{
+			int read;
+			while ((read = in.read(buffer)) >= 0)
+			{
+				body.write(buffer, 0, read);
+				if (body.size() > MAX_REQUEST_BYTES)
+					throw new RequestTooLargeException();
+			}
+		}
+		
+		return new String(body.toByteArray(), StandardCharsets.UTF_8);
+	}
+	
+	private static void respond(HttpExchange exchange, int status, String json) throws
+			IOException
+	{
+		respond(exchange, status, "application/json; charset=utf-8", json);
+	}
+	
+	private static void respond(HttpExchange exchange, int status, String contentType, 
+			String body) throws IOException
+	{
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", contentType);
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody())
+		{
+			out.write(bytes);
+		}
+	}
+	
+	private static String error(String message)
+	{
+		return "{\"error\":" + Json.quote(message) + "}";
+	}
+	
+	private static ExecutorService createVirtualThreadExecutor()
+	{
+		// Virtual threads are looked up at runtime so that the service still runs on 
+		// runtimes that don't have them
+		try
+		{
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		}
+		catch (ReflectiveOperationException | RuntimeException e)
+		{
+			return null;
+		}
+	}
+	
+	
+	// SUBCLASSES	---------------------
+	
+	private static class RequestTooLargeException extends IOException
+	{
+		private static final long serialVersionUID = 1L;
+		
+		public RequestTooLargeException()
+		{
+			super("The request is too large");
+		}
+	}
+	
+	private class SolveHandler implements HttpHandler
+	{
+		// IMPLEMENTED METHODS	---------
+		
+		@Override
+		public void handle(HttpExchange exchange) throws IOException
+		{
+			try
+			{
+				if (!"POST".equals(exchange.getRequestMethod()))
+				{
+					exchange.getResponseHeaders().set("Allow", "POST");
+					respond(exchange, 405, error("Puzzles must be posted"));
+					return;
+				}
+				
+				List<Puzzle> puzzles;
+				try
+				{
+					String body = readBody(exchange);
+					String contentType = exchange.getRequestHeaders().getFirst( 
+							"Content-Type");
+					if (contentType != null && contentType.contains("json"))
+						puzzles = parseJson(body);
+					else
+						puzzles = parseText(body);
+				}
+				catch (RequestTooLargeException e)
+				{
+					respond(exchange, 413, error("A request may contain at most " + 
+							MAX_REQUEST_BYTES + " bytes"));
+					return;
+				}
+				catch (IllegalArgumentException e)
+				{
+					respond(exchange, 400, error(e.getMessage()));
+					return;
+				}
+				
+				if (puzzles.isEmpty())
+				{
+					respond(exchange, 400, error("The request doesn't contain puzzles"));
+					return;
+				}
+				if (puzzles.size() > SolveService.this.maxPuzzlesPerRequest)
+				{
+					respond(exchange, 413, error("A request may contain at most " + 
+							SolveService.this.maxPuzzlesPerRequest + " puzzles"));
+					return;
+				}
+				
+				respond(exchange, 200, solve(puzzles));
+			}
+			catch (RejectedExecutionException e)
+			{
+				// Clients are asked to try again once the queue has room
+				exchange.getResponseHeaders().set("Retry-After", "1");
+				respond(exchange, 503, error("The service is busy"));
+			}
+			finally
+			{
+				exchange.close();
+			}
+		}
+		
+		
+		// OTHER METHODS	-------------
+		
+		private String solve(List<Puzzle> puzzles) throws
+				RejectedExecutionException
+		{
+			long started = System.nanoTime();
+			List<Future<SolveOutcome>> outcomes = SolveService.this.batcher.submit(puzzles);
+			long deadline = started + SolveService.this.responseTimeoutMillis * 1000000;
+			
+			StringBuilder json = new StringBuilder("{\"results\":[");
+			for (int i = 0; i < outcomes.size(); i++)
+			{
+				if (i > 0)
+					json.append(',');
+				
+				try
+				{
+					SolveOutcome outcome = outcomes.get(i).get(Math.max(0, 
+							deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+					json.append(toJson(outcome, System.nanoTime() - started));
+				}
+				catch (TimeoutException e)
+				{
+					outcomes.get(i).cancel(false);
+					json.append(error("Timed out"));
+				}
+				catch (ExecutionException e)
+				{
+					json.append(error(String.valueOf(e.getCause())));
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+					json.append(error("Interrupted"));
+				}
+			}
+			json.append("]}");
+			
+			return json.toString();
+		}
+	}
+	
+	private class HealthHandler implements HttpHandler
+	{
+		// IMPLEMENTED METHODS	---------
+		
+		@Override
+		public void handle(HttpExchange exchange) throws IOException
+		{
+			try
+			{
+				SolveBatcher batcher = SolveService.this.batcher;
+				respond(exchange, 200, "{\"pending\":" + batcher.getPendingCount() + 
+						",\"solved\":" + batcher.getSolvedCount() + ",\"batches\":" + 
+						batcher.getBatchCount() + "}");
+			}
+			finally
+			{
+				exchange.close();
+			}
+		}
+	}
+	
+	private class MetricsHandler implements HttpHandler
+	{
+		// IMPLEMENTED METHODS	---------
+		
+		@Override
+		public void handle(HttpExchange exchange) throws IOException
+		{
+			try
+			{
+				if (!"GET".equals(exchange.getRequestMethod()))
+				{
+					exchange.getResponseHeaders().set("Allow", "GET");
+					respond(exchange, 405, error("Metrics must be fetched with GET"));
+					return;
+				}
+				
+				respond(exchange, 200, PrometheusMetrics.CONTENT_TYPE, PrometheusMetrics.write(
+						SolveStats.global().report(), SolveService.this.batcher));
+			}
+			finally
+			{
+				exchange.close();
+			}
+		}
+	}
+}
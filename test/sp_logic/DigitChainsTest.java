@@ -0,0 +1,105 @@
+package sp_logic;
+
+/**
+ * DigitChainsTest checks the eliminations of simple coloring and x-chains on fixed grids. 
+ * In each grid only a few slots can hold the number 1 and every slot can hold all the 
+ * other numbers, so the only links are the ones of the number 1. The test is run as a 
+ * program and exits with a non-zero status if a check fails.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class DigitChainsTest
+{
+	// CONSTRUCTOR	---------------------
+	
+	private DigitChainsTest()
+	{
+		// The interface is static
+	}
+	
+	
+	// MAIN METHOD	---------------------
+	
+	/**
+	 * Runs the tests
+	 * @param args Not used
+	 * @throws UnsolvablePuzzleException If a technique finds a grid unsolvable
+	 */
+	public static void main(String[] args) throws UnsolvablePuzzleException
+	{
+		testColorTrap();
+		testColorWrap();
+		testXChain();
+		
+		System.out.println("All tests passed");
+	}
+	
+	
+	// TESTS	-------------------------
+	
+	private static void testColorTrap() throws UnsolvablePuzzleException
+	{
+		// The pairs r1c1-r1c5, r1c5-r5c5 and r5c5-r5c2 color r1c1 and r5c2 differently.
+		// r2c2 sees both of them.
+		SudokuGrid sudoku = createGrid(new int[][] {{1, 1}, {1, 5}, {5, 5}, {5, 2}, {2, 2}, 
+				{3, 3}, {8, 2}});
+		int[] before = TestPuzzles.getPossibleNumbers(sudoku);
+		
+		TestPuzzles.check(!DigitChains.colorNext(sudoku).isClear(), 
+				"Coloring shouldn't solve a slot");
+		TestPuzzles.checkRemoved(before, sudoku, 1, TestPuzzles.index(sudoku, 2, 2));
+	}
+	
+	private static void testColorWrap() throws UnsolvablePuzzleException
+	{
+		// The pairs go r1c1-r1c5-r4c5-r4c2-r2c2, so r1c1 and r2c2 have the same color and 
+		// see each other in the first box. That color can't hold the number.
+		SudokuGrid sudoku = createGrid(new int[][] {{1, 1}, {1, 5}, {4, 5}, {4, 2}, {2, 2}, 
+				{3, 3}});
+		int[] before = TestPuzzles.getPossibleNumbers(sudoku);
+		
+		TestPuzzles.check(!DigitChains.colorNext(sudoku).isClear(), 
+				"Coloring shouldn't solve a slot");
+		TestPuzzles.checkRemoved(before, sudoku, 1, TestPuzzles.index(sudoku, 1, 1), 
+				TestPuzzles.index(sudoku, 4, 5), TestPuzzles.index(sudoku, 2, 2));
+	}
+	
+	private static void testXChain() throws UnsolvablePuzzleException
+	{
+		// A skyscraper: the pairs r1c1-r6c1 and r6c5-r2c5 are joined by row 6, so either 
+		// r1c1 or r2c5 holds the number. r1c6 and r2c3 see both of them. The other slots 
+		// keep the rows, columns and boxes from forming more pairs.
+		SudokuGrid sudoku = createGrid(new int[][] {{1, 1}, {6, 1}, {6, 5}, {2, 5}, {1, 6}, 
+				{2, 3}, {1, 9}, {2, 8}, {3, 2}, {3, 4}, {6, 8}, {8, 8}, {3, 7}});
+		int[] before = TestPuzzles.getPossibleNumbers(sudoku);
+		
+		// The chain has three links, so shorter chains don't find it
+		TestPuzzles.check(!DigitChains.xChainNext(sudoku, 2).isClear(), 
+				"X-chain shouldn't solve a slot");
+		TestPuzzles.checkRemoved(before, sudoku, 1);
+		
+		TestPuzzles.check(!DigitChains.xChainNext(sudoku, 
+				DigitChains.MAX_X_CHAIN_LENGTH).isClear(), "X-chain shouldn't solve a slot");
+		TestPuzzles.checkRemoved(before, sudoku, 1, TestPuzzles.index(sudoku, 1, 6), 
+				TestPuzzles.index(sudoku, 2, 3));
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	private static SudokuGrid createGrid(int[][] places)
+	{
+		// Only the given places (row, column) may hold the number 1
+		SudokuGrid sudoku = TestPuzzles.createOpenGrid(3);
+		for (Slot slot : sudoku.getSlots())
+		{
+			slot.removePossibleNumber(1);
+		}
+		for (int[] place : places)
+		{
+			sudoku.getSlot(place[1] - 1, place[0] - 1).addPossibleNumber(1);
+		}
+		
+		return sudoku;
+	}
+}
@@ -0,0 +1,133 @@
+package sp_logic;
+
+import java.util.List;
+
+import sp_logic.SudokuSolver.Result;
+import sp_logic.SudokuSolver.Technique;
+
+/**
+ * InferenceChainsTest checks the eliminations of alternating inference chains and forcing 
+ * chains on fixed grids. It also follows the chains on every grid the solver passes 
+ * through on the way to the solutions of the example puzzles and checks that they never 
+ * remove a number of the solution. The test is run as a program and exits with a non-zero 
+ * status if a check fails.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class InferenceChainsTest
+{
+	// CONSTRUCTOR	---------------------
+	
+	private InferenceChainsTest()
+	{
+		// The interface is static
+	}
+	
+	
+	// MAIN METHOD	---------------------
+	
+	/**
+	 * Runs the tests
+	 * @param args The directory of the example puzzles may be given as the first argument 
+	 * (data by default)
+	 * @throws Exception If the puzzles couldn't be read or a grid was found unsolvable
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		testAlternatingChain();
+		testForcingChain();
+		testSolutionsKept(TestPuzzles.getDataFiles(args));
+		
+		System.out.println("All tests passed");
+	}
+	
+	
+	// TESTS	-------------------------
+	
+	private static void testAlternatingChain() throws UnsolvablePuzzleException
+	{
+		// An xy-wing: r1c1 has 1 or 2, r1c5 has 1 or 3 and r5c1 has 2 or 3. Either r1c5 or 
+		// r5c1 has 3, so r5c5, which sees both, can't have it.
+		SudokuGrid sudoku = TestPuzzles.createOpenGrid(3);
+		setPossibleNumbers(sudoku, 1, 1, 1, 2);
+		setPossibleNumbers(sudoku, 1, 5, 1, 3);
+		setPossibleNumbers(sudoku, 5, 1, 2, 3);
+		int[] before = TestPuzzles.getPossibleNumbers(sudoku);
+		
+		Result r = new InferenceChains().solveNext(sudoku, InferenceChains.DEFAULT_MAX_LENGTH);
+		TestPuzzles.check(r.isClear() && r.getTechnique() == Technique.CHAIN, 
+				"Expected an inference chain, got " + r.getMessage());
+		TestPuzzles.checkRemoved(before, sudoku, 3, TestPuzzles.index(sudoku, 5, 5));
+		
+		// The chain has five links
+		sudoku = TestPuzzles.createOpenGrid(3);
+		setPossibleNumbers(sudoku, 1, 1, 1, 2);
+		setPossibleNumbers(sudoku, 1, 5, 1, 3);
+		setPossibleNumbers(sudoku, 5, 1, 2, 3);
+		r = new InferenceChains().solveNext(sudoku, 4);
+		TestPuzzles.check(!r.isClear(), "A chain of four links shouldn't remove numbers");
+		TestPuzzles.checkRemoved(before, sudoku, 3);
+	}
+	
+	private static void testForcingChain() throws UnsolvablePuzzleException
+	{
+		// If r1c1 didn't have 1 it would have 2. r1c5 and r1c9 would then both have 3.
+		SudokuGrid sudoku = TestPuzzles.createOpenGrid(3);
+		setPossibleNumbers(sudoku, 1, 1, 1, 2);
+		setPossibleNumbers(sudoku, 1, 5, 2, 3);
+		setPossibleNumbers(sudoku, 1, 9, 2, 3);
+		
+		Result r = new InferenceChains().solveNext(sudoku, InferenceChains.DEFAULT_MAX_LENGTH);
+		TestPuzzles.check(r.isClear() && r.getTechnique() == Technique.CHAIN, 
+				"Expected a forcing chain, got " + r.getMessage());
+		TestPuzzles.check(sudoku.getSlot(0, 0).getNumber() == 1, 
+				"Expected 1 in r1c1, got " + sudoku.getSlot(0, 0).getNumber());
+	}
+	
+	private static void testSolutionsKept(List<String> fileNames) throws Exception
+	{
+		int[] uses = new int[Technique.values().length];
+		int chains = 0;
+		for (String fileName : fileNames)
+		{
+			int[][] solution = TestPuzzles.findSolution(fileName);
+			for (SudokuGrid state : TestPuzzles.walkToSolution(fileName, solution, uses))
+			{
+				// The chains are followed on every grid, not only where the solver uses them. 
+				// The numbers are removed until a slot is solved or no chain is found.
+				InferenceChains finder = new InferenceChains();
+				Result r;
+				do
+				{
+					r = finder.solveNext(state, InferenceChains.DEFAULT_MAX_LENGTH);
+					if (r.isClear())
+						chains ++;
+				}
+				while (r.isClear() && !r.getTarget().hasNumber());
+				
+				Slot mismatch = TestPuzzles.findMismatch(state, solution);
+				TestPuzzles.check(mismatch == null, "A chain left " + TestPuzzles.describe(
+						state, mismatch == null ? 0 : mismatch.getIndex()) + 
+						" without its solution in " + fileName);
+			}
+		}
+		
+		TestPuzzles.check(uses[Technique.CHAIN.ordinal()] > 0, 
+				"The solver didn't use chains on the example puzzles");
+		TestPuzzles.check(chains > 0, "No chains were found on the example puzzles");
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	private static void setPossibleNumbers(SudokuGrid sudoku, int row, int column, 
+			int... numbers)
+	{
+		int possible = NumberSet.EMPTY;
+		for (int number : numbers)
+		{
+			possible |= NumberSet.of(number);
+		}
+		sudoku.getSlot(column - 1, row - 1).setPossibleNumbers(possible);
+	}
+}
@@ -0,0 +1,228 @@
+package sp_logic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * SatSolverTest checks that {@link SatSolver} solves small problems whose answers are 
+ * known. Random problems are also checked against a search that tries every assignment. 
+ * The test is run as a program and exits with a non-zero status if a check fails.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class SatSolverTest
+{
+	// ATTRIBUTES	---------------------
+	
+	private static final long SEED = 0x5A7C0DEL;
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	private SatSolverTest()
+	{
+		// The interface is static
+	}
+	
+	
+	// MAIN METHOD	---------------------
+	
+	/**
+	 * Runs the tests
+	 * @param args Not used
+	 * @throws InterruptedException If the test was interrupted
+	 */
+	public static void main(String[] args) throws InterruptedException
+	{
+		testSatisfiable();
+		testUnsatisfiable();
+		testPigeonholes();
+		testRandomProblems();
+		
+		System.out.println("All tests passed");
+	}
+	
+	
+	// TESTS	-------------------------
+	
+	private static void testSatisfiable() throws InterruptedException
+	{
+		// Only 1 = false, 2 = true, 3 = false satisfies all of these
+		checkSolved(3, true, new int[][] {{1, 2}, {-1, 3}, {-2, -3}, {-1, -2}, {2, 3, -1}, 
+				{-3}});
+		// Unit clauses, duplicates and clauses that are always true
+		checkSolved(4, true, new int[][] {{1}, {1, 1, -2}, {2, -2}, {-1, 3, 3}, {-3, 4}, 
+				{-4, -2}});
+		// A chain of implications from 1 to 20
+		List<int[]> chain = new ArrayList<>();
+		chain.add(new int[] {1});
+		for (int i = 1; i < 20; i++)
+		{
+			chain.add(new int[] {-i, i + 1});
+		}
+		SatSolver solver = checkSolved(20, true, chain.toArray(new int[0][]));
+		TestPuzzles.check(solver.getValue(20), "The implications should make 20 true");
+	}
+	
+	private static void testUnsatisfiable() throws InterruptedException
+	{
+		checkSolved(1, false, new int[][] {{1}, {-1}});
+		checkSolved(1, false, new int[][] {{}});
+		
+		// Every assignment of three variables breaks one of these
+		List<int[]> clauses = new ArrayList<>();
+		for (int signs = 0; signs < 8; signs++)
+		{
+			clauses.add(new int[] {(signs & 1) == 0 ? 1 : -1, (signs & 2) == 0 ? 2 : -2, 
+					(signs & 4) == 0 ? 3 : -3});
+		}
+		checkSolved(3, false, clauses.toArray(new int[0][]));
+	}
+	
+	private static void testPigeonholes() throws InterruptedException
+	{
+		// The same number of pigeons and holes fit, one more pigeon doesn't. These can only 
+		// be proven with many conflicts, so the learning and the restarts are used.
+		for (int holes = 2; holes <= 7; holes++)
+		{
+			checkSolved(holes * holes, true, createPigeonholes(holes, holes));
+			checkSolved((holes + 1) * holes, false, createPigeonholes(holes + 1, holes));
+		}
+	}
+	
+	private static void testRandomProblems() throws InterruptedException
+	{
+		// Around 4.3 clauses per variable, about half of the problems are satisfiable
+		SplittableRandom random = new SplittableRandom(SEED);
+		int satisfiable = 0;
+		for (int i = 0; i < 300; i++)
+		{
+			int variables = 5 + random.nextInt(10);
+			int[][] clauses = new int[variables * 43 / 10][3];
+			for (int[] clause : clauses)
+			{
+				for (int j = 0; j < clause.length; j++)
+				{
+					int variable = 1 + random.nextInt(variables);
+					clause[j] = random.nextBoolean() ? variable : -variable;
+				}
+			}
+			
+			boolean expected = isSatisfiable(variables, clauses);
+			checkSolved(variables, expected, clauses);
+			if (expected)
+				satisfiable ++;
+		}
+		
+		TestPuzzles.check(satisfiable > 50 && satisfiable < 250, 
+				"The random problems should be both satisfiable and unsatisfiable, " + 
+				satisfiable + " of 300 were satisfiable");
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	private static SatSolver checkSolved(int variables, boolean satisfiable, int[][] clauses)
+			throws InterruptedException
+	{
+		SatSolver solver = new SatSolver(variables);
+		for (int[] clause : clauses)
+		{
+			solver.addClause(clause);
+		}
+		
+		boolean solved = solver.solve();
+		TestPuzzles.check(solved == satisfiable, "Expected " + (satisfiable ? 
+				"a solution" : "no solution") + " for " + describe(clauses));
+		
+		// The found solution must satisfy every clause
+		if (solved)
+		{
+			boolean[] values = new boolean[variables + 1];
+			for (int variable = 1; variable <= variables; variable++)
+			{
+				values[variable] = solver.getValue(variable);
+			}
+			TestPuzzles.check(satisfies(values, clauses), "The solution doesn't satisfy " + 
+					describe(clauses));
+		}
+		
+		return solver;
+	}
+	
+	private static boolean isSatisfiable(int variables, int[][] clauses)
+	{
+		boolean[] values = new boolean[variables + 1];
+		for (int assignment = 0; assignment < 1 << variables; assignment++)
+		{
+			for (int variable = 1; variable <= variables; variable++)
+			{
+				values[variable] = (assignment & (1 << (variable - 1))) != 0;
+			}
+			if (satisfies(values, clauses))
+				return true;
+		}
+		return false;
+	}
+	
+	private static boolean satisfies(boolean[] values, int[][] clauses)
+	{
+		for (int[] clause : clauses)
+		{
+			boolean satisfied = false;
+			for (int literal : clause)
+			{
+				if (values[Math.abs(literal)] == literal > 0)
+					satisfied = true;
+			}
+			if (!satisfied)
+				return false;
+		}
+		return true;
+	}
+	
+	private static int[][] createPigeonholes(int pigeons, int holes)
+	{
+		// Variable pigeon * holes + hole + 1 tells whether the pigeon is in the hole
+		List<int[]> clauses = new ArrayList<>();
+		for (int pigeon = 0; pigeon < pigeons; pigeon++)
+		{
+			int[] somewhere = new int[holes];
+			for (int hole = 0; hole < holes; hole++)
+			{
+				somewhere[hole] = pigeon * holes + hole + 1;
+			}
+			clauses.add(somewhere);
+		}
+		for (int hole = 0; hole < holes; hole++)
+		{
+			for (int first = 0; first < pigeons; first++)
+			{
+				for (int second = first + 1; second < pigeons; second++)
+				{
+					clauses.add(new int[] {-(first * holes + hole + 1), 
+							-(second * holes + hole + 1)});
+				}
+			}
+		}
+		return clauses.toArray(new int[0][]);
+	}
+	
+	private static String describe(int[][] clauses)
+	{
+		StringBuilder s = new StringBuilder();
+		for (int[] clause : clauses)
+		{
+			s.append('(');
+			for (int i = 0; i < clause.length; i++)
+			{
+				if (i > 0)
+					s.append(" | ");
+				s.append(clause[i]);
+			}
+			s.append(')');
+		}
+		return s.toString();
+	}
+}
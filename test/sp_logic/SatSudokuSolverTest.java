@@ -0,0 +1,160 @@
+package sp_logic;
+
+import java.util.Arrays;
+import java.util.List;
+
+import sp_logic.SudokuRules.Cage;
+
+/**
+ * SatSudokuSolverTest checks that {@link SatSudokuSolver} finds the same solutions as 
+ * {@link SudokuSolver} for the example puzzles and that it finds puzzles without a 
+ * solution unsolvable. Some of the example puzzles (like the killer sudoku of example 8) 
+ * have more than one solution. The engines may find different solutions to those, as long 
+ * as both solutions follow all the rules of the puzzle. The test is run as a program and 
+ * exits with a non-zero status if a check fails.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class SatSudokuSolverTest
+{
+	// CONSTRUCTOR	---------------------
+	
+	private SatSudokuSolverTest()
+	{
+		// The interface is static
+	}
+	
+	
+	// MAIN METHOD	---------------------
+	
+	/**
+	 * Runs the tests
+	 * @param args The directory of the example puzzles may be given as the first argument 
+	 * (data by default)
+	 * @throws Exception If the puzzles couldn't be read or solved
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		List<String> fileNames = TestPuzzles.getDataFiles(args);
+		testSameSolutions(fileNames);
+		testNoSolution(fileNames.get(0));
+		
+		System.out.println("All tests passed");
+	}
+	
+	
+	// TESTS	-------------------------
+	
+	private static void testSameSolutions(List<String> fileNames) throws Exception
+	{
+		boolean cages = false;
+		for (String fileName : fileNames)
+		{
+			SudokuGrid cascade = TestPuzzles.load(fileName);
+			SudokuSolver solver = new SudokuSolver(cascade, true);
+			solver.setStats(null);
+			solver.solve();
+			
+			SudokuGrid sat = TestPuzzles.load(fileName);
+			new SatSudokuSolver(sat).solve();
+			
+			SudokuGrid puzzle = TestPuzzles.load(fileName);
+			checkSolution(puzzle, cascade, "The cascade");
+			checkSolution(puzzle, sat, "The SAT engine");
+			
+			// Two different solutions that both follow the rules mean that the puzzle has 
+			// more than one solution
+			if (!Arrays.deepEquals(cascade.getNumbers(), sat.getNumbers()))
+				System.out.println(fileName + " has more than one solution");
+			if (!sat.getRules().getCages().isEmpty())
+				cages = true;
+		}
+		
+		TestPuzzles.check(cages, "None of the example puzzles has cages");
+	}
+	
+	private static void testNoSolution(String fileName) throws Exception
+	{
+		// A number that doesn't belong to the solution is added to the puzzle. The number 
+		// doesn't break the rules on its own, so it takes a search to find the puzzle 
+		// unsolvable.
+		int[][] solution = TestPuzzles.findSolution(fileName);
+		SudokuGrid sudoku = TestPuzzles.load(fileName);
+		Slot target = null;
+		int wrongNumber = 0;
+		for (Slot slot : sudoku.getSlots())
+		{
+			if (slot.hasNumber())
+				continue;
+			
+			int used = NumberSet.EMPTY;
+			for (int peer : sudoku.getRules().getPeers(slot.getIndex()))
+			{
+				Slot peerSlot = TestPuzzles.getSlot(sudoku, peer);
+				if (peerSlot.hasNumber())
+					used |= NumberSet.of(peerSlot.getNumber());
+			}
+			int options = NumberSet.range(sudoku.getSize()) & ~used &
+					~NumberSet.of(solution[slot.getColumn()][slot.getRow()]);
+			if (options != NumberSet.EMPTY)
+			{
+				target = slot;
+				wrongNumber = NumberSet.first(options);
+				break;
+			}
+		}
+		TestPuzzles.check(target != null, "Couldn't find a place for a wrong number");
+		target.setNumber(wrongNumber);
+		
+		try
+		{
+			new SatSudokuSolver(sudoku).solve();
+			TestPuzzles.check(false, wrongNumber + " in " + TestPuzzles.describe(sudoku, 
+					target.getIndex()) + " should make " + fileName + " unsolvable");
+		}
+		catch (UnsolvablePuzzleException e)
+		{
+			// The search doesn't find the contradiction in any single slot
+			TestPuzzles.check(e.getSource() == null && !e.getMessage().contains(" at "), 
+					"A search without a solution shouldn't point to a slot: " + e.getMessage());
+		}
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	private static void checkSolution(SudokuGrid puzzle, SudokuGrid solved, String engine)
+	{
+		SudokuRules rules = puzzle.getRules();
+		int size = puzzle.getSize();
+		int[][] numbers = solved.getNumbers();
+		for (Slot slot : puzzle.getSlots())
+		{
+			int x = slot.getColumn();
+			int y = slot.getRow();
+			String place = TestPuzzles.describe(puzzle, slot.getIndex());
+			TestPuzzles.check(numbers[x][y] >= 1 && numbers[x][y] <= size, 
+					engine + " left " + place + " without a number");
+			TestPuzzles.check(!slot.hasNumber() || slot.getNumber() == numbers[x][y], 
+					engine + " changed the number in " + place);
+			
+			for (int peer : rules.getPeers(slot.getIndex()))
+			{
+				TestPuzzles.check(numbers[peer % size][peer / size] != numbers[x][y], 
+						engine + " put the same number in " + place + " and " + 
+						TestPuzzles.describe(puzzle, peer));
+			}
+		}
+		
+		for (Cage cage : rules.getCages())
+		{
+			int sum = 0;
+			for (int index : cage.getSlots())
+			{
+				sum += numbers[index % size][index / size];
+			}
+			TestPuzzles.check(sum == cage.getSum(), engine + " broke a cage of " + 
+					cage.getSum());
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package sp_logic;
+
+import java.util.List;
+
+/**
+ * SinglesProbeTest checks that probing finds the numbers that lead to a contradiction 
+ * with singles alone. It also probes the numbers of the solution on every grid the solver 
+ * passes through on the way to the solutions of the example puzzles and checks that none 
+ * of them fail. The test is run as a program and exits with a non-zero status if a check 
+ * fails.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class SinglesProbeTest
+{
+	// CONSTRUCTOR	---------------------
+	
+	private SinglesProbeTest()
+	{
+		// The interface is static
+	}
+	
+	
+	// MAIN METHOD	---------------------
+	
+	/**
+	 * Runs the tests
+	 * @param args The directory of the example puzzles may be given as the first argument 
+	 * (data by default)
+	 * @throws Exception If the puzzles couldn't be read or solved
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		testContradiction();
+		testSolutionsKept(TestPuzzles.getDataFiles(args));
+		
+		System.out.println("All tests passed");
+	}
+	
+	
+	// TESTS	-------------------------
+	
+	private static void testContradiction()
+	{
+		// With 1 in r1c1, r1c2 and r1c3 would both have to hold 3
+		SudokuGrid sudoku = TestPuzzles.createOpenGrid(3);
+		sudoku.getSlot(0, 0).setPossibleNumbers(NumberSet.of(1) | NumberSet.of(2));
+		sudoku.getSlot(1, 0).setPossibleNumbers(NumberSet.of(1) | NumberSet.of(3));
+		sudoku.getSlot(2, 0).setPossibleNumbers(NumberSet.of(1) | NumberSet.of(3));
+		int[] before = TestPuzzles.getPossibleNumbers(sudoku);
+		
+		SinglesProbe probe = new SinglesProbe(sudoku);
+		TestPuzzles.check(probe.fails(0, 1), "1 in r1c1 should fail");
+		TestPuzzles.check(!probe.fails(0, 2), "2 in r1c1 shouldn't fail");
+		TestPuzzles.check(probe.fails(1, 2), "2 isn't possible in r1c2");
+		
+		// The probes don't change the grid
+		TestPuzzles.checkRemoved(before, sudoku, 1);
+	}
+	
+	private static void testSolutionsKept(List<String> fileNames) throws Exception
+	{
+		int failures = 0;
+		for (String fileName : fileNames)
+		{
+			int[][] solution = TestPuzzles.findSolution(fileName);
+			List<SudokuGrid> states = TestPuzzles.walkToSolution(fileName, solution, 
+					new int[SudokuSolver.Technique.values().length]);
+			for (int i = 0; i < states.size(); i++)
+			{
+				SudokuGrid state = states.get(i);
+				SinglesProbe probe = new SinglesProbe(state);
+				for (Slot slot : state.getSlots())
+				{
+					if (slot.hasNumber())
+						continue;
+					
+					int number = solution[slot.getColumn()][slot.getRow()];
+					TestPuzzles.check(!probe.fails(slot.getIndex(), number), "Probing " + 
+							number + " in " + TestPuzzles.describe(state, slot.getIndex()) + 
+							" failed in " + fileName);
+					
+					// The other numbers are only probed on the first grid, where most of 
+					// them are still possible
+					if (i > 0)
+						continue;
+					for (int rest = slot.getPossibleNumbers() & ~NumberSet.of(number); 
+							rest != 0; rest &= rest - 1)
+					{
+						if (probe.fails(slot.getIndex(), NumberSet.first(rest)))
+							failures ++;
+					}
+				}
+			}
+		}
+		
+		TestPuzzles.check(failures > 0, "Probing didn't rule out any numbers");
+	}
+}
@@ -0,0 +1,181 @@
+package sp_logic;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * SolverSnapshotTest checks that a solver restored from a snapshot taken in the middle of 
+ * a guess reaches the same solution as the original solver. It also checks that broken 
+ * snapshots are rejected with an {@link IllegalArgumentException} instead of failing in 
+ * some other way. The test is run as a program and exits with a non-zero status if a check 
+ * fails.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class SolverSnapshotTest
+{
+	// ATTRIBUTES	---------------------
+	
+	private static final String PUZZLE = "sudokuexample5.txt";
+	private static final String KILLER_PUZZLE = "sudokuexample8.txt";
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	private SolverSnapshotTest()
+	{
+		// The interface is static
+	}
+	
+	
+	// MAIN METHOD	---------------------
+	
+	/**
+	 * Runs the tests
+	 * @param args The directory of the example puzzles may be given as the first argument 
+	 * (data by default)
+	 * @throws Exception If the puzzle couldn't be read or solved
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		String directory = args.length > 0 ? args[0] : "data";
+		byte[] snapshot = testRoundTrip(directory + "/" + PUZZLE);
+		testTruncated(snapshot);
+		testCorrupted(snapshot);
+		
+		// The cages of a killer sudoku are written with the rules
+		SudokuSolver killer = new SudokuSolver(TestPuzzles.load(directory + "/" + 
+				KILLER_PUZZLE), true);
+		testCorrupted(killer.createSnapshot());
+		
+		System.out.println("All tests passed");
+	}
+	
+	
+	// TESTS	-------------------------
+	
+	private static byte[] testRoundTrip(String fileName) throws Exception
+	{
+		// The snapshot is taken a few steps after the first guess
+		SudokuSolver solver = new SudokuSolver(TestPuzzles.load(fileName), true);
+		solver.setStats(null);
+		int stepsAfterGuess = -1;
+		while (stepsAfterGuess < 5)
+		{
+			if (solver.solveStep().isGuess() || stepsAfterGuess >= 0)
+				stepsAfterGuess ++;
+		}
+		int[][] current = solver.getCurrentSudoku().getNumbers();
+		byte[] snapshot = solver.createSnapshot();
+		
+		SudokuSolver restored = SudokuSolver.restoreSnapshot(snapshot, new SudokuGrid(3), true);
+		restored.setStats(null);
+		TestPuzzles.check(Arrays.deepEquals(current, restored.getCurrentSudoku().getNumbers()), 
+				"The restored grid differs from the grid of the snapshot");
+		
+		// Both solvers have to undo the guess on the way, since example 5 needs many guesses
+		solver.solve();
+		restored.solve();
+		int[][] solution = TestPuzzles.findSolution(fileName);
+		TestPuzzles.check(Arrays.deepEquals(solution, solver.getCurrentSudoku().getNumbers()), 
+				"The original solver didn't find the solution");
+		TestPuzzles.check(Arrays.deepEquals(solution, 
+				restored.getCurrentSudoku().getNumbers()), 
+				"The restored solver didn't find the solution");
+		
+		return snapshot;
+	}
+	
+	private static void testTruncated(byte[] snapshot) throws IOException
+	{
+		// The compressed data and the data inside it are both cut at every length
+		byte[] content = inflate(snapshot);
+		for (int length = 0; length < snapshot.length; length++)
+		{
+			checkRejected(Arrays.copyOf(snapshot, length), "Cut at " + length + " bytes");
+		}
+		for (int length = 0; length < content.length; length++)
+		{
+			checkRejected(deflate(Arrays.copyOf(content, length)), 
+					"Content cut at " + length + " bytes");
+		}
+	}
+	
+	private static void testCorrupted(byte[] snapshot) throws IOException
+	{
+		// Every byte is replaced with a few values. Some of the changes still produce a 
+		// valid snapshot, so only the type of the failure is checked.
+		byte[] content = inflate(snapshot);
+		int[] replacements = {0x00, 0xFF, 0x7F, 0x80, 0x01};
+		for (int i = 0; i < content.length; i++)
+		{
+			for (int replacement : replacements)
+			{
+				byte[] corrupted = content.clone();
+				corrupted[i] = (byte) replacement;
+				checkFailure(deflate(corrupted), "Byte " + i + " set to " + replacement);
+				
+				corrupted = snapshot.clone();
+				if (i < corrupted.length)
+				{
+					corrupted[i] = (byte) replacement;
+					checkFailure(corrupted, "Compressed byte " + i + " set to " + 
+							replacement);
+				}
+			}
+		}
+		
+		checkRejected(new byte[0], "An empty snapshot");
+		checkRejected("Not a snapshot".getBytes(), "Text");
+		checkRejected(deflate("Not a snapshot".getBytes()), "Compressed text");
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	private static void checkRejected(byte[] snapshot, String description)
+	{
+		TestPuzzles.check(checkFailure(snapshot, description), 
+				description + " should be rejected");
+	}
+	
+	private static boolean checkFailure(byte[] snapshot, String description)
+	{
+		try
+		{
+			SudokuSolver.restoreSnapshot(snapshot, new SudokuGrid(3), true);
+			return false;
+		}
+		catch (IllegalArgumentException e)
+		{
+			return true;
+		}
+		catch (RuntimeException e)
+		{
+			throw new AssertionError(description + " failed with " + e, e);
+		}
+	}
+	
+	private static byte[] inflate(byte[] snapshot) throws IOException
+	{
+		try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(snapshot)))
+		{
+			return in.readAllBytes();
+		}
+	}
+	
+	private static byte[] deflate(byte[] content) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DeflaterOutputStream out = new DeflaterOutputStream(bytes))
+		{
+			out.write(content);
+		}
+		return bytes.toByteArray();
+	}
+}
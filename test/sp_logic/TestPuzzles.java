@@ -0,0 +1,266 @@
+package sp_logic;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+
+import sp_logic.SudokuSolver.Result;
+
+/**
+ * TestPuzzles contains the grids and checks shared by the tests of the solving logic. The 
+ * example puzzles are read from the data directory of the project.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+class TestPuzzles
+{
+	// CONSTRUCTOR	---------------------
+	
+	private TestPuzzles()
+	{
+		// The interface is static
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	/**
+	 * @param args The arguments of a test program. The first argument may name the 
+	 * directory of the example puzzles.
+	 * @return The example puzzle files, sorted by name
+	 * @throws FileNotFoundException If the directory doesn't contain puzzles
+	 */
+	static List<String> getDataFiles(String[] args) throws FileNotFoundException
+	{
+		File directory = new File(args.length > 0 ? args[0] : "data");
+		File[] files = directory.listFiles();
+		if (files == null)
+			throw new FileNotFoundException("Couldn't find " + directory);
+		
+		List<String> names = new ArrayList<>();
+		for (File file : files)
+		{
+			if (file.getName().endsWith(".txt"))
+				names.add(file.getPath());
+		}
+		if (names.isEmpty())
+			throw new FileNotFoundException("No puzzles in " + directory);
+		
+		names.sort(null);
+		return names;
+	}
+	
+	/**
+	 * Reads a puzzle into a grid that isn't drawn
+	 * @param fileName The name of the puzzle file
+	 * @return A grid that holds the numbers and the rules of the puzzle
+	 * @throws FileNotFoundException If the file couldn't be found
+	 */
+	static SudokuGrid load(String fileName) throws FileNotFoundException
+	{
+		int[][] numbers = SudokuReader.readFile(fileName);
+		SudokuGrid sudoku = new SudokuGrid(SudokuReader.getBoxSize(numbers.length));
+		sudoku.setRules(SudokuReader.readRules(fileName));
+		sudoku.loadNumbers(numbers);
+		return sudoku;
+	}
+	
+	/**
+	 * Finds the solution of a puzzle with a plain depth first search
+	 * @param fileName The name of the puzzle file
+	 * @return The numbers of the solution [x][y]
+	 * @throws FileNotFoundException If the file couldn't be found
+	 * @throws UnsolvablePuzzleException If the puzzle has no solution
+	 */
+	static int[][] findSolution(String fileName) throws FileNotFoundException, 
+			UnsolvablePuzzleException
+	{
+		SudokuGrid sudoku = load(fileName);
+		new BacktrackingSudokuSolver(sudoku).solve();
+		return sudoku.getNumbers();
+	}
+	
+	/**
+	 * Creates an empty grid where every slot may hold any number
+	 * @param boxSize The width and height of a box
+	 * @return The grid
+	 */
+	static SudokuGrid createOpenGrid(int boxSize)
+	{
+		SudokuGrid sudoku = new SudokuGrid(boxSize);
+		for (Slot slot : sudoku.getSlots())
+		{
+			slot.setPossibleNumbers(NumberSet.range(sudoku.getSize()));
+		}
+		return sudoku;
+	}
+	
+	/**
+	 * @param sudoku A grid
+	 * @return The possible numbers of each slot by slot index
+	 */
+	static int[] getPossibleNumbers(SudokuGrid sudoku)
+	{
+		int[] possible = new int[sudoku.getSize() * sudoku.getSize()];
+		for (Slot slot : sudoku.getSlots())
+		{
+			possible[slot.getIndex()] = slot.getPossibleNumbers();
+		}
+		return possible;
+	}
+	
+	/**
+	 * Checks that only the expected possible numbers were removed from a grid
+	 * @param before The possible numbers of the slots before the removal
+	 * @param sudoku The grid after the removal
+	 * @param number The number that should have been removed
+	 * @param slots The indices of the slots the number should have been removed from
+	 */
+	static void checkRemoved(int[] before, SudokuGrid sudoku, int number, int... slots)
+	{
+		int[] expected = before.clone();
+		for (int slot : slots)
+		{
+			expected[slot] &= ~NumberSet.of(number);
+		}
+		
+		int[] after = getPossibleNumbers(sudoku);
+		for (int i = 0; i < after.length; i++)
+		{
+			check(after[i] == expected[i], "Slot " + describe(sudoku, i) + " has " + 
+					NumberSet.toList(after[i]) + ", expected " + 
+					NumberSet.toList(expected[i]));
+		}
+	}
+	
+	/**
+	 * Solves a puzzle with {@link SudokuSolver} one step at a time. Each step that starts 
+	 * from a grid on the way to the solution (before any wrong guesses) must keep the grid 
+	 * on the way to the solution.
+	 * @param fileName The name of the puzzle file
+	 * @param solution The solution of the puzzle [x][y]
+	 * @param techniqueUses How many times each technique has been checked, by the ordinal 
+	 * of the technique. The checked steps are added to the counts.
+	 * @return Copies of the grids on the way to the solution, one before each checked step. 
+	 * The possible numbers of all the empty slots in the copies are up to date.
+	 * @throws FileNotFoundException If the file couldn't be found
+	 * @throws UnsolvablePuzzleException If the solver couldn't solve the puzzle
+	 */
+	static List<SudokuGrid> walkToSolution(String fileName, int[][] solution, 
+			int[] techniqueUses) throws FileNotFoundException, UnsolvablePuzzleException
+	{
+		SudokuSolver solver = new SudokuSolver(load(fileName), true);
+		solver.setStats(null);
+		List<SudokuGrid> states = new ArrayList<>();
+		
+		while (true)
+		{
+			SudokuGrid before = new SudokuGrid(solver.getCurrentSudoku(), true);
+			boolean onTheWay = findMismatch(before, solution) == null;
+			Result r = solver.solveStep();
+			if (!r.isClear())
+				break;
+			
+			// A guess may be wrong, the other steps must be right
+			if (onTheWay && !r.isGuess())
+			{
+				Slot mismatch = findMismatch(solver.getCurrentSudoku(), solution);
+				check(mismatch == null, r.getTechnique() + " step \"" + r.getMessage() + 
+						"\" left " + (mismatch == null ? "" : describe(before, 
+						mismatch.getIndex())) + " without its solution in " + fileName);
+				
+				updatePossibleNumbers(before);
+				states.add(before);
+				if (r.getTechnique() != null)
+					techniqueUses[r.getTechnique().ordinal()] ++;
+			}
+		}
+		
+		check(findMismatch(solver.getCurrentSudoku(), solution) == null, 
+				"The solver didn't reach the solution of " + fileName);
+		return states;
+	}
+	
+	/**
+	 * Brings the possible numbers of the empty slots up to date with the numbers in the 
+	 * grid. The numbers that have already been removed stay removed.
+	 * @param sudoku The grid that is updated
+	 */
+	static void updatePossibleNumbers(SudokuGrid sudoku)
+	{
+		for (Slot slot : sudoku.getSlots())
+		{
+			if (slot.hasNumber())
+				continue;
+			
+			int removed = slot.getPossibleNumbers() == NumberSet.EMPTY ? NumberSet.EMPTY : 
+					NumberSet.range(sudoku.getSize()) & ~slot.getPossibleNumbers();
+			SudokuSolver.updateSlotNumbers(slot);
+			slot.removePossibleNumbers(removed);
+		}
+	}
+	
+	/**
+	 * Checks that a grid can still reach a solution. The numbers in the grid must match 
+	 * the solution and the empty slots must still have their numbers of the solution as 
+	 * possible numbers. The slots whose possible numbers haven't been found yet are left 
+	 * out.
+	 * @param sudoku The grid that is checked
+	 * @param solution The solution of the puzzle [x][y]
+	 * @return The first slot that doesn't match the solution (null if all of them match)
+	 */
+	static Slot findMismatch(SudokuGrid sudoku, int[][] solution)
+	{
+		for (Slot slot : sudoku.getSlots())
+		{
+			int number = solution[slot.getColumn()][slot.getRow()];
+			if (slot.hasNumber() ? slot.getNumber() != number : 
+					slot.getPossibleNumbers() != NumberSet.EMPTY && !slot.isPossible(number))
+				return slot;
+		}
+		return null;
+	}
+	
+	/**
+	 * @param sudoku A grid
+	 * @param row The row of a slot, starting from 1
+	 * @param column The column of a slot, starting from 1
+	 * @return The index of the slot
+	 */
+	static int index(SudokuGrid sudoku, int row, int column)
+	{
+		return (row - 1) * sudoku.getSize() + column - 1;
+	}
+	
+	/**
+	 * @param sudoku A grid
+	 * @param index The index of a slot
+	 * @return The slot at the index
+	 */
+	static Slot getSlot(SudokuGrid sudoku, int index)
+	{
+		return sudoku.getSlot(index % sudoku.getSize(), index / sudoku.getSize());
+	}
+	
+	/**
+	 * @param sudoku A grid
+	 * @param index The index of a slot
+	 * @return The position of the slot as r(row)c(column), starting from 1
+	 */
+	static String describe(SudokuGrid sudoku, int index)
+	{
+		return "r" + (index / sudoku.getSize() + 1) + "c" + (index % sudoku.getSize() + 1);
+	}
+	
+	/**
+	 * Fails the test if a condition doesn't hold
+	 * @param condition The condition
+	 * @param message The message shown if the condition doesn't hold
+	 */
+	static void check(boolean condition, String message)
+	{
+		if (!condition)
+			throw new AssertionError(message);
+	}
+}
@@ -0,0 +1,142 @@
+package sp_service;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import sp_service.SolveServiceTest.Response;
+
+/**
+ * MetricsScrapeTest starts the solve service on the loopback address, solves a puzzle 
+ * through it and scrapes /metrics like Prometheus would. The scraped text is checked 
+ * against the rules of the text exposition format. The test is run as a program and exits 
+ * with a non-zero status if a check fails.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class MetricsScrapeTest
+{
+	// ATTRIBUTES	---------------------
+	
+	private static final Pattern SAMPLE = Pattern.compile(
+			"([a-zA-Z_:][a-zA-Z0-9_:]*)(\\{([a-zA-Z_][a-zA-Z0-9_]*=\"[^\"]*\"" + 
+			"(,[a-zA-Z_][a-zA-Z0-9_]*=\"[^\"]*\")*)\\})? (-?[0-9.eE+-]+|\\+Inf|NaN)");
+	private static final String PUZZLE = 
+			"530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	private MetricsScrapeTest()
+	{
+		// The interface is static
+	}
+	
+	
+	// MAIN METHOD	---------------------
+	
+	/**
+	 * Runs the test
+	 * @param args Not used
+	 * @throws Exception If the service couldn't be started or a request failed
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		// The puzzles of the second service run out of time right away
+		SolveService service = startService(10000);
+		SolveService outOfTime = startService(0);
+		try
+		{
+			post(service, "SOLVED");
+			post(outOfTime, "BUDGET_EXHAUSTED");
+			
+			Response response = SolveServiceTest.get(getUrl(service) + "/metrics");
+			SolveServiceTest.check(response.status == 200, "Expected 200, got " + 
+					response.status);
+			SolveServiceTest.check(response.contentType != null && 
+					response.contentType.startsWith("text/plain; version=0.0.4"), 
+					"Unexpected content type " + response.contentType);
+			
+			Map<String, Double> samples = parse(response.body);
+			SolveServiceTest.check(samples.get(
+					"sudoku_solves_total{result=\"solved\"}") >= 1, "No solved puzzles");
+			SolveServiceTest.check(samples.containsKey(
+					"sudoku_solves_total{result=\"unsolvable\"}"), "No unsolvable count");
+			SolveServiceTest.check(samples.get(
+					"sudoku_solves_total{result=\"budget_exhausted\"}") >= 1, 
+					"No puzzles that ran out of budget");
+			SolveServiceTest.check(samples.get(
+					"sudoku_solve_duration_seconds_bucket{le=\"+Inf\"}").equals(
+					samples.get("sudoku_solve_duration_seconds_count")), 
+					"The +Inf bucket doesn't match the count");
+		}
+		finally
+		{
+			service.stop(0);
+			outOfTime.stop(0);
+		}
+		
+		System.out.println("All tests passed");
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	private static SolveService startService(long timeLimitMillis) throws Exception
+	{
+		SolveService service = new SolveService(new InetSocketAddress(
+				InetAddress.getLoopbackAddress(), 0), new SolveBatcher(1, 16, 4, 2, 
+				timeLimitMillis), 2, 4, 20000);
+		service.start();
+		return service;
+	}
+	
+	private static String getUrl(SolveService service)
+	{
+		return "http://127.0.0.1:" + service.getAddress().getPort();
+	}
+	
+	private static void post(SolveService service, String expectedStatus) throws Exception
+	{
+		Response response = SolveServiceTest.post(getUrl(service) + "/solve", PUZZLE);
+		SolveServiceTest.check(response.body.contains("\"status\":\"" + expectedStatus + 
+				"\""), "Expected " + expectedStatus + ": " + response.body);
+	}
+	
+	private static Map<String, Double> parse(String text)
+	{
+		// Each metric is described once before its samples
+		Map<String, Double> samples = new HashMap<>();
+		Set<String> described = new HashSet<>();
+		for (String line : text.split("\n"))
+		{
+			if (line.startsWith("# HELP "))
+				continue;
+			if (line.startsWith("# TYPE "))
+			{
+				String name = line.split(" ")[2];
+				SolveServiceTest.check(described.add(name), name + " is described twice");
+				continue;
+			}
+			
+			Matcher matcher = SAMPLE.matcher(line);
+			SolveServiceTest.check(matcher.matches(), "Invalid sample line: " + line);
+			String name = matcher.group(1).replaceAll("_(bucket|sum|count)$", "");
+			SolveServiceTest.check(described.contains(name) || 
+					described.contains(matcher.group(1)), matcher.group(1) + 
+					" has no type");
+			
+			String key = matcher.group(1) + (matcher.group(2) == null ? "" : 
+					matcher.group(2));
+			SolveServiceTest.check(!samples.containsKey(key), key + " is written twice");
+			samples.put(key, Double.valueOf(matcher.group(5)));
+		}
+		
+		return samples;
+	}
+}
@@ -0,0 +1,203 @@
+package sp_service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * SolveServiceTest starts the solve service on the loopback address and sends requests 
+ * to it. The test doesn't need a test framework. It is run as a program and exits with a 
+ * non-zero status if a check fails.
+ * @author Mikko Hilpinen
+ * @since 18.10.2026
+ */
+public class SolveServiceTest
+{
+	// ATTRIBUTES	---------------------
+	
+	private static final String PUZZLE_1 = 
+			"530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+	private static final String PUZZLE_2 = 
+			"000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+	
+	
+	// CONSTRUCTOR	---------------------
+	
+	private SolveServiceTest()
+	{
+		// The interface is static
+	}
+	
+	
+	// MAIN METHOD	---------------------
+	
+	/**
+	 * Runs the tests
+	 * @param args Not used
+	 * @throws Exception If the service couldn't be started or a request failed
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		SolveService service = new SolveService(new InetSocketAddress(
+				InetAddress.getLoopbackAddress(), 0), new SolveBatcher(2, 64, 16, 2, 10000), 4, 
+				16, 20000);
+		service.start();
+		try
+		{
+			String url = "http://127.0.0.1:" + service.getAddress().getPort();
+			testParseOnePuzzlePerLine();
+			testPostOnePuzzlePerLine(url);
+			testRequestTooLarge(url);
+			testDeeplyNestedJson(url);
+		}
+		finally
+		{
+			service.stop(0);
+		}
+		
+		System.out.println("All tests passed");
+	}
+	
+	
+	// TESTS	-------------------------
+	
+	private static void testParseOnePuzzlePerLine()
+	{
+		List<SolveBatcher.Puzzle> puzzles = SolveService.parseText(PUZZLE_1 + "\n" + 
+				PUZZLE_2 + "\n");
+		check(puzzles.size() == 2, "Expected 2 puzzles, got " + puzzles.size());
+	}
+	
+	private static void testPostOnePuzzlePerLine(String url) throws IOException
+	{
+		Response response = post(url + "/solve", PUZZLE_1 + "\n" + PUZZLE_2 + "\n");
+		check(response.status == 200, "Expected 200, got " + response.status + ": " + 
+				response.body);
+		check(count(response.body, "\"status\":\"SOLVED\"") == 2, 
+				"Expected 2 solved puzzles: " + response.body);
+	}
+	
+	private static void testRequestTooLarge(String url) throws IOException
+	{
+		StringBuilder body = new StringBuilder();
+		while (body.length() <= 5 * 1024 * 1024)
+		{
+			body.append(PUZZLE_1).append('\n');
+		}
+		
+		Response response = post(url + "/solve", body.toString());
+		check(response.status == 413, "Expected 413, got " + response.status + ": " + 
+				response.body);
+	}
+	
+	
+	private static void testDeeplyNestedJson(String url) throws IOException
+	{
+		// The body fits the size limit but is nested far too deep
+		StringBuilder body = new StringBuilder();
+		while (body.length() < 1024 * 1024)
+		{
+			body.append('[');
+		}
+		
+		Response response = post(url + "/solve", body.toString(), "application/json");
+		check(response.status == 400, "Expected 400, got " + response.status + ": " + 
+				response.body);
+		check(response.body.contains("Nested too deep"), "Unexpected error: " + 
+				response.body);
+	}
+	
+	
+	// OTHER METHODS	-----------------
+	
+	static Response post(String url, String body) throws IOException
+	{
+		return post(url, body, "text/plain; charset=utf-8");
+	}
+	
+	static Response post(String url, String body, String contentType) throws IOException
+	{
+		HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setRequestProperty("Content-Type", contentType);
+		try (OutputStream out = connection.getOutputStream())
+		{
+			out.write(body.getBytes(StandardCharsets.UTF_8));
+		}
+		
+		return read(connection);
+	}
+	
+	static Response get(String url) throws IOException
+	{
+		return read((HttpURLConnection) new URL(url).openConnection());
+	}
+	
+	private static Response read(HttpURLConnection connection) throws IOException
+	{
+		int status = connection.getResponseCode();
+		InputStream stream = status >= 400 ? connection.getErrorStream() : 
+				connection.getInputStream();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		if (stream != null)
+		{
+			try (InputStream in = stream)
+			{
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = in.read(buffer)) >= 0)
+				{
+					body.write(buffer, 0, read);
+				}
+			}
+		}
+		
+		return new Response(status, connection.getContentType(), 
+				new String(body.toByteArray(), StandardCharsets.UTF_8));
+	}
+	
+	static int count(String text, String part)
+	{
+		int count = 0;
+		for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1))
+		{
+			count ++;
+		}
+		return count;
+	}
+	
+	static void check(boolean condition, String message)
+	{
+		if (!condition)
+			throw new AssertionError(message);
+	}
+	
+	
+	// SUBCLASSES	---------------------
+	
+	static class Response
+	{
+		// ATTRIBUTES	-----------------
+		
+		int status;
+		String contentType, body;
+		
+		
+		// CONSTRUCTOR	-----------------
+		
+		public Response(int status, String contentType, String body)
+		{
+			this.status = status;
+			this.contentType = contentType;
+			this.body = body;
+		}
+	}
+}